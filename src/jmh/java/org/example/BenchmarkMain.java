@@ -0,0 +1,57 @@
+package org.example;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point for the benchmarks profile. Takes the normal JMH command line plus {@code -producers 1,4,8},
+ * which repeats the selected benchmarks once per producer thread count (JMH's own {@code -t} only takes one
+ * value). The GC profiler is attached by default so every run reports allocation rate next to ops/s.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>();
+        int[] producers = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-producers") && i + 1 < args.length) {
+                String[] counts = args[++i].split(",");
+                producers = new int[counts.length];
+                for (int j = 0; j < counts.length; j++) {
+                    producers[j] = Integer.parseInt(counts[j].trim());
+                }
+            } else if (!args[i].isBlank()) {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+            return;
+        }
+
+        if (producers == null) {
+            new Runner(options(commandLine).build()).run();
+            return;
+        }
+        for (int threads : producers) {
+            new Runner(options(commandLine).threads(threads).build()).run();
+        }
+    }
+
+    private static ChainedOptionsBuilder options(CommandLineOptions commandLine) {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        return builder;
+    }
+}
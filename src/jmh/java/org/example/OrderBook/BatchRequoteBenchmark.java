@@ -0,0 +1,93 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A market maker requoting {@code levels} levels a side: every invocation modifies all of its quotes, one tick
+ * in or out, either as one {@link ThreadSafeOrderBook#modifyOrder} call per quote or as a single
+ * {@link ThreadSafeOrderBook#submitBatch}. Each op is a whole requote and waits for all of its results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchRequoteBenchmark {
+
+    private static final long MID_TICKS = 5_000_000;
+
+    @Param({"50"})
+    public int levels;
+
+    @Param({"SEQUENCED", "CONCURRENT"})
+    public MatchingMode matchingMode;
+
+    private ThreadSafeOrderBook book;
+    private Order[][] quotes; // [shift][quote]: the whole ladder at each of the two alternating positions
+    private List<List<OrderEvent>> batches;
+    private int shift;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", new BigDecimal("0.01"), BigDecimal.ONE);
+        book = new ThreadSafeOrderBook(OrderBookConfig.builder(instrument).matchingMode(matchingMode).build(),
+                marketData -> { });
+
+        quotes = new Order[2][2 * levels];
+        batches = new ArrayList<>();
+        for (int s = 0; s < 2; s++) {
+            List<OrderEvent> batch = new ArrayList<>();
+            for (int level = 0; level < levels; level++) {
+                // Shift 1 sits one tick further out; the spread never closes
+                long offset = 1 + level * 2L + s;
+                quotes[s][2 * level] = new Order("b-" + level, OrderSide.BUY,
+                        instrument.priceOf(MID_TICKS - offset), BigDecimal.TEN);
+                quotes[s][2 * level + 1] = new Order("a-" + level, OrderSide.SELL,
+                        instrument.priceOf(MID_TICKS + offset), BigDecimal.TEN);
+                batch.add(new OrderEvent(OrderEventType.MODIFY, quotes[s][2 * level], 0));
+                batch.add(new OrderEvent(OrderEventType.MODIFY, quotes[s][2 * level + 1], 0));
+            }
+            batches.add(batch);
+        }
+        for (Order quote : quotes[0]) {
+            book.addOrder(quote).join();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    @Benchmark
+    public OrderResult individually() {
+        shift ^= 1;
+        Order[] ladder = quotes[shift];
+        CompletableFuture<?>[] results = new CompletableFuture<?>[ladder.length];
+        for (int i = 0; i < ladder.length; i++) {
+            results[i] = book.modifyOrder(ladder[i]);
+        }
+        CompletableFuture.allOf(results).join();
+        return (OrderResult) results[ladder.length - 1].join();
+    }
+
+    @Benchmark
+    public List<OrderResult> batched() {
+        shift ^= 1;
+        return book.submitBatch(batches.get(shift)).join();
+    }
+}
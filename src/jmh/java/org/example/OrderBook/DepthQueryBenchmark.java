@@ -0,0 +1,79 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "How much is there up to P" over an ask side of {@code levels} one-tick-apart levels, asked for half the
+ * side: summed level by level, as a fill-or-kill check does without an index, against the depth index, plus
+ * the index's price-for-quantity and VWAP. Also the cost the index adds to every change of a level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepthQueryBenchmark {
+
+    private static final long BEST_TICKS = 100_000;
+
+    @Param({"10", "100", "1000"})
+    public int levels;
+
+    private BookSide asks;
+    private DepthIndex index;
+    private long limitTicks;
+    private long wantedLots;
+    private long touched;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", BigDecimal.ONE, BigDecimal.ONE);
+        asks = new SkipListBookSide(OrderSide.SELL, instrument);
+        index = new DepthIndex(asks, OrderSide.SELL, 4096);
+        for (int level = 0; level < levels; level++) {
+            long ticks = BEST_TICKS + level;
+            asks.getOrCreate(ticks).addOrder(new RestingOrder(
+                    new Order("a-" + level, OrderSide.SELL, instrument.priceOf(ticks), BigDecimal.TEN), ticks, 10));
+            index.add(ticks, 10);
+        }
+        limitTicks = BEST_TICKS + levels / 2;
+        wantedLots = 10L * levels / 2;
+    }
+
+    @Benchmark
+    public long walkDepthUpTo() {
+        return asks.availableLots(limitTicks, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long indexDepthUpTo() {
+        return index.depthUpTo(limitTicks);
+    }
+
+    @Benchmark
+    public long indexPriceForQuantity() {
+        return index.priceForLots(wantedLots);
+    }
+
+    @Benchmark
+    public double indexVwapToFill() {
+        return index.vwapToFill(wantedLots);
+    }
+
+    /**
+     * One fill and its undo somewhere inside the side: what the matcher pays per level change.
+     */
+    @Benchmark
+    public void indexUpdate() {
+        long ticks = BEST_TICKS + (touched++ % levels);
+        index.add(ticks, -1);
+        index.add(ticks, 1);
+    }
+}
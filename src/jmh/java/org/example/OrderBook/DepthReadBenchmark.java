@@ -0,0 +1,84 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depth readers racing the matcher: one thread applies add/cancel pairs that keep rewriting the top of the
+ * bid side while three threads read it. Compares the seqlock view against the old way of building a
+ * {@code MarketData} per read, and shows what each costs the writer.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepthReadBenchmark {
+
+    private static final int WINDOW = 20;
+
+    private InstrumentSpec instrument;
+    private ThreadSafeOrderBook book;
+    private long top;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instrument = new InstrumentSpec("BENCH", BigDecimal.ONE, BigDecimal.ONE);
+        book = new ThreadSafeOrderBook(instrument, marketData -> { }, MatchingMode.EXTERNAL);
+        for (top = 1; top <= WINDOW; top++) {
+            book.addOrder(new Order("b-" + top, OrderSide.BUY, instrument.priceOf(top), BigDecimal.ONE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final BookDepth depth = new BookDepth(ThreadSafeOrderBook.DEPTH_LEVELS);
+    }
+
+    private void slideWindow() {
+        book.addOrder(new Order("b-" + top, OrderSide.BUY, instrument.priceOf(top), BigDecimal.ONE));
+        book.cancelOrder("b-" + (top - WINDOW));
+        top++;
+    }
+
+    @Benchmark
+    @Group("seqlock")
+    @GroupThreads(1)
+    public void seqlockWriter() {
+        slideWindow();
+    }
+
+    @Benchmark
+    @Group("seqlock")
+    @GroupThreads(3)
+    public BookDepth seqlockReader(Reader reader) {
+        book.readDepth(reader.depth);
+        return reader.depth;
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotWriter() {
+        slideWindow();
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(3)
+    public Object snapshotReader() {
+        return book.createSnapshot();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round trip of {@link ThreadSafeOrderBook#addOrder} / {@link ThreadSafeOrderBook#cancelOrder} under a mixed
+ * order flow. The book is seeded with {@code depth} levels a side; each producer thread then draws one action
+ * per invocation from {@code mix} ("cancel/aggress/passive" percentages):
+ * <ul>
+ *   <li>passive - rests one lot somewhere inside the seeded depth, never crossing</li>
+ *   <li>aggress - takes one lot from the opposite touch, alternating sides so the book stays balanced</li>
+ *   <li>cancel - pulls this thread's oldest passive order (falls back to passive when it has none, and is
+ *   forced once a thread has {@value #MAX_RESTING_PER_PRODUCER} orders resting)</li>
+ * </ul>
+ * Each invocation waits for its result, so SampleTime reports the end-to-end latency a caller sees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final long MID_TICKS = 5_000_000; // 50000.00
+    private static final int SEED_ORDERS_PER_LEVEL = 4;
+    private static final int MAX_RESTING_PER_PRODUCER = 1024; // keeps the book from growing across iterations
+    private static final BigDecimal ONE_LOT = BigDecimal.ONE;
+    private static final BigDecimal SEED_QUANTITY = new BigDecimal("1000000");
+
+    @Param({"10", "1000"})
+    public int depth;
+
+    @Param({"SEQUENCED", "CONCURRENT"})
+    public MatchingMode matchingMode;
+
+    @Param({"45/10/45", "20/20/60", "10/60/30"})
+    public String mix;
+
+    private ThreadSafeOrderBook book;
+    private BigDecimal[] bidPrices;
+    private BigDecimal[] askPrices;
+    private int cancelPercent;
+    private int aggressPercent;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] shares = mix.split("/");
+        cancelPercent = Integer.parseInt(shares[0]);
+        aggressPercent = Integer.parseInt(shares[1]);
+
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", new BigDecimal("0.01"), BigDecimal.ONE);
+        book = new ThreadSafeOrderBook(OrderBookConfig.builder(instrument).matchingMode(matchingMode).build(),
+                marketData -> { });
+
+        bidPrices = new BigDecimal[depth];
+        askPrices = new BigDecimal[depth];
+        for (int level = 0; level < depth; level++) {
+            bidPrices[level] = instrument.priceOf(MID_TICKS - 1 - level);
+            askPrices[level] = instrument.priceOf(MID_TICKS + 1 + level);
+            for (int i = 0; i < SEED_ORDERS_PER_LEVEL; i++) {
+                book.addOrder(new Order("seed-b-" + level + "-" + i, OrderSide.BUY, bidPrices[level], SEED_QUANTITY)).join();
+                book.addOrder(new Order("seed-a-" + level + "-" + i, OrderSide.SELL, askPrices[level], SEED_QUANTITY)).join();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        final ArrayDeque<String> resting = new ArrayDeque<>();
+        SplittableRandom random;
+        String prefix;
+        long nextId;
+        boolean buyNext;
+
+        @Setup(Level.Trial)
+        public void setUp(OrderBookBenchmark benchmark) {
+            int threadId = benchmark.threadIds.incrementAndGet();
+            random = new SplittableRandom(threadId);
+            prefix = "p" + threadId + "-";
+        }
+    }
+
+    @Benchmark
+    public OrderResult mixedFlow(Producer producer) {
+        int roll = producer.random.nextInt(100);
+        boolean mustCancel = producer.resting.size() >= MAX_RESTING_PER_PRODUCER;
+        if (mustCancel || (roll < cancelPercent && !producer.resting.isEmpty())) {
+            return book.cancelOrder(producer.resting.pollFirst()).join();
+        }
+        if (roll < cancelPercent + aggressPercent) {
+            producer.buyNext = !producer.buyNext;
+            return producer.buyNext
+                    ? book.addOrder(new Order(producer.prefix + producer.nextId++, OrderSide.BUY, askPrices[0], ONE_LOT)).join()
+                    : book.addOrder(new Order(producer.prefix + producer.nextId++, OrderSide.SELL, bidPrices[0], ONE_LOT)).join();
+        }
+        String id = producer.prefix + producer.nextId++;
+        int level = producer.random.nextInt(depth);
+        Order order = producer.random.nextBoolean()
+                ? new Order(id, OrderSide.BUY, bidPrices[level], ONE_LOT)
+                : new Order(id, OrderSide.SELL, askPrices[level], ONE_LOT);
+        producer.resting.addLast(id);
+        return book.addOrder(order).join();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderIndexType;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two order indexes on one thread with {@code orders} orders resting, visiting them in a shuffled order
+ * (ids here are sequential, and a walk in id order would favour a table that keeps them adjacent):
+ * <ul>
+ *   <li>{@code lookup} - find an order by the caller's id, as a cancel or modify does first</li>
+ *   <li>{@code cancelAndRest} - remove an order by id and index it again, the edge's churn at a steady size</li>
+ *   <li>{@code fillAndRest} - forget a filled order as the match path does, then index it again</li>
+ * </ul>
+ * {@link HashOrderIndex} is a ConcurrentHashMap of the orders; {@link PrimitiveOrderIndex} maps the id straight
+ * to a slot of its order store.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIndexBenchmark {
+
+    @Param({"HASH_MAP", "PRIMITIVE"})
+    public OrderIndexType kind;
+
+    @Param({"10000", "1000000"})
+    public int orders;
+
+    private OrderIndex index;
+    private RestingOrder[] resting;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = kind == OrderIndexType.PRIMITIVE ? new PrimitiveOrderIndex(orders) : new HashOrderIndex(orders);
+        resting = new RestingOrder[orders];
+        for (int i = 0; i < orders; i++) {
+            resting[i] = new RestingOrder("order-" + i, OrderSide.SELL, 100, 1, 1, 0);
+            index.add(resting[i]);
+        }
+        List<RestingOrder> walk = Arrays.asList(resting);
+        Collections.shuffle(walk, new Random(42));
+    }
+
+    private RestingOrder nextOrder() {
+        RestingOrder order = resting[next];
+        if (++next == resting.length) {
+            next = 0;
+        }
+        return order;
+    }
+
+    @Benchmark
+    public RestingOrder lookup() {
+        return index.get(nextOrder().id);
+    }
+
+    @Benchmark
+    public RestingOrder cancelAndRest() {
+        RestingOrder order = nextOrder();
+        RestingOrder removed = index.remove(order.id);
+        index.add(order);
+        return removed;
+    }
+
+    @Benchmark
+    public int fillAndRest() {
+        RestingOrder order = nextOrder();
+        index.removeFilled(order);
+        index.add(order);
+        return index.size();
+    }
+}
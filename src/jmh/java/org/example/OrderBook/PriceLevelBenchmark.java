@@ -0,0 +1,58 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every thread adds a one-lot order to one shared level, reads the level's size as market data does, and
+ * fills one lot off its head: the previous read-write-lock-plus-atomics level against the StampedLock level
+ * CONCURRENT books now use, and the plain level single-writer books use. Run with {@code -t 1}, {@code -t 2},
+ * ... {@code -t 16} to see contention; the plain level has no lock, so it only runs with one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceLevelBenchmark {
+
+    public enum LevelKind { RW_LOCK, STAMPED, PLAIN }
+
+    private static final FillHandler NO_FILLS = (level, maker, lots) -> { };
+
+    @Param({"RW_LOCK", "STAMPED", "PLAIN"})
+    public LevelKind kind;
+
+    private PriceLevel level;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        if (kind == LevelKind.PLAIN && params.getThreads() > 1) {
+            throw new IllegalStateException("The plain level is single-writer only");
+        }
+        switch (kind) {
+            case RW_LOCK -> level = new RwLockPriceLevel(100, BigDecimal.valueOf(100), OrderSide.SELL);
+            case STAMPED -> level = new LockedPriceLevel(100, BigDecimal.valueOf(100), OrderSide.SELL);
+            default -> level = new PriceLevel(100, BigDecimal.valueOf(100), OrderSide.SELL);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Taker {
+        final RestingOrder order = new RestingOrder("T", OrderSide.BUY, 100, 0, 1, 0);
+    }
+
+    @Benchmark
+    public long addReadAndFill(Taker taker) {
+        // A fresh maker each time: another thread's fill may leave this thread's last one still queued
+        level.addOrder(new RestingOrder("M", OrderSide.SELL, 100, 1, 1, 0));
+        long shown = level.totalLots();
+        taker.order.remainingLots = 1;
+        return shown + level.executeAgainst(taker.order, NO_FILLS);
+    }
+}
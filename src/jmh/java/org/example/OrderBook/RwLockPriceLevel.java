@@ -0,0 +1,204 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * The price level as it was before {@link LockedPriceLevel}: a ReentrantReadWriteLock of which only the write
+ * side is taken, around aggregates that are AtomicLongs as well. Kept for {@link PriceLevelBenchmark} only.
+ */
+final class RwLockPriceLevel extends PriceLevel {
+    private volatile RestingOrder head;
+    private RestingOrder tail;
+    private int orderCount;
+    private final AtomicLong totalLots;
+    private final AtomicLong hiddenLots;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    RwLockPriceLevel(long priceTicks, BigDecimal price, OrderSide side) {
+        super(priceTicks, price, side);
+        this.totalLots = new AtomicLong();
+        this.hiddenLots = new AtomicLong();
+    }
+
+    @Override
+    public void addOrder(RestingOrder order) {
+        lock.writeLock().lock();
+        try {
+            linkLast(order);
+            totalLots.addAndGet(order.remainingLots);
+            if (order.hiddenLots > 0) {
+                hiddenLots.addAndGet(order.hiddenLots);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * O(1) unlink of a resting order.
+     *
+     * @return false if the order is no longer in this level (already filled or cancelled)
+     */
+    @Override
+    public boolean removeOrder(RestingOrder order) {
+        lock.writeLock().lock();
+        try {
+            if (order.level != this) {
+                return false;
+            }
+            unlink(order);
+            totalLots.addAndGet(-order.remainingLots);
+            if (order.hiddenLots > 0) {
+                hiddenLots.addAndGet(-order.hiddenLots);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resize a resting order to {@code lots}, no more than it has left, without touching its queue position;
+     * {@code lots} becomes its new original size. Not for icebergs.
+     *
+     * @return false if the order is no longer in this level, is an iceberg, or {@code lots} is out of range
+     */
+    @Override
+    public boolean amendQuantity(RestingOrder order, long lots) {
+        lock.writeLock().lock();
+        try {
+            if (order.level != this || order.displayLots > 0 || lots <= 0 || lots > order.remainingLots) {
+                return false;
+            }
+            totalLots.addAndGet(lots - order.remainingLots);
+            order.remainingLots = lots;
+            order.originalLots = lots;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fill the incoming order against the head of this level - atomic operation
+     *
+     * @param fills told about the fill before the lock is released
+     * @return the lots traded, 0 if the level was empty
+     */
+    @Override
+    public long executeAgainst(RestingOrder incomingOrder, FillHandler fills) {
+        lock.writeLock().lock();
+        try {
+            RestingOrder headOrder = head;
+            if (headOrder == null) {
+                return 0;
+            }
+
+            long tradeLots = Math.min(headOrder.remainingLots, incomingOrder.remainingLots);
+
+            headOrder.remainingLots -= tradeLots;
+            incomingOrder.remainingLots -= tradeLots;
+
+            totalLots.addAndGet(-tradeLots);
+            // Remove fully filled order (or refill an iceberg); a partially filled head is the last order
+            // this event touches
+            if (headOrder.remainingLots == 0) {
+                if (headOrder.hiddenLots > 0) {
+                    replenish(headOrder);
+                } else {
+                    unlink(headOrder);
+                }
+            }
+
+            fills.onFill(this, headOrder, tradeLots);
+            return tradeLots;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visit resting orders in time priority. Callers must not run concurrently with writers.
+     */
+    @Override
+    public void forEachOrder(Consumer<RestingOrder> visitor) {
+        for (RestingOrder order = head; order != null; order = order.next) {
+            visitor.accept(order);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == null;
+    }
+
+    @Override
+    public int orderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public long totalLots() {
+        return totalLots.get();
+    }
+
+    /**
+     * Lots behind the icebergs' displayed slices: tradable, but not shown in market data.
+     */
+    @Override
+    public long hiddenLots() {
+        return hiddenLots.get();
+    }
+
+    // Must hold the write lock. A used-up iceberg slice is refilled from its reserve and, like a new order,
+    // queues behind everything already at the price
+    private void replenish(RestingOrder order) {
+        long shown = Math.min(order.displayLots, order.hiddenLots);
+        order.hiddenLots -= shown;
+        order.remainingLots = shown;
+        hiddenLots.addAndGet(-shown);
+        totalLots.addAndGet(shown);
+        unlink(order);
+        linkLast(order);
+    }
+
+    // Must hold the write lock
+    private void linkLast(RestingOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        orderCount++;
+    }
+
+    // Must hold the write lock
+    private void unlink(RestingOrder order) {
+        RestingOrder prev = order.prev;
+        RestingOrder next = order.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        order.prev = null;
+        order.next = null;
+        order.level = null;
+        orderCount--;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.BookSideType;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the read paths on a quiet book of {@code depth} levels a side with {@code ordersPerLevel} resting
+ * orders each: {@link ThreadSafeOrderBook#createSnapshot()}, which builds {@link MarketData} from the published
+ * depth view, the allocation-free {@link ThreadSafeOrderBook#readDepth} and the single-load best bid.
+ * See {@link DepthReadBenchmark} for the same reads racing a writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private static final long MID_TICKS = 5_000_000;
+
+    @Param({"10", "1000"})
+    public int depth;
+
+    @Param({"1", "16"})
+    public int ordersPerLevel;
+
+    @Param({"SKIP_LIST", "PRICE_LADDER"})
+    public BookSideType bookSide;
+
+    private ThreadSafeOrderBook book;
+    private final BookDepth depthBuffer = new BookDepth(ThreadSafeOrderBook.DEPTH_LEVELS);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", new BigDecimal("0.01"), BigDecimal.ONE);
+        OrderBookConfig config = OrderBookConfig.builder(instrument)
+                .matchingMode(MatchingMode.EXTERNAL)
+                .bookSide(bookSide)
+                .build();
+        book = new ThreadSafeOrderBook(config, marketData -> { });
+        BigDecimal quantity = BigDecimal.TEN;
+        for (int level = 0; level < depth; level++) {
+            BigDecimal bid = instrument.priceOf(MID_TICKS - 1 - level);
+            BigDecimal ask = instrument.priceOf(MID_TICKS + 1 + level);
+            for (int i = 0; i < ordersPerLevel; i++) {
+                book.addOrder(new Order("b-" + level + "-" + i, OrderSide.BUY, bid, quantity)).join();
+                book.addOrder(new Order("a-" + level + "-" + i, OrderSide.SELL, ask, quantity)).join();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    @Benchmark
+    public MarketData createSnapshot() {
+        return book.createSnapshot();
+    }
+
+    @Benchmark
+    public BookDepth readDepth() {
+        book.readDepth(depthBuffer);
+        return depthBuffer;
+    }
+
+    @Benchmark
+    public BigDecimal bestBid() {
+        return book.bestBid();
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.BookSideType;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An aggressive order sweeping {@code levels} one-lot asks, after which the same asks are restored. Compares
+ * fills collected as {@code Trade}s in the result with fills reported to an {@link ExecutionSink}; run with
+ * {@code -prof gc} to see what the match path itself allocates (the restore costs the same in both).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SweepBenchmark {
+
+    private static final long MID_TICKS = 5_000_000;
+
+    @Param({"20"})
+    public int levels;
+
+    @Param({"false", "true"})
+    public boolean executionSink;
+
+    @Param({"SKIP_LIST", "PRICE_LADDER"})
+    public BookSideType bookSide;
+
+    private ThreadSafeOrderBook book;
+    private Order[] asks;
+    private BigDecimal sweepPrice;
+    private BigDecimal sweepQuantity;
+    private long fills;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", new BigDecimal("0.01"), BigDecimal.ONE);
+        OrderBookConfig.Builder config = OrderBookConfig.builder(instrument)
+                .matchingMode(MatchingMode.EXTERNAL)
+                .incrementalMarketData(0);
+        if (bookSide == BookSideType.PRICE_LADDER) {
+            config.priceLadder(4096, instrument.priceOf(MID_TICKS));
+        }
+        if (executionSink) {
+            config.executionSink(report -> fills += report.lots());
+        }
+        book = new ThreadSafeOrderBook(config.build(), marketData -> { });
+
+        asks = new Order[levels];
+        for (int level = 0; level < levels; level++) {
+            asks[level] = new Order("a-" + level, OrderSide.SELL, instrument.priceOf(MID_TICKS + level), BigDecimal.ONE);
+        }
+        sweepPrice = instrument.priceOf(MID_TICKS + levels);
+        sweepQuantity = BigDecimal.valueOf(levels);
+        restore();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    private void restore() {
+        for (Order ask : asks) {
+            book.addOrder(new Order(ask.getId(), OrderSide.SELL, ask.getPrice(), BigDecimal.ONE));
+        }
+    }
+
+    @Benchmark
+    public OrderResult sweep() {
+        OrderResult result = book.addOrder(new Order("b-" + nextId++, OrderSide.BUY, sweepPrice, sweepQuantity)).join();
+        restore();
+        return result;
+    }
+}
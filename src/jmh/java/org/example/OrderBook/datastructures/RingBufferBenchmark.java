@@ -0,0 +1,78 @@
+package org.example.OrderBook.datastructures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RingBuffer#offer} / {@link RingBuffer#poll} throughput.
+ * <ul>
+ *   <li>{@code roundTrip} - one thread offers then polls, the uncontended cost of a hand-off</li>
+ *   <li>{@code handOff} group - producers offer while a consumer polls; the producer:consumer split follows
+ *   {@code -tg}, e.g. {@code -tg 4,1} for four producers, and {@code -producers} scales both sides</li>
+ * </ul>
+ * A full ring or an empty poll counts as an operation, so read the ringFull / ringEmpty counters
+ * alongside ops/s.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    private static final Long ITEM = 42L;
+
+    @Param({"1024", "65536"})
+    public int capacity;
+
+    private RingBuffer<Long> ring;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ring = new RingBuffer<>(capacity);
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long ringFull;
+        public long ringEmpty;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ringFull = 0;
+            ringEmpty = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("roundTrip")
+    public Long roundTrip() {
+        ring.offer(ITEM);
+        return ring.poll();
+    }
+
+    @Benchmark
+    @Group("handOff")
+    @GroupThreads(1)
+    public void offer(Outcomes outcomes) {
+        if (!ring.offer(ITEM)) {
+            outcomes.ringFull++;
+        }
+    }
+
+    @Benchmark
+    @Group("handOff")
+    @GroupThreads(1)
+    public void poll(Outcomes outcomes, Blackhole blackhole) {
+        Long item = ring.poll();
+        if (item == null) {
+            outcomes.ringEmpty++;
+        } else {
+            blackhole.consume(item);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.OrderBook.journal;
+
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Hot-path cost of {@link EventJournal#append} with the flusher forcing in the background, i.e. what journaling
+ * adds to every event the matcher applies. Single writer, as in the book.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventJournalBenchmark {
+
+    @Param({"1000"})
+    public long flushIntervalMicros;
+
+    private Path directory;
+    private EventJournal journal;
+    private Order order;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = new EventJournal(new JournalConfig(directory, JournalConfig.DEFAULT_SEGMENT_BYTES, flushIntervalMicros));
+        order = new Order("order-000000001", OrderSide.BUY, new BigDecimal("50000.25"), new BigDecimal("0.5"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        journal.append(new OrderEvent(OrderEventType.ADD, order, ++sequence));
+        return sequence;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.OrderBook.metrics;
+
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the instrumentation adds to an event: a passive order added and cancelled, then a one-lot trade
+ * against a resting order, on an EXTERNAL book built with and without metrics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ThreadSafeOrderBook book;
+    private Order bid;
+    private Order ask;
+    private Order take;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OrderBookConfig.Builder config = OrderBookConfig.builder(InstrumentSpec.defaultFor("BENCH"))
+                .matchingMode(MatchingMode.EXTERNAL);
+        if (metrics) {
+            config.metrics(MetricsConfig.inProcess());
+        }
+        book = new ThreadSafeOrderBook(config.build(), marketData -> { });
+        bid = new Order("bid", OrderSide.BUY, new BigDecimal("99"), BigDecimal.ONE);
+        ask = new Order("ask", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE);
+        take = new Order("take", OrderSide.BUY, new BigDecimal("101"), BigDecimal.ONE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    @Benchmark
+    public OrderResult addAndCancel() {
+        book.addOrder(bid);
+        return book.cancelOrder("bid").join();
+    }
+
+    @Benchmark
+    public OrderResult trade() {
+        book.addOrder(ask);
+        return book.addOrder(take).join();
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.interview_round_2.multi_threaded;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link OrderBook#processOrder} under the same flow shape as the main book's benchmark, minus cancels (this
+ * book has no cancel). Passive orders land inside the seeded depth, aggressive ones take a unit from the
+ * opposite touch. With {@code aggressPercent} 0 nothing ever crosses, so buys and sells only meet on the
+ * per-side locks; run with {@code -t 1}, {@code -t 2}, ... to see how far that scales. Every passive order now
+ * joins its price's queue instead of replacing the one there, so the book is rebuilt for each iteration to
+ * keep its growth bounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiThreadedOrderBookBenchmark {
+
+    private static final BigDecimal MID = new BigDecimal("50000.00");
+    private static final BigDecimal TICK = new BigDecimal("0.01");
+    private static final int SEED_QUANTITY = 1_000_000;
+    private static final int PASSIVE_QUANTITY = 100;
+
+    @Param({"10", "1000"})
+    public int depth;
+
+    @Param({"0", "10", "60"})
+    public int aggressPercent;
+
+    private OrderBook book;
+    private BigDecimal[] bidPrices;
+    private BigDecimal[] askPrices;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        book = new OrderBook();
+        bidPrices = new BigDecimal[depth];
+        askPrices = new BigDecimal[depth];
+        for (int level = 0; level < depth; level++) {
+            BigDecimal offset = TICK.multiply(BigDecimal.valueOf(level + 1));
+            bidPrices[level] = MID.subtract(offset);
+            askPrices[level] = MID.add(offset);
+            book.processOrder(new Order("seed-b-" + level, "BENCH", Order.Side.BUY, SEED_QUANTITY, bidPrices[level]));
+            book.processOrder(new Order("seed-a-" + level, "BENCH", Order.Side.SELL, SEED_QUANTITY, askPrices[level]));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        SplittableRandom random;
+        String prefix;
+        long nextId;
+        boolean buyNext;
+
+        @Setup(Level.Trial)
+        public void setUp(MultiThreadedOrderBookBenchmark benchmark) {
+            int threadId = benchmark.threadIds.incrementAndGet();
+            random = new SplittableRandom(threadId);
+            prefix = "p" + threadId + "-";
+        }
+    }
+
+    @Benchmark
+    public List<Trade> mixedFlow(Producer producer) {
+        String id = producer.prefix + producer.nextId++;
+        if (producer.random.nextInt(100) < aggressPercent) {
+            producer.buyNext = !producer.buyNext;
+            return producer.buyNext
+                    ? book.processOrder(new Order(id, "BENCH", Order.Side.BUY, 1, askPrices[0]))
+                    : book.processOrder(new Order(id, "BENCH", Order.Side.SELL, 1, bidPrices[0]));
+        }
+        int level = producer.random.nextInt(depth);
+        return producer.random.nextBoolean()
+                ? book.processOrder(new Order(id, "BENCH", Order.Side.BUY, PASSIVE_QUANTITY, bidPrices[level]))
+                : book.processOrder(new Order(id, "BENCH", Order.Side.SELL, PASSIVE_QUANTITY, askPrices[level]));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.interview_round_2.single_threaded;
+
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single-threaded ceiling: {@code levels} one-lot asks are rested and then swept by one buy, which leaves
+ * the book as it started. The reference {@link TradingEngine} against {@link ThreadSafeOrderBook} in EXTERNAL
+ * mode, the main book with no hand-off between threads, doing the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleThreadedEngineBenchmark {
+
+    private static final long MID_TICKS = 5_000_000;
+    private static final BigDecimal TICK = new BigDecimal("0.01");
+
+    @Param({"1", "20"})
+    public int levels;
+
+    private TradingEngine engine;
+    private final TradeBuffer trades = new TradeBuffer();
+    private Order[] asks;
+    private Order sweep;
+
+    private ThreadSafeOrderBook book;
+    private org.example.OrderBook.entities.Order[] bookAsks;
+    private BigDecimal sweepPrice;
+    private BigDecimal sweepQuantity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new TradingEngine(TICK);
+        asks = new Order[levels];
+        for (int level = 0; level < levels; level++) {
+            asks[level] = new Order("a-" + level, "BENCH", Order.Side.SELL, 1, price(MID_TICKS + level));
+        }
+        sweep = new Order("b", "BENCH", Order.Side.BUY, levels, price(MID_TICKS + levels));
+
+        InstrumentSpec instrument = new InstrumentSpec("BENCH", TICK, BigDecimal.ONE);
+        book = new ThreadSafeOrderBook(OrderBookConfig.builder(instrument)
+                .matchingMode(MatchingMode.EXTERNAL)
+                .incrementalMarketData(0)
+                .build(), marketData -> { });
+        bookAsks = new org.example.OrderBook.entities.Order[levels];
+        for (int level = 0; level < levels; level++) {
+            bookAsks[level] = new org.example.OrderBook.entities.Order("a-" + level, OrderSide.SELL,
+                    price(MID_TICKS + level), BigDecimal.ONE);
+        }
+        sweepPrice = price(MID_TICKS + levels);
+        sweepQuantity = BigDecimal.valueOf(levels);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        book.close();
+    }
+
+    private static BigDecimal price(long ticks) {
+        return TICK.multiply(BigDecimal.valueOf(ticks));
+    }
+
+    @Benchmark
+    public int referenceEngine() {
+        for (Order ask : asks) {
+            engine.processOrder(ask, trades);
+        }
+        return engine.processOrder(sweep, trades);
+    }
+
+    @Benchmark
+    public OrderResult threadSafeOrderBook() {
+        for (org.example.OrderBook.entities.Order ask : bookAsks) {
+            book.addOrder(new org.example.OrderBook.entities.Order(ask.getId(), OrderSide.SELL, ask.getPrice(),
+                    BigDecimal.ONE));
+        }
+        return book.addOrder(new org.example.OrderBook.entities.Order("b", OrderSide.BUY, sweepPrice,
+                sweepQuantity)).join();
+    }
+}
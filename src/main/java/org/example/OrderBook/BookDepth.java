@@ -0,0 +1,73 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+
+import java.math.BigDecimal;
+
+/**
+ * A reader's copy of the top levels of a book, filled by {@link ThreadSafeOrderBook#readDepth(BookDepth)}.
+ * Meant to be allocated once per reader thread and refilled, so polling the book allocates nothing.
+ * Prices are in ticks and sizes in lots of the book's {@link InstrumentSpec}; index 0 is the best level.
+ */
+public final class BookDepth {
+
+    final long[] bidTicks;
+    final long[] bidLots;
+    final long[] askTicks;
+    final long[] askLots;
+    int bidLevels;
+    int askLevels;
+    long sequence;
+
+    /**
+     * @param maxLevels levels kept per side; the book publishes at most {@link ThreadSafeOrderBook#DEPTH_LEVELS}
+     */
+    public BookDepth(int maxLevels) {
+        if (maxLevels <= 0) {
+            throw new IllegalArgumentException("maxLevels must be positive");
+        }
+        this.bidTicks = new long[maxLevels];
+        this.bidLots = new long[maxLevels];
+        this.askTicks = new long[maxLevels];
+        this.askLots = new long[maxLevels];
+    }
+
+    public int bidLevels() {
+        return bidLevels;
+    }
+
+    public int askLevels() {
+        return askLevels;
+    }
+
+    public long bidTicks(int level) {
+        return bidTicks[level];
+    }
+
+    public long bidLots(int level) {
+        return bidLots[level];
+    }
+
+    public long askTicks(int level) {
+        return askTicks[level];
+    }
+
+    public long askLots(int level) {
+        return askLots[level];
+    }
+
+    /**
+     * The last market data sequence reflected in this copy, as in {@code MarketData#sequence()}.
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    public BigDecimal bidPrice(int level, InstrumentSpec instrument) {
+        return instrument.priceOf(bidTicks[level]);
+    }
+
+    public BigDecimal askPrice(int level, InstrumentSpec instrument) {
+        return instrument.priceOf(askTicks[level]);
+    }
+}
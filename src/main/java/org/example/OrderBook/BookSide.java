@@ -0,0 +1,39 @@
+package org.example.OrderBook;
+
+import java.util.function.Consumer;
+
+/**
+ * One side of the book, ordered best price first. Implementations own level creation
+ * so they are free to reuse level objects as prices come and go.
+ */
+interface BookSide {
+
+    /**
+     * @return the best non-empty level, or null if the side is empty
+     */
+    PriceLevel best();
+
+    PriceLevel get(long priceTicks);
+
+    PriceLevel getOrCreate(long priceTicks);
+
+    /**
+     * Drop the level from the side if it no longer holds any orders.
+     */
+    void removeIfEmpty(PriceLevel level);
+
+    /**
+     * Visit up to {@code maxLevels} non-empty levels, best first.
+     */
+    void forEach(int maxLevels, Consumer<PriceLevel> visitor);
+
+    /**
+     * Lots, shown and hidden, that a taker limited to {@code limitTicks} could trade against on this side,
+     * summing from the best level and stopping once {@code wanted} is reached.
+     */
+    long availableLots(long limitTicks, long wanted);
+
+    int levelCount();
+
+    boolean isEmpty();
+}
@@ -0,0 +1,358 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Cumulative executable size (shown and hidden lots) and notional (lots x ticks) of one book side by price,
+ * best first, so "how much is there up to P", "how far does Q lots reach" and "what would Q lots average"
+ * are O(log n) instead of a walk over the levels.
+ * <p>
+ * Prices are turned into keys that grow away from the touch (ticks for asks, minus ticks for bids). Two
+ * Fenwick trees, lots and notional, cover a window of {@code size} keys that starts a quarter window better
+ * than the touch it was anchored on; levels worse than the window sit in a short sorted overflow list, which
+ * queries only reach once the window is used up. A price better than the window, or the window emptying
+ * while the overflow is not, re-anchors it on the new touch and rebuilds from the book side, in
+ * O(size + levels log size); like the ladder's recentring, that only happens on large price moves.
+ * <p>
+ * The book's writer calls {@link #add} after every change to a level's size, once an emptied level has left
+ * the side. Queries run on any thread under a seqlock, as {@link DepthView}'s do, and allocate nothing; they
+ * see the side as of some point between two updates.
+ */
+final class DepthIndex {
+
+    static final long NONE = -1;
+    // What reach() returns when the side is too thin; no key can be this
+    private static final long SHORT = Long.MIN_VALUE;
+
+    private final BookSide side;
+    private final boolean bids;
+    private final int size;
+    // 1-based Fenwick trees over the window; key baseKey + i is at position i + 1. Notional is a 128-bit sum
+    // kept as a high and a low long, since lots x ticks passes 2^63 at ordinary sizes on a 1e-8 grid
+    private final long[] lots;
+    private final long[] notionalHigh;
+    private final long[] notionalLow;
+    private long windowLots;
+    private long windowNotionalHigh;
+    private long windowNotionalLow;
+    private long baseKey;
+    private boolean anchored;
+
+    // Levels worse than the window, ascending by key
+    private long[] overflowKeys = new long[16];
+    private long[] overflowLots = new long[16];
+    private int overflowCount;
+
+    private volatile long version;
+
+    // Bound once so a rebuild allocates nothing
+    private final Consumer<PriceLevel> rebuilder;
+
+    /**
+     * @param size window width in ticks, rounded up to a power of two
+     */
+    DepthIndex(BookSide side, OrderSide orderSide, int size) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Depth index ticks must be between 1 and 2^30");
+        }
+        this.side = side;
+        this.bids = orderSide == OrderSide.BUY;
+        this.size = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.lots = new long[this.size + 1];
+        this.notionalHigh = new long[this.size + 1];
+        this.notionalLow = new long[this.size + 1];
+        this.rebuilder = level -> insert(key(level.priceTicks), level.totalLots() + level.hiddenLots());
+    }
+
+    /**
+     * Writer side: the level at {@code priceTicks} has changed by {@code deltaLots}, and already shows it.
+     */
+    void add(long priceTicks, long deltaLots) {
+        if (deltaLots == 0) {
+            return;
+        }
+        long start = version;
+        version = start + 1;
+        // The odd version must be visible before any of the writes below
+        VarHandle.storeStoreFence();
+
+        long key = key(priceTicks);
+        if (!anchored || key < baseKey) {
+            rebuild();
+        } else {
+            insert(key, deltaLots);
+            if (windowLots == 0) {
+                rebuild();
+            }
+        }
+
+        version = start + 2;
+    }
+
+    /**
+     * Lots at {@code limitTicks} or better.
+     */
+    long depthUpTo(long limitTicks) {
+        long limitKey = limitKey(limitTicks);
+        while (true) {
+            long start = version;
+            if ((start & 1) == 0) {
+                long result = anchored ? lotsUpTo(limitKey) : 0;
+                // Keep the reads above from being reordered past the version re-check
+                VarHandle.loadLoadFence();
+                if (version == start) {
+                    return result;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * The worst price a taker of {@code wantedLots} reaches, or {@link #NONE} if the side holds less.
+     */
+    long priceForLots(long wantedLots) {
+        while (true) {
+            long start = version;
+            if ((start & 1) == 0) {
+                long result = anchored && wantedLots > 0 ? reach(wantedLots) : SHORT;
+                VarHandle.loadLoadFence();
+                if (version == start) {
+                    return result == SHORT ? NONE : ticks(result);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Volume-weighted average price, in ticks, of taking {@code wantedLots}; NaN if the side holds less.
+     */
+    double vwapToFill(long wantedLots) {
+        while (true) {
+            long start = version;
+            if ((start & 1) == 0) {
+                double result = anchored && wantedLots > 0 ? notionalToFill(wantedLots) : Double.NaN;
+                VarHandle.loadLoadFence();
+                if (version == start) {
+                    return result / wantedLots;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private long key(long priceTicks) {
+        return bids ? -priceTicks : priceTicks;
+    }
+
+    private long ticks(long key) {
+        return bids ? -key : key;
+    }
+
+    // A market order's limit is Long.MIN_VALUE for a sell, whose negation would overflow
+    private long limitKey(long limitTicks) {
+        if (bids) {
+            return limitTicks == Long.MIN_VALUE ? Long.MAX_VALUE : -limitTicks;
+        }
+        return limitTicks;
+    }
+
+    // Writer only
+    private void rebuild() {
+        Arrays.fill(lots, 0);
+        Arrays.fill(notionalHigh, 0);
+        Arrays.fill(notionalLow, 0);
+        windowLots = 0;
+        windowNotionalHigh = 0;
+        windowNotionalLow = 0;
+        overflowCount = 0;
+        PriceLevel best = side.best();
+        anchored = best != null;
+        if (anchored) {
+            baseKey = key(best.priceTicks) - size / 4;
+            side.forEach(Integer.MAX_VALUE, rebuilder);
+        }
+    }
+
+    // Writer only
+    private void insert(long key, long deltaLots) {
+        if (deltaLots == 0) {
+            return;
+        }
+        long offset = key - baseKey;
+        if (offset >= size) {
+            addOverflow(key, deltaLots);
+            return;
+        }
+        long ticks = ticks(key);
+        long deltaHigh = Math.multiplyHigh(deltaLots, ticks);
+        long deltaLow = deltaLots * ticks;
+        for (int i = (int) offset + 1; i <= size; i += i & -i) {
+            lots[i] += deltaLots;
+            long low = notionalLow[i] + deltaLow;
+            notionalHigh[i] += deltaHigh + carry(low, deltaLow);
+            notionalLow[i] = low;
+        }
+        windowLots += deltaLots;
+        long low = windowNotionalLow + deltaLow;
+        windowNotionalHigh += deltaHigh + carry(low, deltaLow);
+        windowNotionalLow = low;
+    }
+
+    // Writer only
+    private void addOverflow(long key, long deltaLots) {
+        int at = Arrays.binarySearch(overflowKeys, 0, overflowCount, key);
+        if (at >= 0) {
+            overflowLots[at] += deltaLots;
+            if (overflowLots[at] == 0) {
+                System.arraycopy(overflowKeys, at + 1, overflowKeys, at, overflowCount - at - 1);
+                System.arraycopy(overflowLots, at + 1, overflowLots, at, overflowCount - at - 1);
+                overflowCount--;
+            }
+            return;
+        }
+        at = -at - 1;
+        if (overflowCount == overflowKeys.length) {
+            // New arrays, not grown in place, so a reader holding the old ones still sees a whole list
+            overflowKeys = Arrays.copyOf(overflowKeys, overflowCount * 2);
+            overflowLots = Arrays.copyOf(overflowLots, overflowCount * 2);
+        }
+        System.arraycopy(overflowKeys, at, overflowKeys, at + 1, overflowCount - at);
+        System.arraycopy(overflowLots, at, overflowLots, at + 1, overflowCount - at);
+        overflowKeys[at] = key;
+        overflowLots[at] = deltaLots;
+        overflowCount++;
+    }
+
+    // The query helpers below read each writer field once: a rebuild can move baseKey and windowLots between
+    // two reads, and a position computed from two different bases can fall outside the tree
+    private long lotsUpTo(long limitKey) {
+        long base = baseKey;
+        // Compared rather than subtracted: a market order's limit key is Long.MAX_VALUE
+        if (limitKey < base) {
+            return 0;
+        }
+        if (limitKey < base + size) {
+            long sum = 0;
+            for (int i = (int) (limitKey - base) + 1; i > 0; i -= i & -i) {
+                sum += lots[i];
+            }
+            return sum;
+        }
+        long sum = windowLots;
+        long[] keys = overflowKeys;
+        long[] levelLots = overflowLots;
+        // A torn count could be out of range; the caller's version check discards the result either way
+        int count = Math.min(overflowCount, Math.min(keys.length, levelLots.length));
+        for (int i = 0; i < count && keys[i] <= limitKey; i++) {
+            sum += levelLots[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the key {@code wantedLots} reaches, or {@link #SHORT} if the side holds less
+     */
+    private long reach(long wantedLots) {
+        long inWindow = windowLots;
+        if (inWindow >= wantedLots) {
+            return baseKey + lastShortPosition(wantedLots);
+        }
+        long lotsBefore = inWindow;
+        long[] keys = overflowKeys;
+        long[] levelLots = overflowLots;
+        // A torn count could be out of range; the caller's version check discards the result either way
+        int count = Math.min(overflowCount, Math.min(keys.length, levelLots.length));
+        for (int i = 0; i < count; i++) {
+            lotsBefore += levelLots[i];
+            if (lotsBefore >= wantedLots) {
+                return keys[i];
+            }
+        }
+        return SHORT;
+    }
+
+    /**
+     * @return the notional of taking {@code wantedLots}, or NaN if the side holds less
+     */
+    private double notionalToFill(long wantedLots) {
+        long lotsBefore;
+        long high;
+        long low;
+        long key;
+        long inWindow = windowLots;
+        if (inWindow >= wantedLots) {
+            // The same descent as lastShortPosition, summing notional along the way
+            int position = 0;
+            lotsBefore = 0;
+            high = 0;
+            low = 0;
+            for (int step = size; step > 0; step >>>= 1) {
+                int next = position + step;
+                if (next <= size && lotsBefore + lots[next] < wantedLots) {
+                    position = next;
+                    lotsBefore += lots[next];
+                    long sum = low + notionalLow[next];
+                    high += notionalHigh[next] + carry(sum, notionalLow[next]);
+                    low = sum;
+                }
+            }
+            key = baseKey + position;
+        } else {
+            lotsBefore = inWindow;
+            high = windowNotionalHigh;
+            low = windowNotionalLow;
+            long[] keys = overflowKeys;
+            long[] levelLots = overflowLots;
+            int count = Math.min(overflowCount, Math.min(keys.length, levelLots.length));
+            int i = 0;
+            while (i < count && lotsBefore + levelLots[i] < wantedLots) {
+                long ticks = ticks(keys[i]);
+                long levelLow = levelLots[i] * ticks;
+                long sum = low + levelLow;
+                high += Math.multiplyHigh(levelLots[i], ticks) + carry(sum, levelLow);
+                low = sum;
+                lotsBefore += levelLots[i];
+                i++;
+            }
+            if (i == count) {
+                return Double.NaN;
+            }
+            key = keys[i];
+        }
+        long ticks = ticks(key);
+        long taken = wantedLots - lotsBefore;
+        long takenLow = taken * ticks;
+        long sum = low + takenLow;
+        high += Math.multiplyHigh(taken, ticks) + carry(sum, takenLow);
+        return toDouble(high, sum);
+    }
+
+    // Descend the tree for the last position whose prefix is still short of wantedLots
+    private int lastShortPosition(long wantedLots) {
+        int position = 0;
+        long lotsBefore = 0;
+        for (int step = size; step > 0; step >>>= 1) {
+            int next = position + step;
+            if (next <= size && lotsBefore + lots[next] < wantedLots) {
+                position = next;
+                lotsBefore += lots[next];
+            }
+        }
+        return position;
+    }
+
+    // 1 if the unsigned low-word addition that produced sum (with addend as one side) wrapped
+    private static long carry(long sum, long addend) {
+        return Long.compareUnsigned(sum, addend) < 0 ? 1 : 0;
+    }
+
+    private static double toDouble(long high, long low) {
+        return high * 0x1p64 + (double) (low >>> 1) * 2.0 + (low & 1);
+    }
+}
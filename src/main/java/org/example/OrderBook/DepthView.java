@@ -0,0 +1,114 @@
+package org.example.OrderBook;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * The top levels of both sides as flat arrays, published under a seqlock: the single writer makes the version
+ * odd, rewrites the arrays and makes it even again, and a reader copies the arrays out and keeps the copy only
+ * if the version was even and unchanged across it. Readers never block the writer or each other and allocate
+ * nothing; a reader that overlaps an update simply copies again.
+ * <p>
+ * The best prices are additionally kept in their own volatile fields, so reading just the touch is a single
+ * wait-free load.
+ */
+final class DepthView {
+
+    private final int depth;
+    private final long[] bidTicks;
+    private final long[] bidLots;
+    private final long[] askTicks;
+    private final long[] askLots;
+    private int bidLevels;
+    private int askLevels;
+    private long sequence;
+
+    private volatile long version;
+    private volatile BigDecimal bestBid;
+    private volatile BigDecimal bestAsk;
+
+    // Writer-side cursors for the level visitors, bound once so an update allocates nothing
+    private int cursor;
+    private final Consumer<PriceLevel> bidWriter;
+    private final Consumer<PriceLevel> askWriter;
+
+    DepthView(int depth) {
+        this.depth = depth;
+        this.bidTicks = new long[depth];
+        this.bidLots = new long[depth];
+        this.askTicks = new long[depth];
+        this.askLots = new long[depth];
+        this.bidWriter = level -> {
+            bidTicks[cursor] = level.priceTicks;
+            bidLots[cursor++] = level.totalLots();
+        };
+        this.askWriter = level -> {
+            askTicks[cursor] = level.priceTicks;
+            askLots[cursor++] = level.totalLots();
+        };
+    }
+
+    /**
+     * Copy the top levels of both sides in. One writer at a time.
+     */
+    void update(BookSide bids, BookSide asks, long marketDataSequence) {
+        long start = version;
+        version = start + 1;
+        // The odd version must be visible before any of the array writes below
+        VarHandle.storeStoreFence();
+
+        cursor = 0;
+        bids.forEach(depth, bidWriter);
+        bidLevels = cursor;
+        cursor = 0;
+        asks.forEach(depth, askWriter);
+        askLevels = cursor;
+        sequence = marketDataSequence;
+
+        version = start + 2;
+
+        PriceLevel bestBidLevel = bids.best();
+        PriceLevel bestAskLevel = asks.best();
+        bestBid = bestBidLevel == null ? null : bestBidLevel.price;
+        bestAsk = bestAskLevel == null ? null : bestAskLevel.price;
+    }
+
+    /**
+     * Copy up to {@code into}'s capacity of levels per side, retrying until the copy is not torn.
+     */
+    void read(BookDepth into) {
+        while (true) {
+            long start = version;
+            if ((start & 1) == 0) {
+                int bids = Math.min(bidLevels, into.bidTicks.length);
+                int asks = Math.min(askLevels, into.askTicks.length);
+                // A torn count could be out of range; the version check below discards it either way
+                if (bids >= 0 && bids <= depth && asks >= 0 && asks <= depth) {
+                    System.arraycopy(bidTicks, 0, into.bidTicks, 0, bids);
+                    System.arraycopy(bidLots, 0, into.bidLots, 0, bids);
+                    System.arraycopy(askTicks, 0, into.askTicks, 0, asks);
+                    System.arraycopy(askLots, 0, into.askLots, 0, asks);
+                    long copiedSequence = sequence;
+                    // Keep the copy above from being reordered past the version re-check
+                    VarHandle.loadLoadFence();
+                    if (version == start) {
+                        into.bidLevels = bids;
+                        into.askLevels = asks;
+                        into.sequence = copiedSequence;
+                        return;
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    BigDecimal bestBid() {
+        return bestBid;
+    }
+
+    BigDecimal bestAsk() {
+        return bestAsk;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.ExecutorType;
+import org.example.OrderBook.enums.RejectionPolicy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs a CONCURRENT book's events as configured by an {@link ExecutionConfig}. {@link #submit} throws
+ * {@link RejectedExecutionException} when the queue bound is hit under REJECT, or after {@link #close}.
+ */
+final class EventExecutor {
+
+    private final ExecutionConfig config;
+    // Null for CALLER_RUNS
+    private final ExecutorService executor;
+    // VIRTUAL_THREADS only: the executor is unbounded, so in-flight events are capped here
+    private final Semaphore inFlight;
+
+    EventExecutor(ExecutionConfig config, String symbol) {
+        this.config = config;
+        this.executor = switch (config.type()) {
+            case CALLER_RUNS -> null;
+            case PINNED_THREAD, BOUNDED_POOL -> newPool(config, symbol);
+            case VIRTUAL_THREADS -> newVirtualThreadPerTaskExecutor();
+        };
+        this.inFlight = executor != null && config.type() == ExecutorType.VIRTUAL_THREADS
+                ? new Semaphore(config.queueCapacity()) : null;
+    }
+
+    private static ExecutorService newPool(ExecutionConfig config, String symbol) {
+        AtomicInteger threadIds = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(config.threads(), config.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.queueCapacity()),
+                task -> {
+                    String name = config.threads() == 1
+                            ? "matcher-" + symbol
+                            : "matcher-" + symbol + "-" + threadIds.incrementAndGet();
+                    Thread thread = new Thread(task, name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectionHandler(config.rejection()));
+        pool.prestartAllCoreThreads();
+        return pool;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(RejectionPolicy policy) {
+        return switch (policy) {
+            case REJECT -> new ThreadPoolExecutor.AbortPolicy();
+            // Not CallerRunsPolicy: after shutdown it drops the task, and its future would never complete
+            case CALLER_RUNS -> (task, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                task.run();
+            };
+            case BLOCK -> (task, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                try {
+                    pool.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for room", e);
+                }
+                // A shutdown while this waited may already have let the workers exit, leaving the task queued
+                // forever; take it back unless a worker got to it first
+                if (pool.isShutdown() && pool.getQueue().remove(task)) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+            };
+        };
+    }
+
+    /**
+     * Looked up reflectively so the book still builds and runs on the Java 16/17 this project targets.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later", e);
+        }
+    }
+
+    /**
+     * Events accepted but not yet running (VIRTUAL_THREADS: in flight).
+     */
+    int queued() {
+        if (inFlight != null) {
+            return config.queueCapacity() - inFlight.availablePermits();
+        }
+        return executor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        if (inFlight == null) {
+            return CompletableFuture.supplyAsync(task, executor);
+        }
+        return submitBounded(task);
+    }
+
+    private <T> CompletableFuture<T> submitBounded(Supplier<T> task) {
+        if (!inFlight.tryAcquire()) {
+            switch (config.rejection()) {
+                case REJECT -> throw new RejectedExecutionException("Too many events in flight");
+                case CALLER_RUNS -> {
+                    return CompletableFuture.completedFuture(task.get());
+                }
+                case BLOCK -> inFlight.acquireUninterruptibly();
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    inFlight.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stop accepting events and wait for the accepted ones to finish. Throws {@link IllegalStateException} if
+     * they have not within a minute; the events not yet started are then dropped and the running ones
+     * interrupted.
+     */
+    void close() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                int dropped = executor.shutdownNow().size();
+                throw new IllegalStateException("Events still running after a minute; " + dropped + " dropped");
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.ExecutorType;
+import org.example.OrderBook.enums.RejectionPolicy;
+
+/**
+ * Where a CONCURRENT book runs its events, in place of the JVM-wide common pool.
+ *
+ * @param threads       matching threads for BOUNDED_POOL (always 1 for PINNED_THREAD, unused otherwise)
+ * @param queueCapacity events accepted but not yet running before {@code rejection} applies (for VIRTUAL_THREADS,
+ *                      events in flight)
+ */
+public record ExecutionConfig(ExecutorType type, int threads, int queueCapacity, RejectionPolicy rejection) {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    public ExecutionConfig {
+        if (type == null || rejection == null) {
+            throw new IllegalArgumentException("Executor type and rejection policy are required");
+        }
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive");
+        }
+        if (type == ExecutorType.PINNED_THREAD && threads != 1) {
+            throw new IllegalArgumentException("A pinned matching thread is a single thread");
+        }
+    }
+
+    /**
+     * A dedicated pool of one thread per core that back-pressures callers once {@value #DEFAULT_QUEUE_CAPACITY}
+     * events are waiting.
+     */
+    public static ExecutionConfig defaults() {
+        return boundedPool(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, RejectionPolicy.BLOCK);
+    }
+
+    public static ExecutionConfig callerRuns() {
+        return new ExecutionConfig(ExecutorType.CALLER_RUNS, 1, 1, RejectionPolicy.CALLER_RUNS);
+    }
+
+    public static ExecutionConfig pinnedThread(int queueCapacity, RejectionPolicy rejection) {
+        return new ExecutionConfig(ExecutorType.PINNED_THREAD, 1, queueCapacity, rejection);
+    }
+
+    public static ExecutionConfig boundedPool(int threads, int queueCapacity, RejectionPolicy rejection) {
+        return new ExecutionConfig(ExecutorType.BOUNDED_POOL, threads, queueCapacity, rejection);
+    }
+
+    public static ExecutionConfig virtualThreads(int maxInFlight, RejectionPolicy rejection) {
+        return new ExecutionConfig(ExecutorType.VIRTUAL_THREADS, 1, maxInFlight, rejection);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Trade;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One fill, as handed to an {@link ExecutionSink}. Prices are in ticks and sizes in lots of the book's
+ * {@link InstrumentSpec}. The book reuses a single instance, so it is only valid during the callback.
+ */
+public final class ExecutionReport {
+
+    private long tradeId;
+    private long eventSequence;
+    private String buyOrderId;
+    private String sellOrderId;
+    private OrderSide aggressor;
+    private long priceTicks;
+    private long lots;
+    private long makerRemainingLots;
+    private long takerRemainingLots;
+    private long timestampNanos;
+
+    void set(long tradeId, long eventSequence, RestingOrder taker, RestingOrder maker, long priceTicks, long lots,
+             long timestampNanos) {
+        boolean takerBuys = taker.side == OrderSide.BUY;
+        this.tradeId = tradeId;
+        this.eventSequence = eventSequence;
+        this.buyOrderId = takerBuys ? taker.id : maker.id;
+        this.sellOrderId = takerBuys ? maker.id : taker.id;
+        this.aggressor = taker.side;
+        this.priceTicks = priceTicks;
+        this.lots = lots;
+        this.makerRemainingLots = maker.leavesLots();
+        this.takerRemainingLots = taker.leavesLots();
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Unique within the book and increasing in matching order: the event's sequence number followed by the
+     * fill's index within that event, so it comes out the same when the journal is replayed.
+     */
+    public long tradeId() {
+        return tradeId;
+    }
+
+    public long eventSequence() {
+        return eventSequence;
+    }
+
+    public String buyOrderId() {
+        return buyOrderId;
+    }
+
+    public String sellOrderId() {
+        return sellOrderId;
+    }
+
+    /**
+     * Side of the incoming order that took liquidity.
+     */
+    public OrderSide aggressor() {
+        return aggressor;
+    }
+
+    public long priceTicks() {
+        return priceTicks;
+    }
+
+    public long lots() {
+        return lots;
+    }
+
+    public long makerRemainingLots() {
+        return makerRemainingLots;
+    }
+
+    public long takerRemainingLots() {
+        return takerRemainingLots;
+    }
+
+    /**
+     * Wall-clock time of the event in nanoseconds since the epoch; every fill of one event shares it.
+     */
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * An immutable copy, for sinks that do want to keep the fill.
+     */
+    public Trade toTrade(InstrumentSpec instrument) {
+        return new Trade(instrument.symbol() + "-" + tradeId, buyOrderId, sellOrderId, instrument.priceOf(priceTicks),
+                instrument.quantityOf(lots), Instant.ofEpochSecond(0, timestampNanos));
+    }
+
+    public BigDecimal price(InstrumentSpec instrument) {
+        return instrument.priceOf(priceTicks);
+    }
+
+    public BigDecimal quantity(InstrumentSpec instrument) {
+        return instrument.quantityOf(lots);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.OrderBook;
+
+/**
+ * Receives every fill of a book as it happens, on the book's matching thread, instead of the fills being
+ * collected as {@code Trade}s in the {@code OrderResult}. The report is a flyweight the book refills for the
+ * next fill, so copy anything that has to outlive the call.
+ */
+@FunctionalInterface
+public interface ExecutionSink {
+
+    void onExecution(ExecutionReport report);
+}
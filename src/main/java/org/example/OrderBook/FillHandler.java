@@ -0,0 +1,14 @@
+package org.example.OrderBook;
+
+/**
+ * Told about each fill by {@link PriceLevel#executeAgainst}, before it returns; a
+ * {@link LockedPriceLevel} still holds its write lock.
+ */
+interface FillHandler {
+
+    /**
+     * @param maker the resting order that traded; already unlinked from {@code level} if this fill completed it
+     * @param lots  size of the fill
+     */
+    void onFill(PriceLevel level, RestingOrder maker, long lots);
+}
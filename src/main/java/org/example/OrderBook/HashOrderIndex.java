@@ -0,0 +1,46 @@
+package org.example.OrderBook;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default index, and the only one CONCURRENT books can use: a {@link ConcurrentHashMap} keyed by the
+ * caller's id.
+ */
+final class HashOrderIndex implements OrderIndex {
+
+    private final ConcurrentHashMap<String, RestingOrder> orders;
+
+    HashOrderIndex(int expectedOrders) {
+        this.orders = new ConcurrentHashMap<>(Math.max(16, expectedOrders));
+    }
+
+    @Override
+    public RestingOrder get(String orderId) {
+        return orders.get(orderId);
+    }
+
+    @Override
+    public void add(RestingOrder order) {
+        orders.put(order.id, order);
+    }
+
+    @Override
+    public RestingOrder remove(String orderId) {
+        return orders.remove(orderId);
+    }
+
+    @Override
+    public boolean remove(String orderId, RestingOrder expected) {
+        return orders.remove(orderId, expected);
+    }
+
+    @Override
+    public void removeFilled(RestingOrder order) {
+        orders.remove(order.id, order);
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * How a {@link BookSide} makes its levels: plain single-writer {@link PriceLevel}s, {@link LockedPriceLevel}s
+ * for a CONCURRENT book, or levels whose queue lives in an {@link OffHeapOrderStore}.
+ */
+interface LevelFactory {
+
+    PriceLevel create(long priceTicks, BigDecimal price, OrderSide side);
+}
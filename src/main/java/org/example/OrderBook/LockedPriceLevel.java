@@ -0,0 +1,125 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The level of a CONCURRENT book, whose events mutate and read the same levels from several threads. Every
+ * change runs the single-writer code under one {@link StampedLock} write lock, and the aggregates are read
+ * optimistically: the plain fields are read with no write to shared memory, and only a read that overlapped
+ * a writer falls back to the read lock. The fields carry no atomics of their own, so each change pays for one
+ * lock acquisition and nothing else.
+ */
+final class LockedPriceLevel extends PriceLevel {
+
+    private final StampedLock lock = new StampedLock();
+
+    LockedPriceLevel(long priceTicks, BigDecimal price, OrderSide side) {
+        super(priceTicks, price, side);
+    }
+
+    @Override
+    public void addOrder(RestingOrder order) {
+        long stamp = lock.writeLock();
+        try {
+            super.addOrder(order);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean removeOrder(RestingOrder order) {
+        long stamp = lock.writeLock();
+        try {
+            return super.removeOrder(order);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean amendQuantity(RestingOrder order, long lots) {
+        long stamp = lock.writeLock();
+        try {
+            return super.amendQuantity(order, lots);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param fills told about the fill while the write lock is still held
+     */
+    @Override
+    public long executeAgainst(RestingOrder incomingOrder, FillHandler fills) {
+        long stamp = lock.writeLock();
+        try {
+            return super.executeAgainst(incomingOrder, fills);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long stamp = lock.tryOptimisticRead();
+        boolean empty = super.isEmpty();
+        if (lock.validate(stamp)) {
+            return empty;
+        }
+        stamp = lock.readLock();
+        try {
+            return super.isEmpty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int orderCount() {
+        long stamp = lock.tryOptimisticRead();
+        int count = super.orderCount();
+        if (lock.validate(stamp)) {
+            return count;
+        }
+        stamp = lock.readLock();
+        try {
+            return super.orderCount();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long totalLots() {
+        long stamp = lock.tryOptimisticRead();
+        long lots = super.totalLots();
+        if (lock.validate(stamp)) {
+            return lots;
+        }
+        stamp = lock.readLock();
+        try {
+            return super.totalLots();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long hiddenLots() {
+        long stamp = lock.tryOptimisticRead();
+        long lots = super.hiddenLots();
+        if (lock.validate(stamp)) {
+            return lots;
+        }
+        stamp = lock.readLock();
+        try {
+            return super.hiddenLots();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
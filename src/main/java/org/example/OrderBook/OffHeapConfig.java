@@ -0,0 +1,27 @@
+package org.example.OrderBook;
+
+import java.nio.file.Path;
+
+/**
+ * Keep a single-writer book's resting orders outside the Java heap, so heap size and GC pauses do not grow
+ * with book depth. The book's own levels stay on-heap; each order is a fixed-size record in direct memory or
+ * in a memory-mapped scratch file, which lets the OS page cold parts of a very deep book out.
+ * <p>
+ * Order ids must then be at most {@value OffHeapOrderStore#MAX_ID_LENGTH} Latin-1 characters, and the caller's
+ * {@link org.example.OrderBook.entities.Order} is not kept once it rests, as with a PRIMITIVE order index.
+ *
+ * @param mappedFile scratch file for the orders, recreated on start-up and deleted on close; null for direct memory
+ */
+public record OffHeapConfig(Path mappedFile) {
+
+    public static OffHeapConfig direct() {
+        return new OffHeapConfig(null);
+    }
+
+    public static OffHeapConfig mapped(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Mapped file is required");
+        }
+        return new OffHeapConfig(file);
+    }
+}
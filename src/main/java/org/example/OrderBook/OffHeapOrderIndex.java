@@ -0,0 +1,64 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+/**
+ * The id lookup of an {@link OffHeapOrderStore}. The store indexes an order when its level stores it and
+ * drops it when the level lets go of the slot, so adding and forgetting here are no-ops; lookups return a
+ * transient copy of the slot with its level resolved from the book side.
+ */
+final class OffHeapOrderIndex implements OrderIndex {
+
+    private final OffHeapOrderStore store;
+    private final BookSide bids;
+    private final BookSide asks;
+
+    OffHeapOrderIndex(OffHeapOrderStore store, BookSide bids, BookSide asks) {
+        this.store = store;
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    @Override
+    public RestingOrder get(String orderId) {
+        int slot = store.find(orderId);
+        if (slot == OffHeapOrderStore.NONE) {
+            return null;
+        }
+        RestingOrder order = store.view(slot);
+        order.level = (order.side == OrderSide.BUY ? bids : asks).get(order.priceTicks);
+        return order;
+    }
+
+    @Override
+    public void add(RestingOrder order) {
+        // Indexed by OffHeapPriceLevel#addOrder
+    }
+
+    /**
+     * Same as {@link #get}: the slot is only released when the order is taken out of its level, which the
+     * book always does next.
+     */
+    @Override
+    public RestingOrder remove(String orderId) {
+        return get(orderId);
+    }
+
+    @Override
+    public void removeFilled(RestingOrder order) {
+        // Freed by OffHeapPriceLevel#executeAgainst
+    }
+
+    @Override
+    public void checkId(String orderId) {
+        if (!OffHeapOrderStore.storable(orderId)) {
+            throw new IllegalArgumentException("Off-heap order ids are at most " + OffHeapOrderStore.MAX_ID_LENGTH
+                    + " Latin-1 characters");
+        }
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,320 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Resting orders as fixed-size records outside the Java heap, in direct buffers or in a memory-mapped scratch
+ * file. A book of any depth then costs the heap a few buffer objects per {@value #CHUNK_SLOTS} orders, and
+ * the collector has nothing per order to trace or copy.
+ * <p>
+ * Slots are {@value #SLOT_BYTES} bytes: remaining and original lots, price ticks, timestamp, the level queue
+ * links ({@code prev}/{@code next}, slot numbers), the id hash chain, side, and the id itself inline as up to
+ * {@value #MAX_ID_LENGTH} Latin-1 characters. Freed slots are pushed on a free list threaded through
+ * {@code next} and handed out again before the store grows, a chunk at a time. The id index is a chained
+ * hash table whose bucket heads are off-heap too and whose chains run through the slots.
+ * <p>
+ * Single writer. {@link #view} copies a slot into a transient {@link RestingOrder} for the code above it.
+ */
+final class OffHeapOrderStore implements AutoCloseable {
+
+    static final int NONE = -1;
+    static final int SLOT_BYTES = 96;
+    static final int MAX_ID_LENGTH = 46;
+
+    // Slot layout
+    private static final int REMAINING = 0;
+    private static final int ORIGINAL = 8;
+    private static final int PRICE = 16;
+    private static final int TIMESTAMP = 24;
+    private static final int PREV = 32;
+    private static final int NEXT = 36;
+    private static final int ID_NEXT = 40;
+    private static final int ID_HASH = 44;
+    private static final int SIDE = 48;
+    private static final int ID_LENGTH = 49;
+    private static final int ID = 50;
+
+    private static final int CHUNK_BITS = 16;
+    static final int CHUNK_SLOTS = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SLOTS - 1;
+    private static final long CHUNK_BYTES = (long) CHUNK_SLOTS * SLOT_BYTES;
+    private static final int MAX_BUCKETS = 1 << 29;
+    private static final OrderSide[] SIDES = OrderSide.values();
+
+    private final Path mappedFile;
+    private final FileChannel channel;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+    private int unused; // Slots at or above this have never been handed out
+    private int freeHead = NONE;
+    private int size;
+
+    // Bucket heads hold slot + 1, so a fresh (zeroed) table is empty
+    private IntBuffer buckets;
+    private int bucketMask;
+
+    private final byte[] idBytes = new byte[MAX_ID_LENGTH];
+
+    /**
+     * @param mappedFile scratch file to map the slots from, recreated empty; null keeps them in direct memory
+     */
+    OffHeapOrderStore(Path mappedFile, int expectedOrders) {
+        this.mappedFile = mappedFile;
+        try {
+            this.channel = mappedFile == null ? null : FileChannel.open(mappedFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + mappedFile + " for off-heap orders", e);
+        }
+        int bucketCount = Integer.highestOneBit(Math.max(16, Math.min(MAX_BUCKETS, expectedOrders)) - 1) << 1;
+        allocateBuckets(Math.min(MAX_BUCKETS, bucketCount));
+    }
+
+    /**
+     * @return whether {@code orderId} fits in a slot
+     */
+    static boolean storable(String orderId) {
+        if (orderId.length() > MAX_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < orderId.length(); i++) {
+            if (orderId.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy {@code order} into a free slot and index it by id; the caller links it into its level's queue.
+     * A newer order with the same id shadows the older one until it is freed.
+     */
+    int allocate(RestingOrder order) {
+        int slot;
+        if (freeHead != NONE) {
+            slot = freeHead;
+            freeHead = next(slot);
+        } else {
+            if ((unused >>> CHUNK_BITS) == chunkCount) {
+                addChunk();
+            }
+            slot = unused++;
+        }
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        chunk.putLong(base + REMAINING, order.remainingLots);
+        chunk.putLong(base + ORIGINAL, order.originalLots);
+        chunk.putLong(base + PRICE, order.priceTicks);
+        chunk.putLong(base + TIMESTAMP, order.timestampNanos);
+        chunk.putInt(base + PREV, NONE);
+        chunk.putInt(base + NEXT, NONE);
+        chunk.put(base + SIDE, (byte) order.side.ordinal());
+        String id = order.id;
+        chunk.put(base + ID_LENGTH, (byte) id.length());
+        for (int i = 0; i < id.length(); i++) {
+            chunk.put(base + ID + i, (byte) id.charAt(i));
+        }
+        int hash = hash(id);
+        int bucket = hash & bucketMask;
+        chunk.putInt(base + ID_HASH, hash);
+        chunk.putInt(base + ID_NEXT, buckets.get(bucket) - 1);
+        buckets.put(bucket, slot + 1);
+
+        if (++size > bucketMask + 1 && bucketMask + 1 < MAX_BUCKETS) {
+            rehash((bucketMask + 1) * 2);
+        }
+        return slot;
+    }
+
+    /**
+     * Drop the slot from the id index and return it to the free list. It must already be out of its queue.
+     */
+    void free(int slot) {
+        int bucket = chunk(slot).getInt(offset(slot) + ID_HASH) & bucketMask;
+        int previous = NONE;
+        for (int current = buckets.get(bucket) - 1; current != slot; current = idNext(current)) {
+            previous = current;
+        }
+        if (previous == NONE) {
+            buckets.put(bucket, idNext(slot) + 1);
+        } else {
+            chunk(previous).putInt(offset(previous) + ID_NEXT, idNext(slot));
+        }
+        setNext(slot, freeHead);
+        freeHead = slot;
+        size--;
+    }
+
+    /**
+     * @return the slot of the newest order stored under {@code orderId}, or {@link #NONE}
+     */
+    int find(String orderId) {
+        if (!storable(orderId)) {
+            return NONE;
+        }
+        int hash = hash(orderId);
+        for (int slot = buckets.get(hash & bucketMask) - 1; slot != NONE; slot = idNext(slot)) {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot);
+            if (chunk.getInt(base + ID_HASH) == hash && idEquals(chunk, base, orderId)) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * A transient copy of the slot, carrying the slot number as its internal id.
+     */
+    RestingOrder view(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        int length = chunk.get(base + ID_LENGTH);
+        chunk.get(base + ID, idBytes, 0, length);
+        RestingOrder order = new RestingOrder(new String(idBytes, 0, length, StandardCharsets.ISO_8859_1),
+                SIDES[chunk.get(base + SIDE)], chunk.getLong(base + PRICE), chunk.getLong(base + REMAINING),
+                chunk.getLong(base + ORIGINAL), chunk.getLong(base + TIMESTAMP));
+        order.internalId = slot;
+        return order;
+    }
+
+    long remainingLots(int slot) {
+        return chunk(slot).getLong(offset(slot) + REMAINING);
+    }
+
+    void setRemainingLots(int slot, long lots) {
+        chunk(slot).putLong(offset(slot) + REMAINING, lots);
+    }
+
+    void setOriginalLots(int slot, long lots) {
+        chunk(slot).putLong(offset(slot) + ORIGINAL, lots);
+    }
+
+    int prev(int slot) {
+        return chunk(slot).getInt(offset(slot) + PREV);
+    }
+
+    void setPrev(int slot, int prev) {
+        chunk(slot).putInt(offset(slot) + PREV, prev);
+    }
+
+    int next(int slot) {
+        return chunk(slot).getInt(offset(slot) + NEXT);
+    }
+
+    void setNext(int slot, int next) {
+        chunk(slot).putInt(offset(slot) + NEXT, next);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Off-heap bytes reserved so far, slots and index.
+     */
+    long reservedBytes() {
+        return chunkCount * CHUNK_BYTES + (long) buckets.capacity() * Integer.BYTES;
+    }
+
+    /**
+     * Releases the mapped file. Direct memory goes back to the OS once the buffers are collected.
+     */
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(chunks, null);
+        chunkCount = 0;
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(mappedFile);
+        }
+    }
+
+    private int idNext(int slot) {
+        return chunk(slot).getInt(offset(slot) + ID_NEXT);
+    }
+
+    private boolean idEquals(ByteBuffer chunk, int base, String orderId) {
+        if (chunk.get(base + ID_LENGTH) != orderId.length()) {
+            return false;
+        }
+        for (int i = 0; i < orderId.length(); i++) {
+            if ((chunk.get(base + ID + i) & 0xFF) != orderId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(String orderId) {
+        int hash = orderId.hashCode(); // Cached by the String
+        return hash ^ (hash >>> 16);
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> CHUNK_BITS];
+    }
+
+    private static int offset(int slot) {
+        return (slot & CHUNK_MASK) * SLOT_BYTES;
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        ByteBuffer chunk;
+        if (channel == null) {
+            chunk = ByteBuffer.allocateDirect((int) CHUNK_BYTES);
+        } else {
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkCount * CHUNK_BYTES, CHUNK_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow " + mappedFile, e);
+            }
+        }
+        chunks[chunkCount++] = chunk.order(ByteOrder.nativeOrder());
+    }
+
+    private void allocateBuckets(int count) {
+        buckets = ByteBuffer.allocateDirect(count * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        bucketMask = count - 1;
+    }
+
+    /**
+     * Relink every chain into a table twice the size; the hashes are stored, so no id is read. Each chain is
+     * reversed before it is pushed onto the new heads, so orders sharing an id stay newest first.
+     */
+    private void rehash(int count) {
+        IntBuffer old = buckets;
+        allocateBuckets(count);
+        for (int bucket = 0; bucket < old.capacity(); bucket++) {
+            int slot = NONE;
+            for (int current = old.get(bucket) - 1; current != NONE; ) {
+                int following = idNext(current);
+                chunk(current).putInt(offset(current) + ID_NEXT, slot);
+                slot = current;
+                current = following;
+            }
+            while (slot != NONE) {
+                int following = idNext(slot);
+                int target = chunk(slot).getInt(offset(slot) + ID_HASH) & bucketMask;
+                chunk(slot).putInt(offset(slot) + ID_NEXT, buckets.get(target) - 1);
+                buckets.put(target, slot + 1);
+                slot = following;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * A price level whose FIFO is a chain of {@link OffHeapOrderStore} slots: the level itself is the only
+ * on-heap object, and the {@link RestingOrder}s it takes and hands out are transient copies. Joining the
+ * queue stores and indexes the order; leaving it, by fill or removal, frees the slot.
+ * <p>
+ * Single writer only, like the base class.
+ */
+final class OffHeapPriceLevel extends PriceLevel {
+
+    private final OffHeapOrderStore store;
+    private int headSlot = OffHeapOrderStore.NONE;
+    private int tailSlot = OffHeapOrderStore.NONE;
+
+    OffHeapPriceLevel(long priceTicks, BigDecimal price, OrderSide side, OffHeapOrderStore store) {
+        super(priceTicks, price, side);
+        this.store = store;
+    }
+
+    @Override
+    public void addOrder(RestingOrder order) {
+        captured = null;
+        int slot = store.allocate(order);
+        order.internalId = slot;
+        order.level = this;
+        store.setPrev(slot, tailSlot);
+        if (tailSlot == OffHeapOrderStore.NONE) {
+            headSlot = slot;
+        } else {
+            store.setNext(tailSlot, slot);
+        }
+        tailSlot = slot;
+        orderCount++;
+        totalLots += order.remainingLots;
+    }
+
+    @Override
+    public boolean removeOrder(RestingOrder order) {
+        if (order.level != this) {
+            return false;
+        }
+        captured = null;
+        int slot = (int) order.internalId;
+        totalLots -= store.remainingLots(slot);
+        unlink(slot);
+        order.level = null;
+        return true;
+    }
+
+    @Override
+    public boolean amendQuantity(RestingOrder order, long lots) {
+        if (order.level != this || lots <= 0 || lots > order.remainingLots) {
+            return false;
+        }
+        captured = null;
+        int slot = (int) order.internalId;
+        totalLots += lots - order.remainingLots;
+        store.setRemainingLots(slot, lots);
+        store.setOriginalLots(slot, lots);
+        order.remainingLots = lots;
+        order.originalLots = lots;
+        return true;
+    }
+
+    @Override
+    public long executeAgainst(RestingOrder incomingOrder, FillHandler fills) {
+        int slot = headSlot;
+        if (slot == OffHeapOrderStore.NONE) {
+            return 0;
+        }
+
+        long tradeLots = Math.min(store.remainingLots(slot), incomingOrder.remainingLots);
+        captured = null;
+        store.setRemainingLots(slot, store.remainingLots(slot) - tradeLots);
+        incomingOrder.remainingLots -= tradeLots;
+
+        RestingOrder maker = store.view(slot);
+        if (maker.remainingLots == 0) {
+            unlink(slot);
+        } else {
+            maker.level = this;
+        }
+        totalLots -= tradeLots;
+
+        fills.onFill(this, maker, tradeLots);
+        return tradeLots;
+    }
+
+    @Override
+    public void forEachOrder(Consumer<RestingOrder> visitor) {
+        for (int slot = headSlot; slot != OffHeapOrderStore.NONE; slot = store.next(slot)) {
+            visitor.accept(store.view(slot));
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return headSlot == OffHeapOrderStore.NONE;
+    }
+
+    private void unlink(int slot) {
+        int prev = store.prev(slot);
+        int next = store.next(slot);
+        if (prev == OffHeapOrderStore.NONE) {
+            headSlot = next;
+        } else {
+            store.setNext(prev, next);
+        }
+        if (next == OffHeapOrderStore.NONE) {
+            tailSlot = prev;
+        } else {
+            store.setPrev(next, prev);
+        }
+        orderCount--;
+        store.free(slot);
+    }
+}
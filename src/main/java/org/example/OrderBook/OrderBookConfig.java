@@ -0,0 +1,213 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.datastructures.ParkingWaitStrategy;
+import org.example.OrderBook.datastructures.WaitStrategy;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.BookSideType;
+import org.example.OrderBook.enums.MarketDataMode;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderIndexType;
+import org.example.OrderBook.journal.BookSnapshotConfig;
+import org.example.OrderBook.journal.JournalConfig;
+import org.example.OrderBook.metrics.MetricsConfig;
+
+import java.math.BigDecimal;
+
+/**
+ * Construction-time settings for a {@link ThreadSafeOrderBook}.
+ *
+ * @param ladderTicks          width of the PRICE_LADDER window in ticks (multiple of 64)
+ * @param ladderReferencePrice price to centre the ladder on; null centres it on the first order
+ * @param snapshotInterval     in INCREMENTAL mode, publish a full snapshot every this many events (0 = only on request)
+ * @param journal              where to journal every event before it is applied; null for an in-memory book
+ * @param bookSnapshots        periodic full-book snapshots that bound start-up replay; needs a journal (null = none)
+ * @param execution            where a CONCURRENT book runs its events (null for the other modes)
+ * @param executionSink        receives every fill as a reused report instead of Trades in the results (null = Trades)
+ * @param expectedOrders       resting orders to size the order index for (it grows past this if needed)
+ * @param offHeapOrders        keep resting orders outside the heap (null = on-heap); brings its own order index
+ * @param metrics              stage latencies and counters (null = none, and no clock reads on the hot path)
+ * @param depthIndexTicks      width in ticks of each side's cumulative depth index (0 = none)
+ */
+public record OrderBookConfig(InstrumentSpec instrument,
+                              MatchingMode matchingMode,
+                              WaitStrategy waitStrategy,
+                              BookSideType bookSide,
+                              int ladderTicks,
+                              BigDecimal ladderReferencePrice,
+                              MarketDataMode marketDataMode,
+                              int snapshotInterval,
+                              JournalConfig journal,
+                              BookSnapshotConfig bookSnapshots,
+                              ExecutionConfig execution,
+                              ExecutionSink executionSink,
+                              OrderIndexType orderIndex,
+                              int expectedOrders,
+                              OffHeapConfig offHeapOrders,
+                              MetricsConfig metrics,
+                              int depthIndexTicks) {
+
+    public OrderBookConfig {
+        if (bookSide == BookSideType.PRICE_LADDER && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("PRICE_LADDER book sides need a single writer (SEQUENCED or EXTERNAL)");
+        }
+        if (ladderTicks <= 0 || (ladderTicks & 63) != 0) {
+            throw new IllegalArgumentException("Ladder ticks must be a positive multiple of 64");
+        }
+        if (marketDataMode == MarketDataMode.INCREMENTAL && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("INCREMENTAL market data needs a single writer (SEQUENCED or EXTERNAL) to order its deltas");
+        }
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("Snapshot interval must not be negative");
+        }
+        if (journal != null && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("Journaling needs a single writer (SEQUENCED or EXTERNAL) to order the events");
+        }
+        if (bookSnapshots != null && journal == null) {
+            throw new IllegalArgumentException("Book snapshots need a journal to replay the events after them");
+        }
+        if (execution != null && matchingMode != MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("Only CONCURRENT books run their events on an executor");
+        }
+        if (executionSink != null && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("An execution sink needs a single writer (SEQUENCED or EXTERNAL) to reuse its report");
+        }
+        if (orderIndex == OrderIndexType.PRIMITIVE && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("A PRIMITIVE order index needs a single writer (SEQUENCED or EXTERNAL)");
+        }
+        if (offHeapOrders != null && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("Off-heap orders need a single writer (SEQUENCED or EXTERNAL)");
+        }
+        if (offHeapOrders != null && orderIndex == OrderIndexType.PRIMITIVE) {
+            throw new IllegalArgumentException("Off-heap orders are indexed by their store, not a PRIMITIVE order index");
+        }
+        if (depthIndexTicks < 0 || depthIndexTicks > 1 << 30) {
+            throw new IllegalArgumentException("Depth index ticks must be between 0 and 2^30");
+        }
+        if (depthIndexTicks > 0 && matchingMode == MatchingMode.CONCURRENT) {
+            throw new IllegalArgumentException("A depth index needs a single writer (SEQUENCED or EXTERNAL)");
+        }
+        if (expectedOrders < 0) {
+            throw new IllegalArgumentException("Expected orders must not be negative");
+        }
+        if (execution == null && matchingMode == MatchingMode.CONCURRENT) {
+            execution = ExecutionConfig.defaults();
+        }
+    }
+
+    public static Builder builder(InstrumentSpec instrument) {
+        return new Builder(instrument);
+    }
+
+    public static final class Builder {
+        private final InstrumentSpec instrument;
+        private MatchingMode matchingMode = MatchingMode.CONCURRENT;
+        private WaitStrategy waitStrategy = new ParkingWaitStrategy();
+        private BookSideType bookSide = BookSideType.SKIP_LIST;
+        private int ladderTicks = 4096;
+        private BigDecimal ladderReferencePrice;
+        private MarketDataMode marketDataMode = MarketDataMode.SNAPSHOT;
+        private int snapshotInterval;
+        private JournalConfig journal;
+        private BookSnapshotConfig bookSnapshots;
+        private ExecutionConfig execution;
+        private ExecutionSink executionSink;
+        private OrderIndexType orderIndex = OrderIndexType.HASH_MAP;
+        private int expectedOrders = 16;
+        private OffHeapConfig offHeapOrders;
+        private MetricsConfig metrics;
+        private int depthIndexTicks;
+
+        private Builder(InstrumentSpec instrument) {
+            this.instrument = instrument;
+        }
+
+        public Builder matchingMode(MatchingMode matchingMode) {
+            this.matchingMode = matchingMode;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public Builder bookSide(BookSideType bookSide) {
+            this.bookSide = bookSide;
+            return this;
+        }
+
+        public Builder priceLadder(int ladderTicks, BigDecimal referencePrice) {
+            this.bookSide = BookSideType.PRICE_LADDER;
+            this.ladderTicks = ladderTicks;
+            this.ladderReferencePrice = referencePrice;
+            return this;
+        }
+
+        public Builder incrementalMarketData(int snapshotInterval) {
+            this.marketDataMode = MarketDataMode.INCREMENTAL;
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        public Builder journal(JournalConfig journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public Builder bookSnapshots(BookSnapshotConfig bookSnapshots) {
+            this.bookSnapshots = bookSnapshots;
+            return this;
+        }
+
+        /**
+         * For CONCURRENT books; defaults to {@link ExecutionConfig#defaults()}.
+         */
+        public Builder execution(ExecutionConfig execution) {
+            this.execution = execution;
+            return this;
+        }
+
+        public Builder executionSink(ExecutionSink executionSink) {
+            this.executionSink = executionSink;
+            return this;
+        }
+
+        /**
+         * Index resting orders in a primitive id -> slot table instead of a ConcurrentHashMap; the book then no
+         * longer keeps the caller's {@link org.example.OrderBook.entities.Order} once it rests, so a passive
+         * fill is not reflected in it.
+         */
+        public Builder primitiveOrderIndex(int expectedOrders) {
+            this.orderIndex = OrderIndexType.PRIMITIVE;
+            this.expectedOrders = expectedOrders;
+            return this;
+        }
+
+        public Builder offHeapOrders(OffHeapConfig offHeapOrders, int expectedOrders) {
+            this.offHeapOrders = offHeapOrders;
+            this.expectedOrders = expectedOrders;
+            return this;
+        }
+
+        public Builder metrics(MetricsConfig metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Keep cumulative size and notional by price on each side, for O(log n) fill-or-kill checks and the
+         * book's depth, price-impact and VWAP queries. {@code ticks} (rounded up to a power of two) of each
+         * side are indexed from just through the touch; deeper levels are summed level by level.
+         */
+        public Builder depthIndex(int ticks) {
+            this.depthIndexTicks = ticks;
+            return this;
+        }
+
+        public OrderBookConfig build() {
+            return new OrderBookConfig(instrument, matchingMode, waitStrategy, bookSide, ladderTicks,
+                    ladderReferencePrice, marketDataMode, snapshotInterval, journal, bookSnapshots, execution,
+                    executionSink, orderIndex, expectedOrders, offHeapOrders, metrics, depthIndexTicks);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.example.OrderBook.entities.MarketData;
 import org.example.OrderBook.entities.Order;
 import org.example.OrderBook.entities.OrderResult;
 import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.marketdata.DeliveryPolicy;
+import org.example.OrderBook.marketdata.MarketDataDispatcher;
 import org.example.OrderBook.marketdata.MarketDataPublisher;
 
 import java.math.BigDecimal;
@@ -26,10 +28,14 @@ public class OrderBookMain {
             }
         };
 
-        // 2. Create the ThreadSafeOrderBook
-        ThreadSafeOrderBook orderBook = new ThreadSafeOrderBook("BTC/USD", publisher);
+        // 2. Printing is slow - let the dispatcher throttle it so it never holds up matching
+        MarketDataDispatcher dispatcher = new MarketDataDispatcher();
+        dispatcher.subscribe("console", publisher, DeliveryPolicy.throttle(20));
 
-        // 3. Use an executor service to simulate concurrent users
+        // 3. Create the ThreadSafeOrderBook
+        ThreadSafeOrderBook orderBook = new ThreadSafeOrderBook("BTC/USD", dispatcher);
+
+        // 4. Use an executor service to simulate concurrent users
         ExecutorService executor = Executors.newFixedThreadPool(10);
 
         System.out.println("Submitting orders...");
@@ -78,5 +84,7 @@ public class OrderBookMain {
         MarketData finalSnapshot = orderBook.createSnapshot();
         System.out.println("Bids: " + finalSnapshot.bids());
         System.out.println("Asks: " + finalSnapshot.asks());
+        System.out.println("Market data: " + dispatcher.stats());
+        dispatcher.close();
     }
 }
@@ -0,0 +1,46 @@
+package org.example.OrderBook;
+
+/**
+ * The book's resting orders by the caller's order id. Lookups by id only happen at the API edge (add, cancel,
+ * modify); the match path removes the orders it fills through {@link #removeFilled}.
+ */
+interface OrderIndex {
+
+    RestingOrder get(String orderId);
+
+    /**
+     * Index a newly resting order, replacing any order already indexed under its id.
+     */
+    void add(RestingOrder order);
+
+    /**
+     * @return the order that was indexed under the id, or null
+     */
+    RestingOrder remove(String orderId);
+
+    /**
+     * Remove the order under {@code orderId} only if it is still {@code expected}, as a modify does after its
+     * lookup; in a CONCURRENT book a cancel can take the order in between. Single-writer indexes have nothing
+     * to race with and just remove it.
+     *
+     * @return false if the id no longer maps to {@code expected}
+     */
+    default boolean remove(String orderId, RestingOrder expected) {
+        return remove(orderId) != null;
+    }
+
+    /**
+     * Forget {@code order} if it is still the one indexed under its id.
+     */
+    void removeFilled(RestingOrder order);
+
+    /**
+     * Reject an id this index cannot hold, before the order it belongs to trades.
+     *
+     * @throws IllegalArgumentException if the id cannot be indexed
+     */
+    default void checkId(String orderId) {
+    }
+
+    int size();
+}
@@ -0,0 +1,63 @@
+package org.example.OrderBook;
+
+import java.util.Arrays;
+
+/**
+ * A slot table of resting orders: each slot holds a reference to an on-heap {@link RestingOrder}, and freed
+ * slots are recycled through a free-list stack so the arrays only ever grow to the peak number of resting
+ * orders. The order's fields stay on the order object; this is the object end of the id -> order map, not a
+ * column store. Single writer.
+ */
+final class OrderStore {
+
+    private RestingOrder[] orders;
+    private int[] freeSlots;
+    private int freeCount;
+    private int used; // Slots below this have been handed out at least once
+
+    OrderStore(int expectedOrders) {
+        int capacity = Math.max(16, expectedOrders);
+        this.orders = new RestingOrder[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    int allocate(RestingOrder order) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (used == orders.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        orders[slot] = order;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = orders.length * 2;
+        orders = Arrays.copyOf(orders, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    RestingOrder order(int slot) {
+        return orders[slot];
+    }
+
+    /**
+     * Whether {@code slot} still references {@code order}, rather than being free or reused.
+     */
+    boolean holds(int slot, RestingOrder order) {
+        return slot >= 0 && slot < used && orders[slot] == order;
+    }
+
+    void free(int slot) {
+        orders[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    int size() {
+        return used - freeCount;
+    }
+}
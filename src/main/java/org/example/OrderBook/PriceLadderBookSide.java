@@ -0,0 +1,267 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Tick-indexed array of levels covering a window of prices around the touch.
+ *
+ * Level {@code i} of the ladder holds price {@code baseTicks + i}; a bitset marks the non-empty ones and
+ * {@code bestIndex} points at the touch, so best-price access is O(1) and finding the next level after the
+ * touch empties is a word scan. Emptied levels stay in their slot and are reused when the price comes back,
+ * so churn at the touch does not allocate.
+ *
+ * Prices outside the window go to a sparse overflow map. The window is recentred whenever a new best price
+ * lands beyond it or the ladder runs dry, which keeps the overflow strictly on the far (worse) side.
+ *
+ * Not safe for concurrent writers - use with SEQUENCED matching only.
+ */
+class PriceLadderBookSide implements BookSide {
+    private final OrderSide side;
+    private final boolean bids;
+    private final InstrumentSpec instrument;
+    private final int size;
+    private final LevelFactory levelFactory;
+
+    private final PriceLevel[] ladder;
+    private final long[] occupied;
+    private long baseTicks;
+    private boolean anchored;
+    private int bestIndex = -1;
+    private int ladderLevels;
+
+    // Levels beyond the window, best first
+    private final ConcurrentSkipListMap<Long, PriceLevel> overflow;
+
+    PriceLadderBookSide(OrderSide side, InstrumentSpec instrument, int size, long referenceTicks) {
+        this(side, instrument, size, referenceTicks, PriceLevel::new);
+    }
+
+    PriceLadderBookSide(OrderSide side, InstrumentSpec instrument, int size, long referenceTicks,
+                        LevelFactory levelFactory) {
+        if (size <= 0 || (size & 63) != 0) {
+            throw new IllegalArgumentException("Ladder size must be a positive multiple of 64");
+        }
+        this.side = side;
+        this.bids = side == OrderSide.BUY;
+        this.instrument = instrument;
+        this.size = size;
+        this.levelFactory = levelFactory;
+        this.ladder = new PriceLevel[size];
+        this.occupied = new long[size >>> 6];
+        this.overflow = bids
+                ? new ConcurrentSkipListMap<>(Collections.reverseOrder())
+                : new ConcurrentSkipListMap<>();
+        if (referenceTicks > 0) {
+            this.baseTicks = referenceTicks - size / 2;
+            this.anchored = true;
+        }
+    }
+
+    @Override
+    public PriceLevel best() {
+        if (bestIndex >= 0) {
+            return ladder[bestIndex];
+        }
+        Map.Entry<Long, PriceLevel> best = overflow.firstEntry();
+        return best == null ? null : best.getValue();
+    }
+
+    @Override
+    public PriceLevel get(long priceTicks) {
+        long offset = priceTicks - baseTicks;
+        if (offset >= 0 && offset < size) {
+            int index = (int) offset;
+            return isOccupied(index) ? ladder[index] : null;
+        }
+        return overflow.get(priceTicks);
+    }
+
+    @Override
+    public PriceLevel getOrCreate(long priceTicks) {
+        long offset = priceTicks - baseTicks;
+        boolean inWindow = offset >= 0 && offset < size;
+        if (!anchored || (!inWindow && (ladderLevels == 0 || isBetterThanWindow(priceTicks)))) {
+            recentre(priceTicks);
+            offset = priceTicks - baseTicks;
+        } else if (!inWindow) {
+            return overflow.computeIfAbsent(priceTicks, ticks -> levelFactory.create(ticks, instrument.priceOf(ticks), side));
+        }
+
+        int index = (int) offset;
+        PriceLevel level = ladder[index];
+        if (level == null || level.priceTicks != priceTicks) {
+            level = levelFactory.create(priceTicks, instrument.priceOf(priceTicks), side);
+            ladder[index] = level;
+        }
+        if (!isOccupied(index)) {
+            setOccupied(index);
+            ladderLevels++;
+            if (bestIndex < 0 || (bids ? index > bestIndex : index < bestIndex)) {
+                bestIndex = index;
+            }
+        }
+        return level;
+    }
+
+    @Override
+    public void removeIfEmpty(PriceLevel level) {
+        if (!level.isEmpty()) {
+            return;
+        }
+        long offset = level.priceTicks - baseTicks;
+        if (offset >= 0 && offset < size && ladder[(int) offset] == level) {
+            int index = (int) offset;
+            if (!isOccupied(index)) {
+                return;
+            }
+            clearOccupied(index);
+            ladderLevels--;
+            if (index == bestIndex) {
+                bestIndex = bids ? previousOccupied(index - 1) : nextOccupied(index + 1);
+            }
+            if (ladderLevels == 0 && !overflow.isEmpty()) {
+                recentre(overflow.firstKey());
+            }
+        } else {
+            overflow.remove(level.priceTicks, level);
+        }
+    }
+
+    @Override
+    public void forEach(int maxLevels, Consumer<PriceLevel> visitor) {
+        int visited = 0;
+        int index = bestIndex;
+        while (index >= 0 && visited < maxLevels) {
+            visitor.accept(ladder[index]);
+            visited++;
+            index = bids ? previousOccupied(index - 1) : nextOccupied(index + 1);
+        }
+        if (visited < maxLevels) {
+            for (PriceLevel level : overflow.values()) {
+                if (visited++ == maxLevels) {
+                    return;
+                }
+                visitor.accept(level);
+            }
+        }
+    }
+
+    @Override
+    public long availableLots(long limitTicks, long wanted) {
+        long lots = 0;
+        int index = bestIndex;
+        while (index >= 0 && lots < wanted) {
+            PriceLevel level = ladder[index];
+            if (bids ? level.priceTicks < limitTicks : level.priceTicks > limitTicks) {
+                return lots;
+            }
+            lots += level.totalLots() + level.hiddenLots();
+            index = bids ? previousOccupied(index - 1) : nextOccupied(index + 1);
+        }
+        for (PriceLevel level : overflow.values()) {
+            if (lots >= wanted || (bids ? level.priceTicks < limitTicks : level.priceTicks > limitTicks)) {
+                break;
+            }
+            lots += level.totalLots() + level.hiddenLots();
+        }
+        return lots;
+    }
+
+    @Override
+    public int levelCount() {
+        return ladderLevels + overflow.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ladderLevels == 0 && overflow.isEmpty();
+    }
+
+    private boolean isBetterThanWindow(long priceTicks) {
+        return bids ? priceTicks >= baseTicks + size : priceTicks < baseTicks;
+    }
+
+    /**
+     * Move the window so {@code centreTicks} sits in the middle: park the current ladder in the overflow,
+     * then pull back every overflow level the new window covers. Costs O(levels moved), and only happens
+     * on large price moves. Empty slots keep their stale level; getOrCreate checks the price before reuse.
+     */
+    private void recentre(long centreTicks) {
+        for (int index = nextOccupied(0); index >= 0; index = nextOccupied(index + 1)) {
+            overflow.put(ladder[index].priceTicks, ladder[index]);
+            ladder[index] = null;
+            clearOccupied(index);
+        }
+        ladderLevels = 0;
+
+        long base = centreTicks - size / 2;
+        baseTicks = base;
+        anchored = true;
+
+        Iterator<PriceLevel> parked = overflow.values().iterator();
+        while (parked.hasNext()) {
+            PriceLevel level = parked.next();
+            long offset = level.priceTicks - base;
+            if (offset >= 0 && offset < size) {
+                ladder[(int) offset] = level;
+                setOccupied((int) offset);
+                ladderLevels++;
+                parked.remove();
+            }
+        }
+        bestIndex = bids ? previousOccupied(size - 1) : nextOccupied(0);
+    }
+
+    private boolean isOccupied(int index) {
+        return (occupied[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void setOccupied(int index) {
+        occupied[index >>> 6] |= 1L << index;
+    }
+
+    private void clearOccupied(int index) {
+        occupied[index >>> 6] &= ~(1L << index);
+    }
+
+    private int nextOccupied(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+    }
+
+    private int previousOccupied(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            }
+            if (word-- == 0) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.journal.BookSnapshot;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * One price of one side: a FIFO queue of resting orders and its aggregates.
+ *
+ * Orders form an intrusive doubly-linked FIFO through {@link RestingOrder#prev}/{@link RestingOrder#next}:
+ * matching consumes from the head, new orders join at the tail, and cancels unlink in place.
+ * {@code totalLots} is what the level shows; icebergs' reserves are summed apart in {@code hiddenLots}.
+ * <p>
+ * Owned by the book's single writer, which is the only thread that touches a level, so every field is plain
+ * and no operation takes a lock or retries a CAS. CONCURRENT books, whose events race on the same levels,
+ * use {@link LockedPriceLevel} instead.
+ */
+class PriceLevel {
+    final long priceTicks;
+    final BigDecimal price;
+    final OrderSide side;
+    // Changed by the current event and waiting for a market data delta; matcher thread only
+    boolean dirty;
+    // Copy of the queue taken by the last book snapshot, dropped by any change to it; matcher thread only
+    BookSnapshot.Level captured;
+    private RestingOrder head;
+    private RestingOrder tail;
+    int orderCount;
+    long totalLots;
+    long hiddenLots;
+
+    PriceLevel(long priceTicks, BigDecimal price, OrderSide side) {
+        this.priceTicks = priceTicks;
+        this.price = price;
+        this.side = side;
+    }
+
+    public void addOrder(RestingOrder order) {
+        captured = null;
+        linkLast(order);
+        totalLots += order.remainingLots;
+        hiddenLots += order.hiddenLots;
+    }
+
+    /**
+     * O(1) unlink of a resting order.
+     *
+     * @return false if the order is no longer in this level (already filled or cancelled)
+     */
+    public boolean removeOrder(RestingOrder order) {
+        if (order.level != this) {
+            return false;
+        }
+        captured = null;
+        unlink(order);
+        totalLots -= order.remainingLots;
+        hiddenLots -= order.hiddenLots;
+        return true;
+    }
+
+    /**
+     * Resize a resting order to {@code lots}, no more than it has left, without touching its queue position;
+     * {@code lots} becomes its new original size. Not for icebergs.
+     *
+     * @return false if the order is no longer in this level, is an iceberg, or {@code lots} is out of range
+     */
+    public boolean amendQuantity(RestingOrder order, long lots) {
+        if (order.level != this || order.displayLots > 0 || lots <= 0 || lots > order.remainingLots) {
+            return false;
+        }
+        captured = null;
+        totalLots += lots - order.remainingLots;
+        order.remainingLots = lots;
+        order.originalLots = lots;
+        return true;
+    }
+
+    /**
+     * Fill the incoming order against the head of this level
+     *
+     * @param fills told about the fill before this returns
+     * @return the lots traded, 0 if the level was empty
+     */
+    public long executeAgainst(RestingOrder incomingOrder, FillHandler fills) {
+        RestingOrder headOrder = head;
+        if (headOrder == null) {
+            return 0;
+        }
+
+        long tradeLots = Math.min(headOrder.remainingLots, incomingOrder.remainingLots);
+        captured = null;
+
+        headOrder.remainingLots -= tradeLots;
+        incomingOrder.remainingLots -= tradeLots;
+
+        totalLots -= tradeLots;
+        // Remove fully filled order (or refill an iceberg); a partially filled head is the last order
+        // this event touches
+        if (headOrder.remainingLots == 0) {
+            if (headOrder.hiddenLots > 0) {
+                replenish(headOrder);
+            } else {
+                unlink(headOrder);
+            }
+        }
+
+        fills.onFill(this, headOrder, tradeLots);
+        return tradeLots;
+    }
+
+    /**
+     * Visit resting orders in time priority. Callers must not run concurrently with writers.
+     */
+    public void forEachOrder(Consumer<RestingOrder> visitor) {
+        for (RestingOrder order = head; order != null; order = order.next) {
+            visitor.accept(order);
+        }
+    }
+
+    public boolean isEmpty() {
+        return head == null;
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public long totalLots() {
+        return totalLots;
+    }
+
+    /**
+     * Lots behind the icebergs' displayed slices: tradable, but not shown in market data.
+     */
+    public long hiddenLots() {
+        return hiddenLots;
+    }
+
+    // A used-up iceberg slice is refilled from its reserve and, like a new order, queues behind everything
+    // already at the price
+    private void replenish(RestingOrder order) {
+        long shown = Math.min(order.displayLots, order.hiddenLots);
+        order.hiddenLots -= shown;
+        order.remainingLots = shown;
+        hiddenLots -= shown;
+        totalLots += shown;
+        unlink(order);
+        linkLast(order);
+    }
+
+    private void linkLast(RestingOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        orderCount++;
+    }
+
+    private void unlink(RestingOrder order) {
+        RestingOrder prev = order.prev;
+        RestingOrder next = order.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        order.prev = null;
+        order.next = null;
+        order.level = null;
+        orderCount--;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.datastructures.ObjectLongHashMap;
+
+/**
+ * Single-writer id -> order map over an array-backed {@link OrderStore}. The caller's string id leads through
+ * one open-addressing {@code String -> long} map straight to the store slot that references the
+ * {@link RestingOrder}, and the order carries its slot as {@link RestingOrder#internalId}, so the match path
+ * frees a filled order's slot without a lookup and only hashes its id (a {@code String} caches its hash, and
+ * the filled order's id is the instance that was indexed) to drop the map entry. Neither table holds an entry
+ * object per order; the order itself is still on the heap.
+ */
+final class PrimitiveOrderIndex implements OrderIndex {
+
+    private static final long NO_SLOT = -1;
+
+    private final ObjectLongHashMap<String> slots;
+    private final OrderStore store;
+
+    PrimitiveOrderIndex(int expectedOrders) {
+        this.slots = new ObjectLongHashMap<>(expectedOrders, NO_SLOT);
+        this.store = new OrderStore(expectedOrders);
+    }
+
+    @Override
+    public RestingOrder get(String orderId) {
+        long slot = slots.get(orderId);
+        return slot == NO_SLOT ? null : store.order((int) slot);
+    }
+
+    @Override
+    public void add(RestingOrder order) {
+        int slot = store.allocate(order);
+        order.internalId = slot;
+        long replaced = slots.put(order.id, slot);
+        if (replaced != NO_SLOT) {
+            store.free((int) replaced);
+        }
+    }
+
+    @Override
+    public RestingOrder remove(String orderId) {
+        long slot = slots.remove(orderId);
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        RestingOrder order = store.order((int) slot);
+        store.free((int) slot);
+        return order;
+    }
+
+    @Override
+    public void removeFilled(RestingOrder order) {
+        // A slot freed by a cancel or a replacing add may since have gone to another order
+        int slot = (int) order.internalId;
+        if (store.holds(slot, order)) {
+            store.free(slot);
+            slots.remove(order.id);
+        }
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The book's working copy of an order: price in ticks and remaining size in lots.
+ * The caller's {@link Order} only has its remaining quantity refreshed at the API edge.
+ *
+ * It is also the node of its level's FIFO queue: {@code prev}/{@code next} link it to its neighbours and
+ * {@code level} points back at the owning level, so a cancel found through the order index unlinks in O(1).
+ * All three belong to the owning level's writer, under its lock for a {@link LockedPriceLevel}. With off-heap
+ * orders the queue is kept in the store instead, and a RestingOrder is only a transient copy of one slot.
+ */
+final class RestingOrder {
+    final String id;
+    final OrderSide side;
+    final long priceTicks;
+    long remainingLots;
+    // Size on entry, or after the last in-place modify
+    long originalLots;
+    final long timestampNanos;
+    // Icebergs only (0 otherwise): the slice shown each time, and the reserve behind the slice in remainingLots
+    long displayLots;
+    long hiddenLots;
+    // The caller's order, kept in step as this one fills; swapped for the replacement when a modify keeps the
+    // order in place. Null once resting when the book does not keep callers' orders (PRIMITIVE index).
+    Order order;
+    // The order's slot in a PRIMITIVE index's order store, or in the off-heap store
+    long internalId;
+
+    RestingOrder prev;
+    RestingOrder next;
+    PriceLevel level;
+
+    RestingOrder(Order order, long priceTicks, long remainingLots) {
+        this(order.getId(), order.getSide(), priceTicks, remainingLots, remainingLots, epochNanos(order.timestamp()));
+        this.order = order;
+    }
+
+    RestingOrder(String id, OrderSide side, long priceTicks, long remainingLots, long originalLots, long timestampNanos) {
+        this.id = id;
+        this.side = side;
+        this.priceTicks = priceTicks;
+        this.remainingLots = remainingLots;
+        this.originalLots = originalLots;
+        this.timestampNanos = timestampNanos;
+    }
+
+    static long epochNanos(Instant timestamp) {
+        return timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano();
+    }
+
+    /**
+     * Everything the order still has to trade, shown or hidden.
+     */
+    long leavesLots() {
+        return remainingLots + hiddenLots;
+    }
+
+    void syncRemainingQuantity(InstrumentSpec instrument) {
+        if (order != null) {
+            long leaves = leavesLots();
+            order.remainingQuantity().set(leaves == 0 ? BigDecimal.ZERO : instrument.quantityOf(leaves));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.OrderBook;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+// Price levels using concurrent skip list for O(log n) operations
+class SkipListBookSide implements BookSide {
+    private final OrderSide side;
+    private final InstrumentSpec instrument;
+    private final LevelFactory levelFactory;
+    private final ConcurrentSkipListMap<Long, PriceLevel> levels;
+
+    SkipListBookSide(OrderSide side, InstrumentSpec instrument) {
+        this(side, instrument, PriceLevel::new);
+    }
+
+    SkipListBookSide(OrderSide side, InstrumentSpec instrument, LevelFactory levelFactory) {
+        this.side = side;
+        this.instrument = instrument;
+        this.levelFactory = levelFactory;
+        // Use reverse order for bids (highest price first), natural order for asks (lowest price first)
+        this.levels = side == OrderSide.BUY
+                ? new ConcurrentSkipListMap<>(Collections.reverseOrder())
+                : new ConcurrentSkipListMap<>();
+    }
+
+    @Override
+    public PriceLevel best() {
+        Map.Entry<Long, PriceLevel> best = levels.firstEntry();
+        return best == null ? null : best.getValue();
+    }
+
+    @Override
+    public PriceLevel get(long priceTicks) {
+        return levels.get(priceTicks);
+    }
+
+    @Override
+    public PriceLevel getOrCreate(long priceTicks) {
+        return levels.computeIfAbsent(priceTicks, ticks -> levelFactory.create(ticks, instrument.priceOf(ticks), side));
+    }
+
+    @Override
+    public void removeIfEmpty(PriceLevel level) {
+        if (level.isEmpty()) {
+            levels.remove(level.priceTicks, level);
+        }
+    }
+
+    @Override
+    public void forEach(int maxLevels, Consumer<PriceLevel> visitor) {
+        int visited = 0;
+        for (PriceLevel level : levels.values()) {
+            if (visited++ == maxLevels) {
+                return;
+            }
+            visitor.accept(level);
+        }
+    }
+
+    @Override
+    public long availableLots(long limitTicks, long wanted) {
+        long lots = 0;
+        // The map is ordered best first, so the head map is every level at the limit or better
+        for (PriceLevel level : levels.headMap(limitTicks, true).values()) {
+            if (lots >= wanted) {
+                break;
+            }
+            lots += level.totalLots() + level.hiddenLots();
+        }
+        return lots;
+    }
+
+    /**
+     * O(n) - ConcurrentSkipListMap does not keep a size counter.
+     */
+    @Override
+    public int levelCount() {
+        return levels.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.OrderBook;
 
 import org.example.OrderBook.datastructures.RingBuffer;
+import org.example.OrderBook.datastructures.WaitStrategy;
+import org.example.OrderBook.entities.InstrumentSpec;
 import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
 import org.example.OrderBook.entities.Order;
 import org.example.OrderBook.entities.OrderEvent;
 import org.example.OrderBook.enums.OrderEventType;
@@ -9,12 +12,26 @@ import org.example.OrderBook.entities.OrderResult;
 import org.example.OrderBook.enums.OrderSide;
 import org.example.OrderBook.entities.PriceQuantity;
 import org.example.OrderBook.entities.Trade;
+import org.example.OrderBook.enums.BookCounter;
+import org.example.OrderBook.enums.BookStage;
+import org.example.OrderBook.enums.MarketDataMode;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderIndexType;
+import org.example.OrderBook.enums.OrderType;
+import org.example.OrderBook.enums.TimeInForce;
+import org.example.OrderBook.journal.BookSnapshot;
+import org.example.OrderBook.journal.BookSnapshotStore;
+import org.example.OrderBook.journal.EventJournal;
 import org.example.OrderBook.marketdata.MarketDataPublisher;
+import org.example.OrderBook.metrics.BookMetrics;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
-import java.util.concurrent.locks.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
 
@@ -22,250 +39,1256 @@ import java.util.*;
  * High-performance thread-safe order book implementation
  * Handles thousands of updates per second with lock-free operations where possible
  */
-public class ThreadSafeOrderBook {
+public class ThreadSafeOrderBook implements AutoCloseable {
 
-    // Price levels using concurrent skip list for O(log n) operations
-    private final ConcurrentSkipListMap<BigDecimal, PriceLevel> bidLevels;
-    private final ConcurrentSkipListMap<BigDecimal, PriceLevel> askLevels;
+    private static final int EVENT_BUFFER_SIZE = 8192; // Power of 2 for efficiency
+    private static final int MATCHER_BATCH_SIZE = 256;
+    public static final int DEPTH_LEVELS = 10; // Top 10 levels
+    private static final int FILL_INDEX_BITS = 20; // Trade id = event sequence, then up to 1M fills per event
 
-    // Order tracking
-    private final ConcurrentHashMap<String, Order> activeOrders;
+    // Tick/lot scale - everything below the API edge is a long
+    private final InstrumentSpec instrument;
 
-    // Sequence number for ordering events
+    // Price levels keyed by price in ticks, best price first
+    private final BookSide bidLevels;
+    private final BookSide askLevels;
+
+    // Cumulative size and notional by price per side (null when not configured); single writer only
+    private final DepthIndex bidDepth;
+    private final DepthIndex askDepth;
+
+    // Order tracking; without the caller's orders (PRIMITIVE index) a resting order drops its Order when
+    // the event that added it is done
+    private final OrderIndex orderIndex;
+    private final boolean keepCallerOrders;
+    // Where resting orders live when they are kept off-heap (null = on-heap RestingOrders)
+    private final OffHeapOrderStore offHeapStore;
+
+    // Fills: single-writer books reuse one match context (and, with a sink, one report) for every event;
+    // CONCURRENT books take a fresh context per event
+    private final ExecutionSink executionSink;
+    private final MatchContext sharedMatch;
+    // Wall clock as one nanoTime read: epoch nanos = epochClockOffset + System.nanoTime()
+    private final long epochClockOffset;
+
+    // Sequence number for ordering events (in SEQUENCED mode the ring position stamps events instead)
     private final AtomicLong sequenceNumber = new AtomicLong(0);
 
     // Market data publisher
     private final MarketDataPublisher marketDataPublisher;
+    private final boolean incrementalMarketData;
+    private final int snapshotInterval;
+    private final List<PriceLevel> dirtyLevels = new ArrayList<>();
+    private final AtomicBoolean snapshotRequested = new AtomicBoolean();
+    private volatile long marketDataSequence;
+    private int eventsSinceSnapshot;
+
+    // Top levels republished after every event for readers on other threads (risk, UI, snapshots)
+    private final DepthView depthView = new DepthView(DEPTH_LEVELS);
+
+    // Set while a batch is applied: market data and the depth view are published once, when it ends
+    private boolean batching;
 
-    // Lock-free ring buffer for order events
-    private final RingBuffer<OrderEvent> eventBuffer;
+    // CONCURRENT mode only: where events run, and a lock that single events share and a batch holds
+    // exclusively so nothing interleaves with it
+    private final EventExecutor eventExecutor;
+    private final ReentrantReadWriteLock concurrentBatchLock;
+    // CONCURRENT mode only: a shared event changed the book; the depth view is refreshed once the event has
+    // left the shared lock, under the exclusive one
+    private volatile boolean depthStale;
+    // CONCURRENT mode only: the depth view was refreshed and not yet published. Publishing happens after the
+    // exclusive lock is released, by one thread at a time
+    private volatile boolean depthUnpublished;
+    private final AtomicBoolean publishingDepth = new AtomicBoolean();
+
+    // Lock-free ring buffer for order events (SEQUENCED mode only)
+    private final RingBuffer<Sequenced> eventBuffer;
+    private final WaitStrategy waitStrategy;
+
+    // Write-ahead journal (single-writer modes only); events are replayed from it on start-up
+    private final EventJournal journal;
+    private final long recoveredSequence;
+    private boolean recovering;
+
+    // Periodic full-book snapshots: captured between events on the writer thread, encoded and written on
+    // bookSnapshotWriter. Start-up loads the newest and only replays the journal after its sequence.
+    private final BookSnapshotStore bookSnapshotStore;
+    private final int bookSnapshotInterval;
+    private final ExecutorService bookSnapshotWriter;
+    private final AtomicBoolean bookSnapshotInFlight = new AtomicBoolean();
+    private volatile CompletableFuture<Path> lastBookSnapshot;
+    private int eventsSinceBookSnapshot;
+    private long lastAppliedSequence;
+
+    // Stage latencies and counters; null when off, and then no clock is read for them
+    private final BookMetrics metrics;
+
+    private final MatchingMode matchingMode;
+    private final Thread matcherThread;
+    private volatile boolean running = true;
+    private volatile boolean terminated = false;
 
     public ThreadSafeOrderBook(String symbol, MarketDataPublisher publisher) {
-        // Use reverse order for bids (highest price first)
-        this.bidLevels = new ConcurrentSkipListMap<>(Collections.reverseOrder());
+        this(symbol, publisher, MatchingMode.CONCURRENT);
+    }
 
-        // Natural order for asks (lowest price first)
-        this.askLevels = new ConcurrentSkipListMap<>();
+    public ThreadSafeOrderBook(String symbol, MarketDataPublisher publisher, MatchingMode matchingMode) {
+        this(InstrumentSpec.defaultFor(symbol), publisher, matchingMode);
+    }
+
+    public ThreadSafeOrderBook(InstrumentSpec instrument, MarketDataPublisher publisher, MatchingMode matchingMode) {
+        this(OrderBookConfig.builder(instrument).matchingMode(matchingMode).build(), publisher);
+    }
 
-        this.activeOrders = new ConcurrentHashMap<>();
+    public ThreadSafeOrderBook(OrderBookConfig config, MarketDataPublisher publisher) {
+        this.instrument = config.instrument();
+        this.offHeapStore = config.offHeapOrders() == null ? null
+                : new OffHeapOrderStore(config.offHeapOrders().mappedFile(), config.expectedOrders());
+        LevelFactory levelFactory;
+        if (offHeapStore != null) {
+            levelFactory = (priceTicks, price, side) -> new OffHeapPriceLevel(priceTicks, price, side, offHeapStore);
+        } else if (config.matchingMode() == MatchingMode.CONCURRENT) {
+            levelFactory = LockedPriceLevel::new;
+        } else {
+            levelFactory = PriceLevel::new;
+        }
+        this.bidLevels = createBookSide(config, OrderSide.BUY, levelFactory);
+        this.askLevels = createBookSide(config, OrderSide.SELL, levelFactory);
+        if (config.depthIndexTicks() > 0) {
+            this.bidDepth = new DepthIndex(bidLevels, OrderSide.BUY, config.depthIndexTicks());
+            this.askDepth = new DepthIndex(askLevels, OrderSide.SELL, config.depthIndexTicks());
+        } else {
+            this.bidDepth = null;
+            this.askDepth = null;
+        }
+
+        this.bookSnapshotStore = config.bookSnapshots() == null ? null : openBookSnapshots(config);
+        this.bookSnapshotInterval = config.bookSnapshots() == null ? 0 : config.bookSnapshots().intervalEvents();
+        BookSnapshot restored = bookSnapshotStore == null ? null : loadBookSnapshot();
+
+        // Pre-sized for the restored book so loading it never rehashes
+        int expectedOrders = Math.max(config.expectedOrders(), restored == null ? 0 : restored.orderCount());
+        this.keepCallerOrders = config.orderIndex() != OrderIndexType.PRIMITIVE && offHeapStore == null;
+        if (offHeapStore != null) {
+            this.orderIndex = new OffHeapOrderIndex(offHeapStore, bidLevels, askLevels);
+        } else {
+            this.orderIndex = keepCallerOrders ? new HashOrderIndex(expectedOrders) : new PrimitiveOrderIndex(expectedOrders);
+        }
         this.marketDataPublisher = publisher;
-        this.eventBuffer = new RingBuffer<>(8192); // Power of 2 for efficiency
+        this.incrementalMarketData = config.marketDataMode() == MarketDataMode.INCREMENTAL;
+        this.snapshotInterval = config.snapshotInterval();
+        this.waitStrategy = config.waitStrategy();
+        this.matchingMode = config.matchingMode();
+        this.executionSink = config.executionSink();
+        this.sharedMatch = matchingMode == MatchingMode.CONCURRENT ? null : new MatchContext();
+        Instant now = Instant.now();
+        this.epochClockOffset = now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+        if (matchingMode == MatchingMode.CONCURRENT) {
+            this.eventExecutor = new EventExecutor(config.execution(), instrument.symbol());
+            this.concurrentBatchLock = new ReentrantReadWriteLock();
+        } else {
+            this.eventExecutor = null;
+            this.concurrentBatchLock = null;
+        }
+
+        if (bookSnapshotStore != null) {
+            this.bookSnapshotWriter = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "book-snapshot-" + instrument.symbol());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.bookSnapshotWriter = null;
+        }
+
+        this.metrics = config.metrics() == null ? null : new BookMetrics(instrument.symbol(),
+                matchingMode != MatchingMode.CONCURRENT, config.metrics(), orderIndex::size,
+                bidLevels::levelCount, askLevels::levelCount, this::queuedEvents);
+
+        if (config.journal() != null) {
+            this.journal = openJournal(config);
+            this.recoveredSequence = recover(restored);
+            this.sequenceNumber.set(recoveredSequence);
+            if (metrics != null) {
+                metrics.reset(); // Replay is not traffic
+            }
+        } else {
+            this.journal = null;
+            this.recoveredSequence = 0;
+        }
+
+        if (matchingMode == MatchingMode.SEQUENCED) {
+            this.eventBuffer = new RingBuffer<>(EVENT_BUFFER_SIZE, waitStrategy);
+            this.matcherThread = new Thread(this::runMatcher, "matcher-" + instrument.symbol());
+            this.matcherThread.setDaemon(true);
+            this.matcherThread.start();
+        } else {
+            this.eventBuffer = null;
+            this.matcherThread = null;
+        }
+    }
+
+    private static EventJournal openJournal(OrderBookConfig config) {
+        try {
+            return new EventJournal(config.journal());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the journal for " + config.instrument().symbol(), e);
+        }
+    }
+
+    private static BookSnapshotStore openBookSnapshots(OrderBookConfig config) {
+        try {
+            return new BookSnapshotStore(config.bookSnapshots(), config.instrument());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the snapshot directory for " + config.instrument().symbol(), e);
+        }
+    }
+
+    private BookSnapshot loadBookSnapshot() {
+        try {
+            return bookSnapshotStore.loadLatest();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the book snapshots for " + instrument.symbol(), e);
+        }
+    }
+
+    /**
+     * Rebuild the book from the newest book snapshot (if any) plus the journal events after it. The
+     * replayed events are applied again without being journaled or published.
+     */
+    private long recover(BookSnapshot restored) {
+        recovering = true;
+        try {
+            long snapshotSequence = 0;
+            if (restored != null) {
+                restoreBookSnapshot(restored);
+                snapshotSequence = restored.sequence();
+            }
+            long lastSequence = Math.max(snapshotSequence, journal.replay(snapshotSequence, this::apply));
+            lastAppliedSequence = lastSequence;
+            refreshDepth();
+            if (lastSequence > 0) {
+                publishSnapshot();
+            }
+            return lastSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the journal for " + instrument.symbol(), e);
+        } finally {
+            recovering = false;
+        }
+    }
+
+    /**
+     * Bulk load: levels arrive best first and orders in queue order, so each one is a straight append.
+     */
+    private void restoreBookSnapshot(BookSnapshot snapshot) {
+        for (int i = 0; i < snapshot.levelCount(); i++) {
+            BookSnapshot.Level level = snapshot.level(i);
+            OrderSide side = level.side();
+            long priceTicks = level.priceTicks();
+            PriceLevel priceLevel = (side == OrderSide.BUY ? bidLevels : askLevels).getOrCreate(priceTicks);
+            for (int order = 0; order < level.orderCount(); order++) {
+                long remainingLots = level.remainingLots(order);
+                long originalLots = level.originalLots(order);
+                long timestampNanos = level.timestampNanos(order);
+                RestingOrder resting = new RestingOrder(level.orderId(order), side, priceTicks, remainingLots,
+                        originalLots, timestampNanos);
+                resting.displayLots = level.displayLots(order);
+                resting.hiddenLots = level.hiddenLots(order);
+                if (keepCallerOrders) {
+                    resting.order = new Order(resting.id, side, priceLevel.price, instrument.quantityOf(originalLots),
+                            new AtomicReference<>(instrument.quantityOf(resting.leavesLots())),
+                            Instant.ofEpochSecond(0, timestampNanos), OrderType.LIMIT, TimeInForce.GTC, false,
+                            resting.displayLots == 0 ? null : instrument.quantityOf(resting.displayLots));
+                }
+                priceLevel.addOrder(resting);
+                orderIndex.add(resting);
+                depthChanged(side, priceTicks, resting.leavesLots());
+            }
+            // Exactly what the level now holds, so the first snapshot after recovery need not copy it again
+            priceLevel.captured = level;
+        }
+    }
+
+    /**
+     * The newest book snapshot started by this book, or null if none has been taken yet.
+     */
+    public CompletableFuture<Path> lastBookSnapshot() {
+        return lastBookSnapshot;
+    }
+
+    /**
+     * Sequence of the last event replayed from the journal at start-up (0 without a journal);
+     * new events continue from here.
+     */
+    public long recoveredSequence() {
+        return recoveredSequence;
+    }
+
+    /**
+     * This book's instrumentation, or null if it was built without metrics.
+     */
+    public BookMetrics metrics() {
+        return metrics;
+    }
+
+    private long queuedEvents() {
+        if (eventBuffer != null) {
+            return eventBuffer.size();
+        }
+        return eventExecutor == null ? 0 : eventExecutor.queued();
+    }
+
+    private long queuedAt() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    private void recordQueued(long queuedNanos) {
+        if (metrics != null) {
+            metrics.record(BookStage.QUEUE, System.nanoTime() - queuedNanos);
+        }
+    }
+
+    private static BookSide createBookSide(OrderBookConfig config, OrderSide side, LevelFactory levelFactory) {
+        return switch (config.bookSide()) {
+            case SKIP_LIST -> new SkipListBookSide(side, config.instrument(), levelFactory);
+            case PRICE_LADDER -> new PriceLadderBookSide(side, config.instrument(), config.ladderTicks(),
+                    config.ladderReferencePrice() == null ? 0 : config.instrument().toTicks(config.ladderReferencePrice()),
+                    levelFactory);
+        };
     }
 
     /**
      * Add order to the book - returns immediately for async processing
      */
     public CompletableFuture<OrderResult> addOrder(Order order) {
+        if (matchingMode == MatchingMode.SEQUENCED) {
+            return publish(OrderEventType.ADD, order.getId(), order);
+        }
+        if (matchingMode == MatchingMode.EXTERNAL) {
+            return CompletableFuture.completedFuture(
+                    process(new OrderEvent(OrderEventType.ADD, order, sequenceNumber.incrementAndGet())));
+        }
+
         long sequence = sequenceNumber.incrementAndGet();
-        OrderEvent event = new OrderEvent(OrderEventType.ADD, order, sequence);
+        return submitConcurrent(new OrderEvent(OrderEventType.ADD, order, sequence));
+    }
+
+    /**
+     * Cancel order - atomic operation
+     */
+    public CompletableFuture<OrderResult> cancelOrder(String orderId) {
+        if (matchingMode == MatchingMode.SEQUENCED) {
+            return publish(OrderEventType.CANCEL, orderId, null);
+        }
+        if (matchingMode == MatchingMode.EXTERNAL) {
+            return CompletableFuture.completedFuture(
+                    process(OrderEvent.cancel(orderId, sequenceNumber.incrementAndGet())));
+        }
+
+        return submitConcurrent(OrderEvent.cancel(orderId, sequenceNumber.incrementAndGet()));
+    }
+
+    /**
+     * Replace the resting order with the replacement's id. Keeping the price and not growing the size keeps
+     * its queue priority; any other change moves it to the back of its (possibly new) level, matching it first
+     * if the new price crosses. The side cannot change.
+     */
+    public CompletableFuture<OrderResult> modifyOrder(Order replacement) {
+        if (matchingMode == MatchingMode.SEQUENCED) {
+            return publish(OrderEventType.MODIFY, replacement.getId(), replacement);
+        }
+        if (matchingMode == MatchingMode.EXTERNAL) {
+            return CompletableFuture.completedFuture(
+                    process(new OrderEvent(OrderEventType.MODIFY, replacement, sequenceNumber.incrementAndGet())));
+        }
+
+        return submitConcurrent(new OrderEvent(OrderEventType.MODIFY, replacement, sequenceNumber.incrementAndGet()));
+    }
+
+    /**
+     * Apply a mix of adds, cancels and modifies as one unit: nothing else is applied between them, readers never
+     * see the book part way through, and market data goes out once at the end (in INCREMENTAL mode one delta per
+     * level the whole batch touched). The events' own sequence numbers are ignored; the book stamps them in order.
+     *
+     * @return one result per event, in the batch's order
+     */
+    public CompletableFuture<List<OrderResult>> submitBatch(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (matchingMode == MatchingMode.SEQUENCED) {
+            return publishBatch(events);
+        }
+
+        List<OrderEvent> stamped = stamp(events, sequenceNumber.getAndAdd(events.size()) + 1);
+        if (matchingMode == MatchingMode.EXTERNAL) {
+            return CompletableFuture.completedFuture(applyBatch(stamped));
+        }
+        if (!running) {
+            return CompletableFuture.completedFuture(rejectAll(stamped, "Order book is closed"));
+        }
+        long queuedNanos = queuedAt();
+        try {
+            return eventExecutor.submit(() -> {
+                recordQueued(queuedNanos);
+                List<OrderResult> results;
+                concurrentBatchLock.writeLock().lock();
+                try {
+                    results = applyBatch(stamped);
+                } finally {
+                    concurrentBatchLock.writeLock().unlock();
+                }
+                publishRefreshedDepth();
+                return results;
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(rejectAll(stamped, rejectionReason()));
+        }
+    }
+
+    /**
+     * Hand a CONCURRENT event to the configured executor; a full queue or a closed book fails it at once.
+     */
+    private CompletableFuture<OrderResult> submitConcurrent(OrderEvent event) {
+        if (!running) {
+            return CompletableFuture.completedFuture(OrderResult.error(event.orderId(), "Order book is closed"));
+        }
+        // A fill-or-kill runs alone, so the depth it checked cannot be taken from under it mid-sweep
+        boolean exclusive = event.order() != null && event.order().timeInForce() == TimeInForce.FOK;
+        long queuedNanos = queuedAt();
+        try {
+            return eventExecutor.submit(() -> {
+                recordQueued(queuedNanos);
+                return exclusive ? applyExclusive(event) : applyShared(event);
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(OrderResult.error(event.orderId(), rejectionReason()));
+        }
+    }
+
+    private String rejectionReason() {
+        return running ? "Order book is overloaded" : "Order book is closed";
+    }
+
+    private static List<OrderResult> rejectAll(List<OrderEvent> events, String reason) {
+        OrderResult[] rejected = new OrderResult[events.size()];
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = OrderResult.error(events.get(i).orderId(), reason);
+        }
+        return Arrays.asList(rejected);
+    }
+
+    private static List<OrderEvent> stamp(List<OrderEvent> events, long firstSequence) {
+        OrderEvent[] stamped = new OrderEvent[events.size()];
+        for (int i = 0; i < stamped.length; i++) {
+            OrderEvent event = events.get(i);
+            stamped[i] = new OrderEvent(event.type(), event.orderId(), event.order(), firstSequence + i);
+        }
+        return Arrays.asList(stamped);
+    }
+
+    /**
+     * Claim the next ring position, stamp it as the event's sequence and hand the event to the matcher thread.
+     * Waits while the ring is full so a burst back-pressures producers instead of dropping orders.
+     */
+    private CompletableFuture<OrderResult> publish(OrderEventType type, String orderId, Order order) {
+        CompletableFuture<OrderResult> result = new CompletableFuture<>();
+        if (!running) {
+            result.complete(OrderResult.error(orderId, "Order book is closed"));
+            return result;
+        }
+
+        long slot = eventBuffer.claim(1);
+        OrderEvent event = new OrderEvent(type, orderId, order, recoveredSequence + slot + 1);
+        eventBuffer.publish(slot, new SequencedEvent(event, result, queuedAt()));
+
+        // Raced with close(): the matcher may have stopped before reaching this slot
+        if (terminated) {
+            result.complete(OrderResult.error(orderId, "Order book is closed"));
+        }
+        return result;
+    }
 
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * A batch claims one ring position per event, so every event keeps its own sequence number, but rides in
+     * the first of them; the rest carry {@link #BATCH_CONTINUATION} and are skipped by the matcher.
+     */
+    private CompletableFuture<List<OrderResult>> publishBatch(List<OrderEvent> events) {
+        if (events.size() > eventBuffer.capacity()) {
+            throw new IllegalArgumentException("A batch of " + events.size() + " events does not fit the "
+                    + eventBuffer.capacity() + "-slot event ring");
+        }
+        CompletableFuture<List<OrderResult>> results = new CompletableFuture<>();
+        if (!running) {
+            new SequencedBatch(events, results, 0).reject();
+            return results;
+        }
+
+        long first = eventBuffer.claim(events.size());
+        SequencedBatch batch = new SequencedBatch(stamp(events, recoveredSequence + first + 1), results, queuedAt());
+        eventBuffer.publish(first, batch);
+        for (int i = 1; i < events.size(); i++) {
+            eventBuffer.publish(first + i, BATCH_CONTINUATION);
+        }
+
+        // Raced with close(), as in publish()
+        if (terminated) {
+            batch.reject();
+        }
+        return results;
+    }
+
+    private void runMatcher() {
+        while (running) {
+            if (eventBuffer.drainTo(this::applySequenced, MATCHER_BATCH_SIZE) == 0 && !snapshotRequested.get()) {
+                waitStrategy.await(() -> !running || !eventBuffer.isEmpty() || snapshotRequested.get());
+            }
+            if (snapshotRequested.compareAndSet(true, false)) {
+                publishSnapshot();
+            }
+        }
+
+        // Apply whatever was accepted before close(), then reject stragglers
+        while (eventBuffer.drainTo(this::applySequenced, MATCHER_BATCH_SIZE) > 0) {
+        }
+        terminated = true;
+        // size() counts claimed-but-unpublished slots too, so a producer paused mid-publish is not stranded
+        while (eventBuffer.size() > 0) {
+            Sequenced next = eventBuffer.poll();
+            if (next == null) {
+                Thread.onSpinWait();
+            } else {
+                next.reject();
+            }
+        }
+    }
+
+    /**
+     * Apply one event on the calling thread. Only for EXTERNAL books, whose owner guarantees
+     * that a single thread at a time calls this (or addOrder/cancelOrder, which run inline).
+     */
+    public OrderResult process(OrderEvent event) {
+        if (matchingMode != MatchingMode.EXTERNAL) {
+            throw new IllegalStateException("Only EXTERNAL books are driven through process()");
+        }
+        return apply(event);
+    }
+
+    private void applySequenced(Sequenced next) {
+        if (next instanceof SequencedEvent single) {
+            recordQueued(single.queuedNanos());
+            single.result().complete(apply(single.event()));
+        } else if (next != BATCH_CONTINUATION) {
+            SequencedBatch batch = (SequencedBatch) next;
+            recordQueued(batch.queuedNanos());
+            batch.results().complete(applyBatch(batch.events()));
+        }
+    }
+
+    private OrderResult applyShared(OrderEvent event) {
+        OrderResult result;
+        concurrentBatchLock.readLock().lock();
+        try {
+            result = apply(event);
+        } finally {
+            concurrentBatchLock.readLock().unlock();
+        }
+        refreshStaleDepth();
+        publishRefreshedDepth();
+        return result;
+    }
+
+    /**
+     * Copy the book into the depth view with no event in flight, so the copy is a state the book was really
+     * in. Whoever gets the exclusive lock first refreshes for every event finished by then, so events that end
+     * together share one refresh; each event's result still completes only after a refresh that includes it.
+     */
+    private void refreshStaleDepth() {
+        if (!depthStale) {
+            return;
+        }
+        concurrentBatchLock.writeLock().lock();
+        try {
+            if (depthStale) {
+                depthStale = false;
+                refreshDepth();
+                depthUnpublished = true;
+            }
+        } finally {
+            concurrentBatchLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Publish the refreshed depth view once the exclusive lock is released, so a slow subscriber never holds up
+     * the events waiting for that lock. One thread publishes at a time and always the newest view, so snapshots
+     * go out in book order; refreshes made while a publication is running share the next one.
+     */
+    private void publishRefreshedDepth() {
+        while (depthUnpublished && publishingDepth.compareAndSet(false, true)) {
             try {
-                return processAddOrder(event);
-            } catch (Exception e) {
-                return OrderResult.error(order.getId(), e.getMessage());
+                depthUnpublished = false;
+                publishSnapshot();
+            } finally {
+                publishingDepth.set(false);
             }
+        }
+    }
+
+    private OrderResult applyExclusive(OrderEvent event) {
+        OrderResult result;
+        concurrentBatchLock.writeLock().lock();
+        try {
+            result = apply(event);
+        } finally {
+            concurrentBatchLock.writeLock().unlock();
+        }
+        publishRefreshedDepth();
+        return result;
+    }
+
+    private List<OrderResult> applyBatch(List<OrderEvent> events) {
+        OrderResult[] results = new OrderResult[events.size()];
+        batching = true;
+        try {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = apply(events.get(i));
+            }
+        } finally {
+            batching = false;
+        }
+        publishMarketData();
+        return Arrays.asList(results);
+    }
+
+    private OrderResult apply(OrderEvent event) {
+        long start = metrics == null ? 0 : System.nanoTime();
+        OrderResult result;
+        try {
+            if (journal != null && !recovering) {
+                journal.append(event);
+            }
+            result = switch (event.type()) {
+                case ADD -> processAddOrder(event);
+                case CANCEL -> processCancelOrder(event.orderId());
+                case MODIFY -> processModifyOrder(event);
+            };
+        } catch (Exception e) {
+            result = OrderResult.error(event.orderId(), e.getMessage());
+        }
+        if (metrics != null) {
+            metrics.record(BookStage.EVENT, System.nanoTime() - start);
+            metrics.increment(switch (event.type()) {
+                case ADD -> BookCounter.ORDERS;
+                case CANCEL -> BookCounter.CANCELS;
+                case MODIFY -> BookCounter.MODIFIES;
+            });
+            if (!result.success()) {
+                metrics.increment(BookCounter.REJECTS);
+            }
+        }
+
+        if (bookSnapshotStore != null) {
+            lastAppliedSequence = event.sequence();
+            if (!recovering && ++eventsSinceBookSnapshot >= bookSnapshotInterval) {
+                snapshotBook();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Capture the book on this (the writer) thread, then encode and write it in the background. Only levels
+     * changed since the last capture are copied; the rest reuse the copy they already hold, so a snapshot costs
+     * the matcher one step per level plus the orders of the levels that actually moved.
+     * If the previous snapshot is still being written this one is skipped and retried after the next event.
+     */
+    private void snapshotBook() {
+        if (!bookSnapshotInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        eventsSinceBookSnapshot = 0;
+        BookSnapshot snapshot = new BookSnapshot(lastAppliedSequence, bidLevels.levelCount() + askLevels.levelCount());
+        captureSide(snapshot, bidLevels);
+        captureSide(snapshot, askLevels);
+
+        lastBookSnapshot = CompletableFuture.supplyAsync(() -> {
+            try {
+                Path written = bookSnapshotStore.write(snapshot);
+                // Journal segments behind every snapshot still kept will never be replayed again
+                journal.discardThrough(bookSnapshotStore.oldestSequence());
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                bookSnapshotInFlight.set(false);
+            }
+        }, bookSnapshotWriter);
+    }
+
+    private static void captureSide(BookSnapshot snapshot, BookSide side) {
+        side.forEach(Integer.MAX_VALUE, level -> {
+            BookSnapshot.Level captured = level.captured;
+            if (captured == null) {
+                BookSnapshot.Level copy = new BookSnapshot.Level(level.side, level.priceTicks, level.orderCount());
+                level.forEachOrder(order -> copy.addOrder(order.id, order.remainingLots, order.originalLots,
+                        order.timestampNanos, order.displayLots, order.hiddenLots));
+                level.captured = captured = copy;
+            }
+            snapshot.addLevel(captured);
         });
     }
 
+    private OrderResult processCancelOrder(String orderId) {
+        RestingOrder order = orderIndex.remove(orderId);
+        if (order == null) {
+            return OrderResult.error(orderId, "Order not found");
+        }
+
+        removeOrderFromLevel(order);
+        order.syncRemainingQuantity(instrument);
+        publishMarketData();
+
+        return OrderResult.success(orderId, "Order cancelled");
+    }
+
     /**
-     * Cancel order - atomic operation
+     * Same price and no larger: amend the queue node in place, O(1), priority kept. Anything else is a
+     * cancel/replace inside this one event, so the order is never missing from the book and the move is
+     * published once; the replacement is matched like a new order first in case it now crosses.
      */
-    public CompletableFuture<OrderResult> cancelOrder(String orderId) {
-        return CompletableFuture.supplyAsync(() -> {
-            Order order = activeOrders.remove(orderId);
-            if (order == null) {
-                return OrderResult.error(orderId, "Order not found");
+    private OrderResult processModifyOrder(OrderEvent event) {
+        Order replacement = event.order();
+        RestingOrder existing = orderIndex.get(event.orderId());
+        if (existing == null) {
+            return OrderResult.error(event.orderId(), "Order not found");
+        }
+        // Validate before touching the resting order, so a bad modify leaves it as it was
+        if (replacement.getSide() != existing.side) {
+            throw new IllegalArgumentException("A modify cannot change the order's side");
+        }
+        if (replacement.type() != OrderType.LIMIT || replacement.timeInForce() != TimeInForce.GTC) {
+            throw new IllegalArgumentException("A modify must replace the order with a resting limit order");
+        }
+        long priceTicks = instrument.toTicks(replacement.getPrice());
+        long lots = instrument.toLots(replacement.getRemainingQuantity());
+        if (priceTicks <= 0 || lots <= 0) {
+            throw new IllegalArgumentException("Price and quantity must be positive");
+        }
+        // Includes the off-heap iceberg check; failing it after the cancel half would lose the order
+        displayLots(replacement, lots);
+        if (replacement.postOnly()) {
+            PriceLevel best = (existing.side == OrderSide.BUY ? askLevels : bidLevels).best();
+            if (best != null && canMatch(existing.side, priceTicks, best.priceTicks)) {
+                return OrderResult.error(event.orderId(), "Post-only order would cross");
             }
+        }
 
-            removeOrderFromLevel(order);
+        // Icebergs (before or after) always go to the back, as a refill would
+        PriceLevel level = existing.level;
+        long reduction = existing.remainingLots - lots;
+        if (priceTicks == existing.priceTicks && reduction >= 0 && level != null
+                && replacement.displayQuantity() == null && level.amendQuantity(existing, lots)) {
+            existing.order = replacement;
+            existing.syncRemainingQuantity(instrument);
+            if (!keepCallerOrders) {
+                existing.order = null;
+            }
+            if (reduction > 0) {
+                markDirty(level);
+                depthChanged(level.side, level.priceTicks, -reduction);
+            }
             publishMarketData();
+            return OrderResult.success(event.orderId(), "Order modified in place");
+        }
 
-            return OrderResult.success(orderId, "Order cancelled");
-        });
+        // A CONCURRENT cancel may have taken the order since the lookup; re-adding it would undo that cancel
+        if (!orderIndex.remove(event.orderId(), existing)) {
+            return OrderResult.error(event.orderId(), "Order not found");
+        }
+        removeOrderFromLevel(existing);
+        existing.syncRemainingQuantity(instrument);
+        return processAddOrder(event);
+    }
+
+    /**
+     * Stops the matcher thread (or the CONCURRENT executor) after it has applied every event already accepted.
+     * An interrupt does not cut the wait short, since the journal and order store are released only once
+     * nothing can still write to them; the interrupt flag is restored on return.
+     */
+    @Override
+    public void close() {
+        running = false;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                awaitWriters();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
+        if (offHeapStore != null) {
+            try {
+                offHeapStore.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Safe to repeat: close() calls it again after an interrupt
+    private void awaitWriters() throws InterruptedException {
+        if (matcherThread != null) {
+            waitStrategy.signalAll();
+            matcherThread.join();
+        }
+        if (eventExecutor != null) {
+            eventExecutor.close();
+        }
+        if (bookSnapshotWriter != null) {
+            bookSnapshotWriter.shutdown();
+            bookSnapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+        }
     }
 
     private OrderResult processAddOrder(OrderEvent event) {
         Order order = event.order();
+        boolean market = order.type() == OrderType.MARKET;
+        // A market order is a limit through every price on the opposite side
+        long priceTicks = market ? (order.getSide() == OrderSide.BUY ? Long.MAX_VALUE : Long.MIN_VALUE)
+                : instrument.toTicks(order.getPrice());
+        RestingOrder incoming = new RestingOrder(order, priceTicks, instrument.toLots(order.getRemainingQuantity()));
+        if ((!market && incoming.priceTicks <= 0) || incoming.remainingLots <= 0) {
+            throw new IllegalArgumentException("Price and quantity must be positive");
+        }
+        long displayLots = displayLots(order, incoming.remainingLots);
+        orderIndex.checkId(order.getId());
 
         // Attempt matching first
-        List<Trade> trades = tryMatch(order);
+        MatchContext match = (sharedMatch != null ? sharedMatch : new MatchContext()).reset(incoming, event.sequence());
+        long stageStart = metrics == null ? 0 : System.nanoTime();
+        boolean accepted = tryMatch(incoming, order, match);
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.record(BookStage.MATCH, now - stageStart);
+            metrics.add(BookCounter.FILLS, match.fills);
+            stageStart = now;
+        }
+        if (!accepted) {
+            return OrderResult.error(order.getId(), order.postOnly() ? "Post-only order would cross"
+                    : "Fill-or-kill order cannot be filled in full");
+        }
 
-        // Add remaining quantity to book if not fully filled
-        if (order.getRemainingQuantity().compareTo(BigDecimal.ZERO) > 0) {
-            addOrderToLevel(order);
-            activeOrders.put(order.getId(), order);
+        // Add remaining quantity to book if not fully filled; market and IOC orders never rest
+        boolean rests = incoming.remainingLots > 0 && !market && order.timeInForce() == TimeInForce.GTC;
+        if (rests) {
+            if (displayLots > 0 && displayLots < incoming.remainingLots) {
+                incoming.displayLots = displayLots;
+                incoming.hiddenLots = incoming.remainingLots - displayLots;
+                incoming.remainingLots = displayLots;
+            }
+            addOrderToLevel(incoming);
+            orderIndex.add(incoming);
+            if (metrics != null) {
+                metrics.record(BookStage.ADD_TO_LEVEL, System.nanoTime() - stageStart);
+            }
+        }
+        if (match.fills > 0) {
+            incoming.syncRemainingQuantity(instrument);
+        }
+        if (!keepCallerOrders) {
+            incoming.order = null;
         }
 
         // Publish market data update
         publishMarketData();
 
-        return OrderResult.success(order.getId(), "Order processed", trades);
+        if (!rests && incoming.remainingLots > 0) {
+            return OrderResult.success(order.getId(), "Order processed, remainder cancelled", match.trades());
+        }
+        return OrderResult.success(order.getId(), "Order processed", match.trades());
+    }
+
+    /**
+     * Check the order type's constraints up front, so nothing is matched for an order that is then refused.
+     *
+     * @return the iceberg's display size in lots, or 0 if it shows everything
+     */
+    private long displayLots(Order order, long lots) {
+        boolean resting = order.type() == OrderType.LIMIT && order.timeInForce() == TimeInForce.GTC;
+        if (order.postOnly() && !resting) {
+            throw new IllegalArgumentException("Only resting limit orders can be post-only");
+        }
+        if (order.displayQuantity() == null) {
+            return 0;
+        }
+        if (!resting) {
+            throw new IllegalArgumentException("Only resting limit orders can be icebergs");
+        }
+        if (offHeapStore != null) {
+            throw new IllegalArgumentException("Icebergs cannot rest off-heap");
+        }
+        long displayLots = instrument.toLots(order.displayQuantity());
+        if (displayLots <= 0 || displayLots > lots) {
+            throw new IllegalArgumentException("Display quantity must be positive and no more than the quantity");
+        }
+        return displayLots;
     }
 
     /**
-     * Lock-free matching algorithm using optimistic concurrency
+     * Walk the opposite side best level first while the incoming order crosses. Post-only and fill-or-kill
+     * orders are checked against the touch and the level aggregates before the walk, so a refused order
+     * never trades.
+     *
+     * @return false if the order was refused
      */
-    private List<Trade> tryMatch(Order incomingOrder) {
-        List<Trade> trades = new ArrayList<>();
-        NavigableMap<BigDecimal, PriceLevel> oppositeSide =
-                incomingOrder.getSide() == OrderSide.BUY ? askLevels : bidLevels;
+    private boolean tryMatch(RestingOrder incomingOrder, Order order, MatchContext match) {
+        BookSide oppositeSide =
+                incomingOrder.side == OrderSide.BUY ? askLevels : bidLevels;
 
-        while (incomingOrder.getRemainingQuantity().compareTo(BigDecimal.ZERO) > 0) {
-            Map.Entry<BigDecimal, PriceLevel> bestLevel = oppositeSide.firstEntry();
+        if (order.postOnly()) {
+            PriceLevel best = oppositeSide.best();
+            return best == null || !canMatch(incomingOrder.side, incomingOrder.priceTicks, best.priceTicks);
+        }
+        if (order.timeInForce() == TimeInForce.FOK
+                && availableLots(incomingOrder, oppositeSide) < incomingOrder.remainingLots) {
+            return false;
+        }
+
+        while (incomingOrder.remainingLots > 0) {
+            PriceLevel level = oppositeSide.best();
 
-            if (bestLevel == null || !canMatch(incomingOrder, bestLevel.getKey())) {
+            if (level == null || !canMatch(incomingOrder.side, incomingOrder.priceTicks, level.priceTicks)) {
                 break;
             }
+            long traded = level.executeAgainst(incomingOrder, match);
+            if (traded == 0) {
+                break; // No more matching possible
+            }
+            markDirty(level);
 
-            PriceLevel level = bestLevel.getValue();
-            Trade trade = level.executeAgainst(incomingOrder);
+            // Remove level if empty
+            if (metrics != null && level.isEmpty()) {
+                metrics.increment(BookCounter.LEVELS_CLOSED);
+            }
+            oppositeSide.removeIfEmpty(level);
+            depthChanged(level.side, level.priceTicks, -traded);
+        }
+        return true;
+    }
+
+    /**
+     * Lots, shown and hidden, that the opposite side holds within the order's limit: O(log n) from the depth
+     * index if there is one, otherwise summed level by level.
+     */
+    private long availableLots(RestingOrder order, BookSide oppositeSide) {
+        DepthIndex depth = order.side == OrderSide.BUY ? askDepth : bidDepth;
+        if (depth != null) {
+            return depth.depthUpTo(order.priceTicks);
+        }
+        return oppositeSide.availableLots(order.priceTicks, order.remainingLots);
+    }
+
+    private void depthChanged(OrderSide side, long priceTicks, long deltaLots) {
+        if (bidDepth != null) {
+            (side == OrderSide.BUY ? bidDepth : askDepth).add(priceTicks, deltaLots);
+        }
+    }
+
+    /**
+     * Per-event matching state: the taker, its event's sequence, and a timestamp read once, on the first fill.
+     * Each fill becomes a report to the execution sink or, without one, a {@link Trade} for the result.
+     */
+    private final class MatchContext implements FillHandler {
+        private final ExecutionReport report = executionSink == null ? null : new ExecutionReport();
+        private RestingOrder taker;
+        private long sequence;
+        private int fills;
+        private long timestampNanos;
+        private Instant timestamp;
+        private List<Trade> trades;
+
+        MatchContext reset(RestingOrder taker, long sequence) {
+            this.taker = taker;
+            this.sequence = sequence;
+            this.fills = 0;
+            this.trades = null;
+            return this;
+        }
 
-            if (trade != null) {
-                trades.add(trade);
+        @Override
+        public void onFill(PriceLevel level, RestingOrder maker, long lots) {
+            if (maker.remainingLots == 0) {
+                orderIndex.removeFilled(maker);
+            }
+            maker.syncRemainingQuantity(instrument);
+            if (fills == 0) {
+                timestampNanos = epochClockOffset + System.nanoTime();
+            }
+            long tradeId = (sequence << FILL_INDEX_BITS) | fills++;
 
-                // Remove level if empty
-                if (level.isEmpty()) {
-                    oppositeSide.remove(bestLevel.getKey());
+            if (report != null) {
+                // Replayed fills were reported the first time round
+                if (!recovering) {
+                    report.set(tradeId, sequence, taker, maker, level.priceTicks, lots, timestampNanos);
+                    executionSink.onExecution(report);
                 }
-            } else {
-                break; // No more matching possible
+                return;
+            }
+            if (trades == null) {
+                trades = new ArrayList<>();
+                timestamp = Instant.ofEpochSecond(0, timestampNanos);
             }
+            boolean takerBuys = taker.side == OrderSide.BUY;
+            trades.add(new Trade(
+                    instrument.symbol() + "-" + tradeId,
+                    takerBuys ? taker.id : maker.id,
+                    takerBuys ? maker.id : taker.id,
+                    level.price,
+                    instrument.quantityOf(lots),
+                    timestamp));
         }
 
-        return trades;
+        List<Trade> trades() {
+            return trades == null ? List.of() : trades;
+        }
     }
 
-    private boolean canMatch(Order order, BigDecimal price) {
-        if (order.getSide() == OrderSide.BUY) {
-            return order.getPrice().compareTo(price) >= 0;
+    private static boolean canMatch(OrderSide side, long limitTicks, long priceTicks) {
+        if (side == OrderSide.BUY) {
+            return limitTicks >= priceTicks;
         } else {
-            return order.getPrice().compareTo(price) <= 0;
+            return limitTicks <= priceTicks;
         }
     }
 
-    private void addOrderToLevel(Order order) {
-        NavigableMap<BigDecimal, PriceLevel> side =
-                order.getSide() == OrderSide.BUY ? bidLevels : askLevels;
-
-        side.computeIfAbsent(order.getPrice(), price ->
-                new PriceLevel(price, order.getSide())).addOrder(order);
+    private void addOrderToLevel(RestingOrder order) {
+        BookSide side = order.side == OrderSide.BUY ? bidLevels : askLevels;
+        PriceLevel level = side.getOrCreate(order.priceTicks);
+        if (metrics != null && level.isEmpty()) {
+            metrics.increment(BookCounter.LEVELS_OPENED);
+        }
+        level.addOrder(order);
+        markDirty(level);
+        depthChanged(order.side, order.priceTicks, order.leavesLots());
     }
 
-    private void removeOrderFromLevel(Order order) {
-        NavigableMap<BigDecimal, PriceLevel> side =
-                order.getSide() == OrderSide.BUY ? bidLevels : askLevels;
-
-        PriceLevel level = side.get(order.getPrice());
-        if (level != null) {
-            level.removeOrder(order);
-            if (level.isEmpty()) {
-                side.remove(order.getPrice());
+    private void removeOrderFromLevel(RestingOrder order) {
+        // Back-pointer instead of a price lookup; null once the order has been filled
+        PriceLevel level = order.level;
+        if (level != null && level.removeOrder(order)) {
+            markDirty(level);
+            BookSide side = order.side == OrderSide.BUY ? bidLevels : askLevels;
+            if (metrics != null && level.isEmpty()) {
+                metrics.increment(BookCounter.LEVELS_CLOSED);
             }
+            side.removeIfEmpty(level);
+            depthChanged(order.side, order.priceTicks, -order.leavesLots());
         }
     }
 
     private void publishMarketData() {
-        MarketData snapshot = createSnapshot();
-        marketDataPublisher.publish(snapshot);
+        if (recovering) {
+            // Replayed history is not news; one snapshot goes out once recovery is done
+            for (int i = 0; i < dirtyLevels.size(); i++) {
+                dirtyLevels.get(i).dirty = false;
+            }
+            dirtyLevels.clear();
+            return;
+        }
+        if (batching) {
+            // Dirty levels keep accumulating; applyBatch publishes them once
+            return;
+        }
+        if (metrics == null) {
+            publishPending();
+            return;
+        }
+        long start = System.nanoTime();
+        publishPending();
+        metrics.record(BookStage.PUBLISH, System.nanoTime() - start);
     }
 
-    public MarketData createSnapshot() {
-        // Create immutable snapshot for publishing
-        List<PriceQuantity> bids = bidLevels.values().stream()
-                .limit(10) // Top 10 levels
-                .map(PriceLevel::toPriceQuantity)
-                .toList();
+    private void publishPending() {
+        if (concurrentBatchLock != null) {
+            if (!concurrentBatchLock.isWriteLockedByCurrentThread()) {
+                // Other events are changing levels right now; applyShared refreshes once this one is out
+                depthStale = true;
+                return;
+            }
+            // Exclusive already: this refresh covers whatever shared events left pending. CONCURRENT books
+            // publish snapshots only, and the lock holder publishes this one after releasing the lock
+            depthStale = false;
+            refreshDepth();
+            depthUnpublished = true;
+            return;
+        }
+        if (!incrementalMarketData) {
+            refreshDepth();
+            publishSnapshot();
+            return;
+        }
+
+        // One delta per level touched by the event, however many fills it took
+        for (int i = 0; i < dirtyLevels.size(); i++) {
+            PriceLevel level = dirtyLevels.get(i);
+            level.dirty = false;
+            long lots = level.totalLots();
+            marketDataPublisher.publishDelta(new MarketDataDelta(level.side, level.price,
+                    lots == 0 ? BigDecimal.ZERO : instrument.quantityOf(lots), ++marketDataSequence));
+        }
+        dirtyLevels.clear();
+        refreshDepth();
+
+        if (snapshotInterval > 0 && ++eventsSinceSnapshot >= snapshotInterval) {
+            publishSnapshot();
+        }
+    }
 
-        List<PriceQuantity> asks = askLevels.values().stream()
-                .limit(10)
-                .map(PriceLevel::toPriceQuantity)
-                .toList();
+    private void markDirty(PriceLevel level) {
+        if (incrementalMarketData && !level.dirty) {
+            level.dirty = true;
+            dirtyLevels.add(level);
+        }
+    }
 
-        return new MarketData(bids, asks, Instant.now());
+    private void publishSnapshot() {
+        eventsSinceSnapshot = 0;
+        marketDataPublisher.publish(createSnapshot());
     }
 
     /**
-     * Thread-safe price level implementation
+     * Ask the matcher thread to publish a full snapshot between two events, for consumers that
+     * joined late or detected a gap in the delta sequence. Snapshot-mode books publish immediately.
      */
-    private static class PriceLevel {
-        private final BigDecimal price;
-        private final OrderSide side;
-        private final ConcurrentLinkedDeque<Order> orders;
-        private final AtomicReference<BigDecimal> totalQuantity;
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
-
-        public PriceLevel(BigDecimal price, OrderSide side) {
-            this.price = price;
-            this.side = side;
-            this.orders = new ConcurrentLinkedDeque<>();
-            this.totalQuantity = new AtomicReference<>(BigDecimal.ZERO);
-        }
-
-        public void addOrder(Order order) {
-            lock.writeLock().lock();
-            try {
-                orders.addLast(order);
-                totalQuantity.updateAndGet(qty -> qty.add(order.getRemainingQuantity()));
-            } finally {
-                lock.writeLock().unlock();
-            }
+    public void requestSnapshot() {
+        if (matchingMode != MatchingMode.SEQUENCED) {
+            marketDataPublisher.publish(createSnapshot());
+            return;
         }
+        snapshotRequested.set(true);
+        waitStrategy.signalAll();
+    }
 
-        public void removeOrder(Order order) {
-            lock.writeLock().lock();
-            try {
-                if (orders.remove(order)) {
-                    totalQuantity.updateAndGet(qty -> qty.subtract(order.getRemainingQuantity()));
-                }
-            } finally {
-                lock.writeLock().unlock();
-            }
+    // The single writer, or a CONCURRENT book's exclusive lock holder; readers are never blocked either way
+    private void refreshDepth() {
+        depthView.update(bidLevels, askLevels, marketDataSequence);
+    }
+
+    /**
+     * Immutable copy of the top {@link #DEPTH_LEVELS} levels as of the last applied event. Safe from any
+     * thread; it reads the published depth view rather than the live book, so it is never torn. A CONCURRENT
+     * book refreshes that view under its exclusive batch lock, between events, so it only ever shows a state
+     * the book was in; events that finish together share one refresh, published after the lock is released.
+     */
+    public MarketData createSnapshot() {
+        BookDepth depth = new BookDepth(DEPTH_LEVELS);
+        depthView.read(depth);
+
+        PriceQuantity[] bids = new PriceQuantity[depth.bidLevels];
+        for (int i = 0; i < bids.length; i++) {
+            bids[i] = new PriceQuantity(instrument.priceOf(depth.bidTicks[i]), instrument.quantityOf(depth.bidLots[i]));
         }
+        PriceQuantity[] asks = new PriceQuantity[depth.askLevels];
+        for (int i = 0; i < asks.length; i++) {
+            asks[i] = new PriceQuantity(instrument.priceOf(depth.askTicks[i]), instrument.quantityOf(depth.askLots[i]));
+        }
+        return new MarketData(List.of(bids), List.of(asks), Instant.now(), depth.sequence);
+    }
 
-        /**
-         * Execute trade against this level - atomic operation
-         */
-        public Trade executeAgainst(Order incomingOrder) {
-            lock.writeLock().lock();
-            try {
-                Order headOrder = orders.peekFirst();
-                if (headOrder == null) {
-                    return null;
-                }
+    /**
+     * Copy the top levels as of the last applied event into a reader-owned buffer, without locking or
+     * allocating. Safe from any number of threads at once.
+     */
+    public void readDepth(BookDepth into) {
+        depthView.read(into);
+    }
 
-                BigDecimal tradeQuantity = headOrder.getRemainingQuantity()
-                        .min(incomingOrder.getRemainingQuantity());
+    /**
+     * Best bid price as of the last applied event, or null if there are no bids. A single volatile read.
+     */
+    public BigDecimal bestBid() {
+        return depthView.bestBid();
+    }
+
+    /**
+     * Best ask price as of the last applied event, or null if there are no asks. A single volatile read.
+     */
+    public BigDecimal bestAsk() {
+        return depthView.bestAsk();
+    }
 
-                headOrder.reduceQuantity(tradeQuantity);
-                incomingOrder.reduceQuantity(tradeQuantity);
+    /**
+     * Lots resting on {@code side}, shown and hidden, at {@code priceTicks} or better: what a taker on the
+     * other side limited to that price could trade. O(log n) near the touch; needs a depth index. Safe from
+     * any thread, like the queries below.
+     */
+    public long depthUpTo(OrderSide side, long priceTicks) {
+        return depthIndex(side).depthUpTo(priceTicks);
+    }
 
-                // Remove fully filled order
-                if (headOrder.getRemainingQuantity().compareTo(BigDecimal.ZERO) == 0) {
-                    orders.removeFirst();
-                }
+    /**
+     * The worst price, in ticks, that taking {@code lots} from {@code side} reaches, or -1 if it holds less.
+     */
+    public long priceForQuantity(OrderSide side, long lots) {
+        return depthIndex(side).priceForLots(lots);
+    }
 
-                totalQuantity.updateAndGet(qty -> qty.subtract(tradeQuantity));
+    /**
+     * The average price, in ticks, of taking {@code lots} from {@code side}, or NaN if it holds less.
+     */
+    public double vwapToFill(OrderSide side, long lots) {
+        return depthIndex(side).vwapToFill(lots);
+    }
 
-                return new Trade(
-                        UUID.randomUUID().toString(),
-                        headOrder.getId(),
-                        incomingOrder.getId(),
-                        price,
-                        tradeQuantity,
-                        Instant.now()
-                );
-            } finally {
-                lock.writeLock().unlock();
-            }
+    private DepthIndex depthIndex(OrderSide side) {
+        if (bidDepth == null) {
+            throw new IllegalStateException("The book was built without a depth index");
         }
+        return side == OrderSide.BUY ? bidDepth : askDepth;
+    }
+
+    public InstrumentSpec getInstrument() {
+        return instrument;
+    }
+
+    private static final SequencedBatch BATCH_CONTINUATION = new SequencedBatch(List.of(), new CompletableFuture<>(), 0);
 
-        public boolean isEmpty() {
-            return orders.isEmpty();
+    /**
+     * What the matcher takes off the ring: a single event or a whole batch.
+     */
+    private interface Sequenced {
+        void reject();
+    }
+
+    private record SequencedEvent(OrderEvent event, CompletableFuture<OrderResult> result, long queuedNanos)
+            implements Sequenced {
+        @Override
+        public void reject() {
+            result.complete(OrderResult.error(event.orderId(), "Order book is closed"));
         }
+    }
 
-        public PriceQuantity toPriceQuantity() {
-            return new PriceQuantity(price, totalQuantity.get());
+    private record SequencedBatch(List<OrderEvent> events, CompletableFuture<List<OrderResult>> results,
+                                  long queuedNanos) implements Sequenced {
+        @Override
+        public void reject() {
+            results.complete(rejectAll(events, "Order book is closed"));
         }
     }
 }
@@ -0,0 +1,48 @@
+package org.example.OrderBook.datastructures;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+// Blocks on a condition variable - no CPU burned while idle, at the cost of a wake-up on every signal
+public class BlockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progress = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    @Override
+    public void await(BooleanSupplier ready) {
+        if (ready.getAsBoolean()) {
+            return;
+        }
+        lock.lock();
+        try {
+            waiters.incrementAndGet();
+            while (!ready.getAsBoolean()) {
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            waiters.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAll() {
+        // Waiters register (a full barrier) before re-checking the ring. The caller's ring update is only a
+        // release store, which a later volatile read may still pass; fence so it cannot, or this could read
+        // no waiters while a waiter reads the old ring and blocks with an event in it
+        VarHandle.fullFence();
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.OrderBook.datastructures;
+
+import java.util.function.BooleanSupplier;
+
+// Lowest latency, burns a full core - only for threads pinned to an isolated CPU
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public void await(BooleanSupplier ready) {
+        while (!ready.getAsBoolean()) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.OrderBook.datastructures;
+
+/**
+ * Open-addressing {@code K -> long} map for a single thread: keys in one flat array and each key's hash and
+ * value side by side in another, so there is no entry object and no boxing per mapping, and a hit reads two
+ * cache lines. Linear probing over a power-of-two table, kept at most half full; removal shifts the following
+ * run back instead of leaving tombstones, so lookups never degrade with churn. A probe only calls
+ * {@code equals} on a key whose stored hash matches, and moving or rehashing entries never touches the key
+ * objects. Null keys are not allowed.
+ */
+public final class ObjectLongHashMap<K> {
+
+    private static final int MAX_CAPACITY = 1 << 29; // entries holds two longs per cell
+
+    private final long missingValue;
+    private Object[] keys;
+    // Cell i's hash at 2i and value at 2i + 1: one line holds both
+    private long[] entries;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public ObjectLongHashMap(int expectedSize, long missingValue) {
+        this.missingValue = missingValue;
+        long wanted = Math.max(8L, (long) expectedSize * 2);
+        if (wanted > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many entries for one table: " + expectedSize);
+        }
+        allocate(Integer.highestOneBit((int) wanted - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        entries = new long[capacity * 2];
+        mask = capacity - 1;
+        resizeAt = capacity / 2;
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(int i, Object key, int hash) {
+        Object stored = keys[i];
+        return (int) entries[2 * i] == hash && (stored == key || stored.equals(key));
+    }
+
+    public long get(K key) {
+        int hash = hash(key);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == null) {
+                return missingValue;
+            }
+            if (matches(i, key, hash)) {
+                return entries[2 * i + 1];
+            }
+        }
+    }
+
+    /**
+     * @return the previous value, or the missing value if the key was not mapped
+     */
+    public long put(K key, long value) {
+        int hash = hash(key);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == null) {
+                keys[i] = key;
+                entries[2 * i] = hash;
+                entries[2 * i + 1] = value;
+                if (++size > resizeAt) {
+                    rehash(keys.length * 2);
+                }
+                return missingValue;
+            }
+            if (matches(i, key, hash)) {
+                long previous = entries[2 * i + 1];
+                entries[2 * i + 1] = value;
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * @return the removed value, or the missing value if the key was not mapped
+     */
+    public long remove(K key) {
+        int hash = hash(key);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == null) {
+                return missingValue;
+            }
+            if (matches(i, key, hash)) {
+                long removed = entries[2 * i + 1];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+        }
+    }
+
+    private void shiftBack(int gap) {
+        for (int i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+            Object key = keys[i];
+            if (key == null) {
+                break;
+            }
+            int home = (int) entries[2 * i] & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = key;
+                entries[2 * gap] = entries[2 * i];
+                entries[2 * gap + 1] = entries[2 * i + 1];
+                gap = i;
+            }
+        }
+        keys[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("ObjectLongHashMap is full");
+        }
+        Object[] oldKeys = keys;
+        long[] oldEntries = entries;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int j = (int) oldEntries[2 * i] & mask;
+                while (keys[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+                entries[2 * j] = oldEntries[2 * i];
+                entries[2 * j + 1] = oldEntries[2 * i + 1];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.OrderBook.datastructures;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// Spins, then yields, then parks for a short fixed interval - a good default when cores are shared
+public class ParkingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final long parkNanos;
+
+    public ParkingWaitStrategy() {
+        this(50_000);
+    }
+
+    public ParkingWaitStrategy(long parkNanos) {
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public void await(BooleanSupplier ready) {
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while (!ready.getAsBoolean()) {
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+        }
+    }
+}
@@ -1,42 +1,238 @@
 package org.example.OrderBook.datastructures;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// Cursor fields are separated by a cache line on each side so producers and consumers do not false-share.
+// The JVM lays out superclass fields first, which is the only reliable way to order them.
+abstract class RingBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingBufferProducerCursor extends RingBufferPad0 {
+    volatile long producerCursor;
+}
+
+abstract class RingBufferPad1 extends RingBufferProducerCursor {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingBufferConsumerCursor extends RingBufferPad1 {
+    volatile long consumerCursor;
+}
+
+abstract class RingBufferPad2 extends RingBufferConsumerCursor {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+/**
+ * Bounded lock-free multi-producer / multi-consumer ring buffer for high-throughput event processing.
+ *
+ * Producers claim positions with a CAS on the producer cursor, consumers with a CAS on the consumer cursor.
+ * Ownership of each slot is handed over through a per-slot sequence: for position {@code p} the slot is
+ * free when its sequence equals {@code p}, readable when it equals {@code p + 1} and released for the next
+ * lap when it equals {@code p + capacity}. A claimed position therefore can never be overwritten by
+ * another producer, and a slot is never reused before its consumer has taken the item.
+ */
+public class RingBuffer<T> extends RingBufferPad2 {
+    private static final VarHandle PRODUCER_CURSOR;
+    private static final VarHandle CONSUMER_CURSOR;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_CURSOR = lookup.findVarHandle(RingBufferProducerCursor.class, "producerCursor", long.class);
+            CONSUMER_CURSOR = lookup.findVarHandle(RingBufferConsumerCursor.class, "consumerCursor", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
-// Lock-free ring buffer for high-throughput event processing
-public class RingBuffer<T> {
     private final Object[] buffer;
+    private final AtomicLongArray sequences;
     private final int mask;
-    private final AtomicLong writeIndex = new AtomicLong(0);
-    private final AtomicLong readIndex = new AtomicLong(0);
+    private final WaitStrategy waitStrategy;
 
     public RingBuffer(int capacity) {
-        if ((capacity & (capacity - 1)) != 0) {
+        this(capacity, new YieldingWaitStrategy());
+    }
+
+    public RingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
             throw new IllegalArgumentException("Capacity must be power of 2");
         }
         this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
         this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Claim {@code n} consecutive positions in one CAS, or return -1 if the ring does not have room for them.
+     * Every claimed position must later be passed to {@link #publish}, otherwise consumers stall behind it.
+     */
+    public long tryClaim(int n) {
+        checkBatchSize(n);
+        while (true) {
+            long first = producerCursor;
+            long last = first + n - 1;
+            long available = sequences.get(index(last));
+            if (available == last) {
+                // The last slot is free, so consumers have claimed every earlier slot and are about to release it
+                if (PRODUCER_CURSOR.compareAndSet(this, first, first + n)) {
+                    return first;
+                }
+            } else if (available < last) {
+                return -1; // Buffer full
+            }
+            // Another producer moved the cursor, retry from the new position
+        }
+    }
+
+    /**
+     * Claim {@code n} consecutive positions, waiting with the wait strategy while the ring is full.
+     */
+    public long claim(int n) {
+        checkBatchSize(n);
+        long first = tryClaim(n);
+        while (first < 0) {
+            waitStrategy.await(() -> hasCapacity(n));
+            first = tryClaim(n);
+        }
+        return first;
+    }
+
+    /**
+     * Make {@code item} visible to consumers at a position previously returned by a claim.
+     */
+    public void publish(long sequence, T item) {
+        int index = index(sequence);
+        while (sequences.get(index) != sequence) {
+            Thread.onSpinWait(); // Previous lap's consumer has claimed the slot but not yet released it
+        }
+        buffer[index] = item;
+        sequences.setRelease(index, sequence + 1);
+        waitStrategy.signalAll();
+    }
+
+    public boolean offer(T item) {
+        long sequence = tryClaim(1);
+        if (sequence < 0) {
+            return false;
+        }
+        publish(sequence, item);
+        return true;
+    }
+
+    public void put(T item) {
+        publish(claim(1), item);
     }
 
     @SuppressWarnings("unchecked")
     public T poll() {
-        long read = readIndex.get();
-        if (read >= writeIndex.get()) {
-            return null;
+        while (true) {
+            long read = consumerCursor;
+            int index = index(read);
+            long available = sequences.getAcquire(index);
+            if (available == read + 1) {
+                if (CONSUMER_CURSOR.compareAndSet(this, read, read + 1)) {
+                    T item = (T) buffer[index];
+                    release(index, read);
+                    waitStrategy.signalAll();
+                    return item;
+                }
+            } else if (available < read + 1) {
+                return null; // Empty, or the producer of this slot has not published yet
+            }
+            // Another consumer took this slot, retry from the new position
         }
+    }
 
-        T item = (T) buffer[(int) read & mask];
-        readIndex.compareAndSet(read, read + 1);
+    public T take() {
+        T item = poll();
+        while (item == null) {
+            waitStrategy.await(() -> !isEmpty());
+            item = poll();
+        }
         return item;
     }
 
-    public boolean offer(T item) {
-        long write = writeIndex.get();
-        if (write - readIndex.get() >= buffer.length) {
-            return false; // Buffer full
+    /**
+     * Claim up to {@code limit} readable items with a single CAS and hand them to {@code handler} in order.
+     * Slots are released before the handler runs, so a handler that throws loses the rest of the batch.
+     *
+     * @return the number of items handled
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Consumer<? super T> handler, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
         }
+        while (true) {
+            long read = consumerCursor;
+            int count = 0;
+            while (count < limit && sequences.getAcquire(index(read + count)) == read + count + 1) {
+                count++;
+            }
+            if (count == 0) {
+                if (consumerCursor == read) {
+                    return 0;
+                }
+                continue;
+            }
+            if (CONSUMER_CURSOR.compareAndSet(this, read, read + count)) {
+                for (int i = 0; i < count; i++) {
+                    int index = index(read + i);
+                    T item = (T) buffer[index];
+                    release(index, read + i);
+                    handler.accept(item);
+                }
+                waitStrategy.signalAll();
+                return count;
+            }
+        }
+    }
 
-        buffer[(int) write & mask] = item;
-        writeIndex.compareAndSet(write, write + 1);
-        return true;
+    public boolean isEmpty() {
+        long read = consumerCursor;
+        return sequences.getAcquire(index(read)) != read + 1;
+    }
+
+    public int size() {
+        long size = producerCursor - consumerCursor;
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    private boolean hasCapacity(int n) {
+        long last = producerCursor + n - 1;
+        return sequences.get(index(last)) >= last;
+    }
+
+    private void release(int index, long sequence) {
+        buffer[index] = null;
+        sequences.setRelease(index, sequence + buffer.length);
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private void checkBatchSize(int n) {
+        if (n < 1 || n > buffer.length) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + buffer.length);
+        }
     }
 }
@@ -0,0 +1,19 @@
+package org.example.OrderBook.datastructures;
+
+import java.util.function.BooleanSupplier;
+
+// How a producer or consumer waits when the ring buffer cannot make progress
+public interface WaitStrategy {
+
+    /**
+     * Returns once {@code ready} reports true. Implementations decide whether to spin, yield, park or block.
+     */
+    void await(BooleanSupplier ready);
+
+    /**
+     * Wakes threads waiting in {@link #await}. Called after every publish and release,
+     * so it must be cheap when nobody is waiting.
+     */
+    default void signalAll() {
+    }
+}
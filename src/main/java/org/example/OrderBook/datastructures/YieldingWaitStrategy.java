@@ -0,0 +1,21 @@
+package org.example.OrderBook.datastructures;
+
+import java.util.function.BooleanSupplier;
+
+// Spins briefly then yields the CPU to other runnable threads between checks
+public class YieldingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public void await(BooleanSupplier ready) {
+        int counter = SPIN_TRIES;
+        while (!ready.getAsBoolean()) {
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+}
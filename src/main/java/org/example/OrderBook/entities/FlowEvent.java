@@ -0,0 +1,22 @@
+package org.example.OrderBook.entities;
+
+import org.example.OrderBook.enums.FlowEventType;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * One step of a synthetic or recorded order flow. {@code timestampNanos} is the arrival time relative to the
+ * start of the flow; side, price and quantity are null for cancels.
+ */
+public record FlowEvent(long timestampNanos,
+                        FlowEventType type,
+                        String orderId,
+                        OrderSide side,
+                        BigDecimal price,
+                        BigDecimal quantity) {
+
+    public static FlowEvent cancel(long timestampNanos, String orderId) {
+        return new FlowEvent(timestampNanos, FlowEventType.CANCEL, orderId, null, null, null);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.OrderBook.entities;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-symbol fixed-point scale. Inside the book prices are whole ticks and quantities whole lots held in
+ * plain longs; BigDecimal only appears when orders come in and when trades and market data go out.
+ */
+public record InstrumentSpec(String symbol, BigDecimal tickSize, BigDecimal lotSize) {
+
+    // Fine enough for anything quoted to 8 decimals (satoshi precision) while leaving ~9e10 units of headroom
+    private static final BigDecimal DEFAULT_INCREMENT = new BigDecimal("0.00000001");
+
+    public InstrumentSpec {
+        if (tickSize.signum() <= 0 || lotSize.signum() <= 0) {
+            throw new IllegalArgumentException("Tick size and lot size must be positive");
+        }
+        tickSize = tickSize.stripTrailingZeros();
+        lotSize = lotSize.stripTrailingZeros();
+    }
+
+    public static InstrumentSpec defaultFor(String symbol) {
+        return new InstrumentSpec(symbol, DEFAULT_INCREMENT, DEFAULT_INCREMENT);
+    }
+
+    /**
+     * @throws ArithmeticException if the price is not a whole number of ticks or does not fit in a long
+     */
+    public long toTicks(BigDecimal price) {
+        return toUnits(price, tickSize, "Price", "tick size");
+    }
+
+    /**
+     * @throws ArithmeticException if the quantity is not a whole number of lots or does not fit in a long
+     */
+    public long toLots(BigDecimal quantity) {
+        return toUnits(quantity, lotSize, "Quantity", "lot size");
+    }
+
+    public BigDecimal priceOf(long ticks) {
+        return tickSize.multiply(BigDecimal.valueOf(ticks));
+    }
+
+    public BigDecimal quantityOf(long lots) {
+        return lotSize.multiply(BigDecimal.valueOf(lots));
+    }
+
+    private static long toUnits(BigDecimal value, BigDecimal increment, String what, String incrementName) {
+        BigDecimal[] division = value.divideAndRemainder(increment);
+        if (division[1].signum() != 0) {
+            throw new ArithmeticException(what + " " + value.toPlainString() + " is not a multiple of the "
+                    + incrementName + " " + increment.toPlainString());
+        }
+        return division[0].longValueExact();
+    }
+}
@@ -3,5 +3,12 @@ package org.example.OrderBook.entities;
 import java.time.Instant;
 import java.util.List;
 
-public record MarketData(List<PriceQuantity> bids, List<PriceQuantity> asks, Instant timestamp) {
+/**
+ * @param sequence the last delta sequence reflected in this snapshot; deltas above it apply on top
+ */
+public record MarketData(List<PriceQuantity> bids, List<PriceQuantity> asks, Instant timestamp, long sequence) {
+
+    public MarketData(List<PriceQuantity> bids, List<PriceQuantity> asks, Instant timestamp) {
+        this(bids, asks, timestamp, 0);
+    }
 }
@@ -0,0 +1,13 @@
+package org.example.OrderBook.entities;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * New aggregate quantity of one price level; a zero quantity means the level is gone.
+ * Sequences are consecutive per book, so a gap tells a DELIVER_ALL consumer to ask for a snapshot. CONFLATE
+ * and THROTTLE subscribers skip the sequences conflated away and must ignore gaps.
+ */
+public record MarketDataDelta(OrderSide side, BigDecimal price, BigDecimal quantity, long sequence) {
+}
@@ -1,23 +1,74 @@
 package org.example.OrderBook.entities;
 
 import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.enums.OrderType;
+import org.example.OrderBook.enums.TimeInForce;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicReference;
 
-// Supporting classes
+/**
+ * An order as the caller submits it. Plain limit orders are good till cancelled and fully displayed; the
+ * factories cover the other types. {@code price} is null for market orders. {@code postOnly} orders are
+ * rejected rather than matched if they would cross, and a non-null {@code displayQuantity} makes an iceberg
+ * that shows at most that much at a time, refilling from the hidden rest as each slice trades.
+ */
 public record Order(String id,
                     OrderSide side,
                     BigDecimal price,
                     BigDecimal quantity,
                     AtomicReference<BigDecimal> remainingQuantity,
-                    Instant timestamp) {
+                    Instant timestamp,
+                    OrderType type,
+                    TimeInForce timeInForce,
+                    boolean postOnly,
+                    BigDecimal displayQuantity) {
 
     public Order(String id, OrderSide side, BigDecimal price, BigDecimal quantity) {
         this(id, side, price, quantity, new AtomicReference<>(quantity), Instant.now());
     }
 
+    public Order(String id, OrderSide side, BigDecimal price, BigDecimal quantity,
+                 AtomicReference<BigDecimal> remainingQuantity, Instant timestamp) {
+        this(id, side, price, quantity, remainingQuantity, timestamp, OrderType.LIMIT, TimeInForce.GTC, false, null);
+    }
+
+    private Order(String id, OrderSide side, BigDecimal price, BigDecimal quantity, OrderType type,
+                  TimeInForce timeInForce, boolean postOnly, BigDecimal displayQuantity) {
+        this(id, side, price, quantity, new AtomicReference<>(quantity), Instant.now(), type, timeInForce, postOnly,
+                displayQuantity);
+    }
+
+    /**
+     * Takes liquidity at any price; whatever the book cannot fill on arrival is cancelled.
+     */
+    public static Order market(String id, OrderSide side, BigDecimal quantity) {
+        return new Order(id, side, null, quantity, OrderType.MARKET, TimeInForce.IOC, false, null);
+    }
+
+    /**
+     * A limit order that lives no longer than {@code timeInForce} allows.
+     */
+    public static Order limit(String id, OrderSide side, BigDecimal price, BigDecimal quantity, TimeInForce timeInForce) {
+        return new Order(id, side, price, quantity, OrderType.LIMIT, timeInForce, false, null);
+    }
+
+    /**
+     * A resting limit order that is rejected instead of trading if it would cross on arrival.
+     */
+    public static Order postOnly(String id, OrderSide side, BigDecimal price, BigDecimal quantity) {
+        return new Order(id, side, price, quantity, OrderType.LIMIT, TimeInForce.GTC, true, null);
+    }
+
+    /**
+     * A resting limit order that shows {@code displayQuantity} at a time.
+     */
+    public static Order iceberg(String id, OrderSide side, BigDecimal price, BigDecimal quantity,
+                                BigDecimal displayQuantity) {
+        return new Order(id, side, price, quantity, OrderType.LIMIT, TimeInForce.GTC, false, displayQuantity);
+    }
+
     public String getId() {
         return id;
     }
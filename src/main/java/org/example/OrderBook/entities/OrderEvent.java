@@ -2,7 +2,20 @@ package org.example.OrderBook.entities;
 
 import org.example.OrderBook.enums.OrderEventType;
 
+/**
+ * An instruction for the book. ADD and MODIFY carry the full order (for MODIFY the
+ * replacement price/quantity under the same id); CANCEL only needs the order id.
+ */
 public record OrderEvent(OrderEventType type,
+                         String orderId,
                          Order order,
                          long sequence) {
+
+    public OrderEvent(OrderEventType type, Order order, long sequence) {
+        this(type, order.getId(), order, sequence);
+    }
+
+    public static OrderEvent cancel(String orderId, long sequence) {
+        return new OrderEvent(OrderEventType.CANCEL, orderId, null, sequence);
+    }
 }
@@ -3,6 +3,11 @@ package org.example.OrderBook.entities;
 import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * @param id        symbol, then the event's sequence number and the fill's index within it (see
+ *                  {@code ExecutionReport#tradeId()}); unique per symbol and the same again on journal replay
+ * @param timestamp when the event that caused the fill was matched; shared by all of that event's fills
+ */
 public record Trade(String id,
                     String buyOrderId,
                     String sellOrderId,
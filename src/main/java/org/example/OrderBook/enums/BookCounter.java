@@ -0,0 +1,12 @@
+package org.example.OrderBook.enums;
+
+/**
+ * ORDERS        - add events applied.
+ * CANCELS       - cancel events applied.
+ * MODIFIES      - modify events applied.
+ * REJECTS       - events of any type that came back as errors.
+ * FILLS         - fills, one per resting order an incoming order traded with.
+ * LEVELS_OPENED - price levels that went from empty to holding an order.
+ * LEVELS_CLOSED - price levels emptied by fills or cancels.
+ */
+public enum BookCounter { ORDERS, CANCELS, MODIFIES, REJECTS, FILLS, LEVELS_OPENED, LEVELS_CLOSED }
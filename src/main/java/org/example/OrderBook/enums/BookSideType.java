@@ -0,0 +1,7 @@
+package org.example.OrderBook.enums;
+
+/**
+ * SKIP_LIST    - ConcurrentSkipListMap per side, safe under CONCURRENT matching.
+ * PRICE_LADDER - tick-indexed array around the touch with a sparse overflow; single writer only.
+ */
+public enum BookSideType { SKIP_LIST, PRICE_LADDER }
@@ -0,0 +1,10 @@
+package org.example.OrderBook.enums;
+
+/**
+ * QUEUE        - from submission until the matcher starts the event (ring or executor queue; not for EXTERNAL).
+ * MATCH        - matching an incoming order against the opposite side.
+ * ADD_TO_LEVEL - resting what is left of it on its level.
+ * PUBLISH      - market data and the depth view after an event or batch.
+ * EVENT        - the whole event, journaling included.
+ */
+public enum BookStage { QUEUE, MATCH, ADD_TO_LEVEL, PUBLISH, EVENT }
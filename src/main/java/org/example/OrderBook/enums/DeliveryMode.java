@@ -0,0 +1,9 @@
+package org.example.OrderBook.enums;
+
+/**
+ * DELIVER_ALL - every update through a bounded queue; a subscriber that overflows it is disconnected.
+ * CONFLATE    - only the latest snapshot and the latest delta per level, delivered as fast as the subscriber reads;
+ *               delta sequences rise but have gaps, which the subscriber must ignore.
+ * THROTTLE    - like CONFLATE, but at most N deliveries per second.
+ */
+public enum DeliveryMode { DELIVER_ALL, CONFLATE, THROTTLE }
@@ -0,0 +1,9 @@
+package org.example.OrderBook.enums;
+
+/**
+ * CALLER_RUNS     - the submitting thread matches the event itself; the returned future is already complete.
+ * PINNED_THREAD   - one dedicated matching thread per book, fed through a bounded queue, so events match one at a time.
+ * BOUNDED_POOL    - a fixed pool of dedicated matching threads fed through a bounded queue.
+ * VIRTUAL_THREADS - a virtual thread per event (Java 21+), the queue bound capping how many are in flight.
+ */
+public enum ExecutorType { CALLER_RUNS, PINNED_THREAD, BOUNDED_POOL, VIRTUAL_THREADS }
@@ -0,0 +1,9 @@
+package org.example.OrderBook.enums;
+
+/**
+ * LIMIT  - a new limit order priced around the mid; it may cross if the mid has moved.
+ * MARKET - a marketable order priced through the touch; whatever does not fill is pulled straight away.
+ * CANCEL - cancel an order this flow placed earlier (it may already have filled).
+ * MODIFY - cancel/replace an earlier order with a new price and quantity.
+ */
+public enum FlowEventType { LIMIT, MARKET, CANCEL, MODIFY }
@@ -0,0 +1,7 @@
+package org.example.OrderBook.enums;
+
+/**
+ * SNAPSHOT    - publish the top of book after every event.
+ * INCREMENTAL - publish one delta per changed level, with full snapshots periodically or on request.
+ */
+public enum MarketDataMode { SNAPSHOT, INCREMENTAL }
@@ -0,0 +1,10 @@
+package org.example.OrderBook.enums;
+
+/**
+ * CONCURRENT - every request is matched on the book's executor (see ExecutionConfig), callers race on the levels.
+ * SEQUENCED  - requests are published to the event ring and applied in sequence order
+ *              by a single matcher thread (deterministic price-time priority).
+ * EXTERNAL   - the book starts no threads; its owner (e.g. an exchange shard) is the single
+ *              writer and applies events on its own thread through process().
+ */
+public enum MatchingMode { CONCURRENT, SEQUENCED, EXTERNAL }
@@ -0,0 +1,8 @@
+package org.example.OrderBook.enums;
+
+/**
+ * HASH_MAP  - ConcurrentHashMap keyed by the caller's order id; safe under CONCURRENT matching.
+ * PRIMITIVE - an open-addressing map from the caller's id straight to a slot of an array-backed order store, and
+ *             resting orders do not keep the caller's Order; single writer only.
+ */
+public enum OrderIndexType { HASH_MAP, PRIMITIVE }
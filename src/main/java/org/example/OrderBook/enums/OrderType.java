@@ -0,0 +1,7 @@
+package org.example.OrderBook.enums;
+
+/**
+ * LIMIT  - trades at its price or better; what is left rests unless its time in force says otherwise.
+ * MARKET - no price: trades at whatever the opposite side offers and never rests, so a remainder is cancelled.
+ */
+public enum OrderType { LIMIT, MARKET }
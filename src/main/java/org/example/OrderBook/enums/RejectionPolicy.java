@@ -0,0 +1,8 @@
+package org.example.OrderBook.enums;
+
+/**
+ * REJECT      - the event fails at once with an "overloaded" result and is never applied.
+ * CALLER_RUNS - the submitting thread matches the event itself.
+ * BLOCK       - the submitting thread waits for room, back-pressuring its caller.
+ */
+public enum RejectionPolicy { REJECT, CALLER_RUNS, BLOCK }
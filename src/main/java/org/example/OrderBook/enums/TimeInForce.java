@@ -0,0 +1,8 @@
+package org.example.OrderBook.enums;
+
+/**
+ * GTC - good till cancelled: the unfilled remainder rests on the book.
+ * IOC - immediate or cancel: trades what it can on arrival and the remainder is cancelled.
+ * FOK - fill or kill: trades its whole size on arrival or nothing at all.
+ */
+public enum TimeInForce { GTC, IOC, FOK }
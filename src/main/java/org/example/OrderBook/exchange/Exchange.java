@@ -0,0 +1,211 @@
+package org.example.OrderBook.exchange;
+
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.datastructures.ParkingWaitStrategy;
+import org.example.OrderBook.datastructures.WaitStrategy;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.marketdata.MarketDataPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Multi-symbol engine: every symbol's book is owned by one of N shards, each a single thread with its own
+ * event ring. Orders are routed by symbol, so throughput scales with shards and a hot symbol only
+ * competes with the symbols that share its shard. Symbols can be moved between shards while trading.
+ *
+ * Shard threads are plain dedicated threads; binding them to cores is left to the deployment
+ * (taskset/isolcpus), the JDK has no affinity API.
+ */
+public class Exchange implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    private final Shard[] shards;
+    private final ConcurrentHashMap<String, SymbolRoute> routes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public Exchange(int shardCount) {
+        this(shardCount, DEFAULT_QUEUE_CAPACITY, ParkingWaitStrategy::new);
+    }
+
+    public Exchange(int shardCount, int queueCapacity, Supplier<WaitStrategy> waitStrategies) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Need at least one shard");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity, waitStrategies.get());
+            shards[i].start();
+        }
+    }
+
+    /**
+     * List a symbol on the least loaded shard. The config must use EXTERNAL matching,
+     * the shard thread is the book's only writer.
+     */
+    public void addInstrument(OrderBookConfig config, MarketDataPublisher publisher) {
+        addInstrument(config, publisher, leastLoadedShard());
+    }
+
+    public synchronized void addInstrument(OrderBookConfig config, MarketDataPublisher publisher, int shard) {
+        if (config.matchingMode() != MatchingMode.EXTERNAL) {
+            throw new IllegalArgumentException("Exchange books must use EXTERNAL matching");
+        }
+        String symbol = config.instrument().symbol();
+        if (routes.containsKey(symbol)) {
+            throw new IllegalArgumentException("Symbol already listed: " + symbol);
+        }
+        Shard owner = shards[shard];
+        routes.put(symbol, new SymbolRoute(symbol, new ThreadSafeOrderBook(config, publisher), owner));
+        owner.symbols.incrementAndGet();
+    }
+
+    public CompletableFuture<OrderResult> addOrder(String symbol, Order order) {
+        return submit(symbol, OrderEventType.ADD, order.getId(), order);
+    }
+
+    public CompletableFuture<OrderResult> cancelOrder(String symbol, String orderId) {
+        return submit(symbol, OrderEventType.CANCEL, orderId, null);
+    }
+
+    /**
+     * Replace a resting order with {@code replacement} (same id, new price and/or quantity).
+     */
+    public CompletableFuture<OrderResult> modifyOrder(String symbol, Order replacement) {
+        return submit(symbol, OrderEventType.MODIFY, replacement.getId(), replacement);
+    }
+
+    private CompletableFuture<OrderResult> submit(String symbol, OrderEventType type, String orderId, Order order) {
+        SymbolRoute route = routes.get(symbol);
+        if (route == null) {
+            return CompletableFuture.completedFuture(OrderResult.error(orderId, "Unknown symbol " + symbol));
+        }
+        if (closed) {
+            return CompletableFuture.completedFuture(OrderResult.error(orderId, "Exchange is closed"));
+        }
+        CompletableFuture<OrderResult> result = new CompletableFuture<>();
+        route.dispatch(ShardCommand.event(route, type, orderId, order, result));
+        return result;
+    }
+
+    /**
+     * Move a symbol to another shard without losing or reordering its events. New orders for the symbol
+     * wait until the current shard has applied everything already queued for it.
+     *
+     * @return completes once the target shard owns the book
+     */
+    public synchronized CompletableFuture<Void> moveSymbol(String symbol, int targetShard) {
+        SymbolRoute route = routes.get(symbol);
+        if (route == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        Shard from = route.shard;
+        Shard to = shards[targetShard];
+        if (from == to) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Stop new dispatches, then wait for producers already publishing to the old shard
+        route.shard = null;
+        while (route.inFlight.get() != 0) {
+            Thread.onSpinWait();
+        }
+
+        CompletableFuture<Void> moved = new CompletableFuture<>();
+        from.submit(ShardCommand.control(route, () -> {
+            // Runs on the old shard after every event queued for the symbol before the move
+            from.symbols.decrementAndGet();
+            to.symbols.incrementAndGet();
+            route.shard = to;
+            moved.complete(null);
+        }));
+        return moved;
+    }
+
+    public int shardOf(String symbol) {
+        SymbolRoute route = routes.get(symbol);
+        if (route == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        Shard shard = route.shard;
+        return shard == null ? -1 : shard.index;
+    }
+
+    public MarketData snapshot(String symbol) {
+        SymbolRoute route = routes.get(symbol);
+        if (route == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        return route.book.createSnapshot();
+    }
+
+    public List<ShardStats> shardStats() {
+        List<ShardStats> stats = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            stats.add(shard.stats());
+        }
+        return stats;
+    }
+
+    private int leastLoadedShard() {
+        int best = 0;
+        for (int i = 1; i < shards.length; i++) {
+            if (shards[i].symbols.get() < shards[best].symbols.get()) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stop every shard, wait for its thread to exit, then close every book (forcing its journal, stopping its
+     * snapshot writer, releasing its metrics and off-heap store). An interrupt does not cut the wait short,
+     * since a book is only closed once no shard can still apply its events; the flag is restored on return.
+     * A book that fails to close does not stop the rest; the first failure is rethrown afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        RuntimeException failure = null;
+        for (SymbolRoute route : routes.values()) {
+            try {
+                route.book.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
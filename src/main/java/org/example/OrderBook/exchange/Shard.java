@@ -0,0 +1,107 @@
+package org.example.OrderBook.exchange;
+
+import org.example.OrderBook.datastructures.RingBuffer;
+import org.example.OrderBook.datastructures.WaitStrategy;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.entities.OrderResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One matching thread and the books it owns. Books are EXTERNAL, so this thread is their only writer;
+ * producers for any of its symbols share the shard's multi-producer ring.
+ */
+final class Shard implements Runnable {
+    private static final int BATCH_SIZE = 256;
+
+    final int index;
+    final AtomicInteger symbols = new AtomicInteger();
+    private final RingBuffer<ShardCommand> queue;
+    private final WaitStrategy waitStrategy;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean terminated = false;
+    private volatile long processed;
+
+    Shard(int index, int queueCapacity, WaitStrategy waitStrategy) {
+        this.index = index;
+        this.waitStrategy = waitStrategy;
+        this.queue = new RingBuffer<>(queueCapacity, waitStrategy);
+        this.thread = new Thread(this, "exchange-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Waits while the ring is full, so a burst back-pressures producers of this shard only.
+     */
+    void submit(ShardCommand command) {
+        queue.put(command);
+        // Raced with close(): the shard may have stopped before reaching this command
+        if (terminated) {
+            reject(command);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (queue.drainTo(this::execute, BATCH_SIZE) == 0) {
+                waitStrategy.await(() -> !running || !queue.isEmpty());
+            }
+        }
+
+        while (queue.drainTo(this::execute, BATCH_SIZE) > 0) {
+        }
+        terminated = true;
+        while (queue.size() > 0) {
+            ShardCommand next = queue.poll();
+            if (next == null) {
+                Thread.onSpinWait();
+            } else {
+                reject(next);
+            }
+        }
+    }
+
+    private void execute(ShardCommand command) {
+        if (command.control() != null) {
+            command.control().run();
+            return;
+        }
+        SymbolRoute route = command.route();
+        OrderEvent event = new OrderEvent(command.type(), command.orderId(), command.order(), ++route.sequence);
+        OrderResult result;
+        try {
+            result = route.book.process(event);
+        } catch (RuntimeException e) {
+            result = OrderResult.error(command.orderId(), e.getMessage());
+        }
+        processed++;
+        command.result().complete(result);
+    }
+
+    private static void reject(ShardCommand command) {
+        if (command.control() != null) {
+            command.control().run(); // Still finish a hand-over so the symbol's producers stop spinning
+        } else {
+            command.result().complete(OrderResult.error(command.orderId(), "Exchange is closed"));
+        }
+    }
+
+    ShardStats stats() {
+        return new ShardStats(index, symbols.get(), queue.size(), queue.capacity(), processed);
+    }
+
+    void stop() {
+        running = false;
+        waitStrategy.signalAll();
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.OrderBook.exchange;
+
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.OrderEventType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Either an order event for a routed book, or a control task that must run on the shard thread
+ * in queue order (used to hand a symbol over to another shard).
+ */
+record ShardCommand(SymbolRoute route,
+                    OrderEventType type,
+                    String orderId,
+                    Order order,
+                    CompletableFuture<OrderResult> result,
+                    Runnable control) {
+
+    static ShardCommand event(SymbolRoute route, OrderEventType type, String orderId, Order order,
+                              CompletableFuture<OrderResult> result) {
+        return new ShardCommand(route, type, orderId, order, result, null);
+    }
+
+    static ShardCommand control(SymbolRoute route, Runnable control) {
+        return new ShardCommand(route, null, null, null, null, control);
+    }
+}
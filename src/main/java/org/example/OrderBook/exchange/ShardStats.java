@@ -0,0 +1,8 @@
+package org.example.OrderBook.exchange;
+
+/**
+ * @param queueDepth commands waiting in the shard's ring right now
+ * @param processed  commands applied since the shard started
+ */
+public record ShardStats(int shard, int symbols, int queueDepth, int queueCapacity, long processed) {
+}
@@ -0,0 +1,44 @@
+package org.example.OrderBook.exchange;
+
+import org.example.OrderBook.ThreadSafeOrderBook;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where one symbol's book currently lives. {@code shard} is null while the symbol is being moved;
+ * producers spin until the old shard has applied everything already sent to it, so no producer
+ * can have two of its own events applied out of order across the hand-over.
+ */
+final class SymbolRoute {
+    final String symbol;
+    final ThreadSafeOrderBook book;
+    volatile Shard shard;
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    // Per-symbol event sequence; only touched by the owning shard thread
+    long sequence;
+
+    SymbolRoute(String symbol, ThreadSafeOrderBook book, Shard shard) {
+        this.symbol = symbol;
+        this.book = book;
+        this.shard = shard;
+        this.sequence = book.recoveredSequence();
+    }
+
+    void dispatch(ShardCommand command) {
+        while (true) {
+            inFlight.incrementAndGet();
+            Shard target = shard;
+            if (target != null) {
+                try {
+                    target.submit(command);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return;
+            }
+            inFlight.decrementAndGet();
+            Thread.onSpinWait(); // Being moved to another shard
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.OrderBook.journal;
+
+import org.example.OrderBook.enums.OrderSide;
+
+import java.util.Arrays;
+
+/**
+ * Every resting order of a book as of one sequence number, level by level (best first on each side) and in
+ * FIFO order within a level. A snapshot is a list of {@link Level}s that are never changed once filled, so a
+ * level untouched since the previous snapshot is shared with it rather than copied again: the matcher only
+ * pays for the levels that changed, while the encoding and I/O happen on the snapshot writer thread.
+ */
+public final class BookSnapshot {
+
+    private final long sequence;
+    private Level[] levels;
+    private int levelCount;
+    private int orderCount;
+
+    /**
+     * The capacity is a sizing hint; the level array grows if more levels are added.
+     */
+    public BookSnapshot(long sequence, int levelCapacity) {
+        this.sequence = sequence;
+        this.levels = new Level[Math.max(1, levelCapacity)];
+    }
+
+    /**
+     * Append the next level; it must already hold all its orders.
+     */
+    public void addLevel(Level level) {
+        if (levelCount == levels.length) {
+            levels = Arrays.copyOf(levels, levelCount * 2);
+        }
+        levels[levelCount++] = level;
+        orderCount += level.orderCount;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public int levelCount() {
+        return levelCount;
+    }
+
+    public Level level(int level) {
+        return levels[level];
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    /**
+     * One price's queue, front to back, as parallel arrays sized for exactly its orders. Filled once by
+     * whoever captures it and only read after that, so it can be handed to another thread and reused by
+     * later snapshots.
+     */
+    public static final class Level {
+
+        private final OrderSide side;
+        private final long priceTicks;
+        private final String[] orderIds;
+        private final long[] remainingLots;
+        private final long[] originalLots;
+        private final long[] timestampNanos;
+        private final long[] displayLots;
+        private final long[] hiddenLots;
+        private int orderCount;
+
+        public Level(OrderSide side, long priceTicks, int orders) {
+            this.side = side;
+            this.priceTicks = priceTicks;
+            this.orderIds = new String[orders];
+            this.remainingLots = new long[orders];
+            this.originalLots = new long[orders];
+            this.timestampNanos = new long[orders];
+            this.displayLots = new long[orders];
+            this.hiddenLots = new long[orders];
+        }
+
+        /**
+         * @param original  the order's size in lots, as submitted (or as last modified in place)
+         * @param timestamp the order's submission time, in nanoseconds since the epoch
+         * @param display   an iceberg's slice size, 0 for an order that shows everything
+         * @param hidden    an iceberg's reserve behind the {@code remaining} lots of its current slice
+         * @throws IllegalStateException if the level already holds as many orders as it was created for
+         */
+        public void addOrder(String orderId, long remaining, long original, long timestamp, long display, long hidden) {
+            if (orderCount == orderIds.length) {
+                throw new IllegalStateException("Level " + priceTicks + " was sized for " + orderIds.length + " orders");
+            }
+            orderIds[orderCount] = orderId;
+            remainingLots[orderCount] = remaining;
+            originalLots[orderCount] = original;
+            timestampNanos[orderCount] = timestamp;
+            displayLots[orderCount] = display;
+            hiddenLots[orderCount] = hidden;
+            orderCount++;
+        }
+
+        public OrderSide side() {
+            return side;
+        }
+
+        public long priceTicks() {
+            return priceTicks;
+        }
+
+        public int orderCount() {
+            return orderCount;
+        }
+
+        public String orderId(int order) {
+            return orderIds[order];
+        }
+
+        public long remainingLots(int order) {
+            return remainingLots[order];
+        }
+
+        public long originalLots(int order) {
+            return originalLots[order];
+        }
+
+        public long timestampNanos(int order) {
+            return timestampNanos[order];
+        }
+
+        public long displayLots(int order) {
+            return displayLots[order];
+        }
+
+        public long hiddenLots(int order) {
+            return hiddenLots[order];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.OrderBook.journal;
+
+import java.nio.file.Path;
+
+/**
+ * Periodic point-in-time copies of a journaled book, so a restart loads the latest one and only replays the
+ * journal from there.
+ *
+ * @param intervalEvents write a snapshot every this many applied events
+ * @param retained       how many of the newest snapshot files to keep
+ */
+public record BookSnapshotConfig(Path directory, int intervalEvents, int retained) {
+
+    public static final int DEFAULT_RETAINED = 2;
+
+    public BookSnapshotConfig {
+        if (directory == null) {
+            throw new IllegalArgumentException("Snapshot directory is required");
+        }
+        if (intervalEvents <= 0 || retained <= 0) {
+            throw new IllegalArgumentException("Snapshot interval and retained count must be positive");
+        }
+    }
+
+    public static BookSnapshotConfig of(Path directory, int intervalEvents) {
+        return new BookSnapshotConfig(directory, intervalEvents, DEFAULT_RETAINED);
+    }
+}
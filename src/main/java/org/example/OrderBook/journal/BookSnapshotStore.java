@@ -0,0 +1,193 @@
+package org.example.OrderBook.journal;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes {@link BookSnapshot} files, named by sequence so the newest sorts last.
+ * <p>
+ * Layout (big-endian): magic, version, sequence, tick and lot size, level and order counts, then per level
+ * side / price in ticks / order count followed by that level's orders (id, remaining lots, original lots,
+ * timestamp in epoch nanos, iceberg display and hidden lots), and a CRC32C of everything before it. Order ids
+ * are an unsigned short length and standard UTF-8, as in the {@link EventJournal}, so any id the journal
+ * accepts can be snapshotted. Files are written under a temporary name, forced, then renamed, so a crash
+ * mid-write never leaves a half snapshot under a real name.
+ */
+public final class BookSnapshotStore {
+
+    private static final int MAGIC = 0x4F42534E; // "OBSN"
+    private static final short VERSION = 4;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snapshot";
+    private static final OrderSide[] SIDES = OrderSide.values();
+    // Smallest possible encodings, to reject corrupt counts before allocating for them
+    private static final int MIN_LEVEL_BYTES = 13;
+    private static final int MIN_ORDER_BYTES = 42;
+
+    private final Path directory;
+    private final int retained;
+    private final InstrumentSpec instrument;
+
+    public BookSnapshotStore(BookSnapshotConfig config, InstrumentSpec instrument) throws IOException {
+        this.directory = config.directory();
+        this.retained = config.retained();
+        this.instrument = instrument;
+        Files.createDirectories(directory);
+    }
+
+    public Path write(BookSnapshot snapshot) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.sequence(), SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(snapshot.sequence());
+            out.writeUTF(instrument.tickSize().toPlainString());
+            out.writeUTF(instrument.lotSize().toPlainString());
+            out.writeInt(snapshot.levelCount());
+            out.writeInt(snapshot.orderCount());
+
+            for (int i = 0; i < snapshot.levelCount(); i++) {
+                BookSnapshot.Level level = snapshot.level(i);
+                out.writeByte(level.side().ordinal());
+                out.writeLong(level.priceTicks());
+                out.writeInt(level.orderCount());
+                for (int order = 0; order < level.orderCount(); order++) {
+                    byte[] id = EventJournal.encodeId(level.orderId(order));
+                    out.writeShort(id.length);
+                    out.write(id);
+                    out.writeLong(level.remainingLots(order));
+                    out.writeLong(level.originalLots(order));
+                    out.writeLong(level.timestampNanos(order));
+                    out.writeLong(level.displayLots(order));
+                    out.writeLong(level.hiddenLots(order));
+                }
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        prune();
+        return target;
+    }
+
+    /**
+     * The newest snapshot that reads back intact, or null if there is none. A corrupt newest file (e.g. the
+     * disk lied about the force) falls back to the one before it.
+     */
+    public BookSnapshot loadLatest() throws IOException {
+        List<Path> files = snapshotFiles();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            try {
+                return read(files.get(i));
+            } catch (IllegalStateException e) {
+                throw e; // Wrong instrument: an older file will not be any better
+            } catch (IOException | RuntimeException e) {
+                // Damaged - try the previous one
+            }
+        }
+        return null;
+    }
+
+    private BookSnapshot read(Path path) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), new CRC32C())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException(path + " is not a book snapshot");
+            }
+            long sequence = in.readLong();
+            String tickSize = in.readUTF();
+            String lotSize = in.readUTF();
+            if (!tickSize.equals(instrument.tickSize().toPlainString()) || !lotSize.equals(instrument.lotSize().toPlainString())) {
+                throw new IllegalStateException(path + " was written with tick " + tickSize + " / lot " + lotSize
+                        + " but the instrument now uses " + instrument.tickSize() + " / " + instrument.lotSize());
+            }
+            int levelCount = in.readInt();
+            int orderCount = in.readInt();
+            long fileBytes = Files.size(path);
+            if (levelCount < 0 || orderCount < 0
+                    || (long) levelCount * MIN_LEVEL_BYTES + (long) orderCount * MIN_ORDER_BYTES > fileBytes) {
+                throw new IOException(path + " has impossible level/order counts");
+            }
+
+            BookSnapshot snapshot = new BookSnapshot(sequence, levelCount);
+            int ordersLeft = orderCount;
+            for (int i = 0; i < levelCount; i++) {
+                OrderSide side = SIDES[in.readByte()];
+                long priceTicks = in.readLong();
+                int count = in.readInt();
+                if (count < 0 || count > ordersLeft) {
+                    throw new IOException(path + " has more orders in its levels than in its header");
+                }
+                ordersLeft -= count;
+                BookSnapshot.Level level = new BookSnapshot.Level(side, priceTicks, count);
+                for (int order = 0; order < count; order++) {
+                    byte[] id = new byte[in.readUnsignedShort()];
+                    in.readFully(id);
+                    level.addOrder(EventJournal.decodeId(id), in.readLong(), in.readLong(), in.readLong(),
+                            in.readLong(), in.readLong());
+                }
+                snapshot.addLevel(level);
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new IOException(path + " failed its checksum");
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Sequence of the oldest snapshot kept, or 0 if there is none. loadLatest can fall back as far as this one,
+     * so the journal must still hold every event after it.
+     */
+    public long oldestSequence() throws IOException {
+        List<Path> files = snapshotFiles();
+        if (files.isEmpty()) {
+            return 0;
+        }
+        String name = files.get(0).getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = snapshotFiles();
+        for (int i = 0; i < files.size() - retained; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(files::add);
+        }
+        // Zero-padded sequence numbers sort by name
+        files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+        return files;
+    }
+}
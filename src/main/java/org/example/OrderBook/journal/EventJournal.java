@@ -0,0 +1,519 @@
+package org.example.OrderBook.journal;
+
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.enums.OrderType;
+import org.example.OrderBook.enums.TimeInForce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of {@link OrderEvent}s in memory-mapped segment files.
+ * <p>
+ * An append is a handful of absolute puts into the mapped segment plus a CRC, with no system call. A flusher
+ * thread forces the dirty pages every {@link JournalConfig#flushIntervalMicros()}, so one force() covers every
+ * event appended in that interval (group commit). It also maps and pre-faults the next segment ahead of time.
+ * Appends must come from a single thread, the book's writer.
+ * <p>
+ * Record layout (big-endian, padded to 8 bytes):
+ * <pre>
+ *    0 int   record length (0 = nothing written yet, -1 = rest of the segment unused)
+ *    4 int   CRC32C of bytes 8 .. length
+ *    8 long  sequence
+ *   16 long  order timestamp, epoch nanos
+ *   24 long  price, unscaled          32 long  quantity, unscaled       40 long  remaining quantity, unscaled
+ *   48 byte  event type               49 byte  order flags (0 = no order, see below)
+ *   50 byte  price scale              51 byte  quantity scale           52 byte  remaining scale
+ *   53 byte  display quantity scale   54 short order id length
+ *   56 long  iceberg display quantity, unscaled                         64 ...   order id, UTF-8
+ * </pre>
+ * The order flags are the side + 1 in bits 0-1, then market (bit 2), time in force (bits 3-4), post-only
+ * (bit 5) and iceberg (bit 6). A market order's price is not written.
+ * <p>
+ * On open the journal ends at the first record that is missing or fails its CRC, i.e. the torn tail of a crash.
+ * Anything after it is wiped so it can never be mistaken for data later. That scan also notes the first and last
+ * sequence of every segment, so {@link #replay} skips the segments a snapshot already covers and
+ * {@link #discardThrough} can delete them once that snapshot is durable.
+ */
+public final class EventJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 64;
+    private static final int SIDE_MASK = 0x3;
+    private static final int MARKET = 1 << 2;
+    private static final int TIME_IN_FORCE_SHIFT = 3;
+    private static final int POST_ONLY = 1 << 5;
+    private static final int ICEBERG = 1 << 6;
+    private static final int MAX_ID_BYTES = 0xFFFF;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int PAGE_BYTES = 4096;
+    private static final OrderEventType[] EVENT_TYPES = OrderEventType.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final TimeInForce[] TIMES_IN_FORCE = TimeInForce.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+
+    // Writer state - only the appending thread touches these
+    private MappedByteBuffer segment;
+    private ByteBuffer crcView;
+    private final CRC32C crc = new CRC32C();
+    private int segmentIndex;
+    private int offset;
+    private long lastSequence;
+    private long segmentFirstSequence;
+
+    // Every segment before the current one, oldest first; the writer adds one on each roll and
+    // discardThrough takes them off the front, possibly on another thread
+    private final ConcurrentLinkedDeque<Segment> closedSegments = new ConcurrentLinkedDeque<>();
+
+    // Shared with the flusher
+    private final AtomicLong appendedPosition = new AtomicLong();
+    private final AtomicReference<MappedByteBuffer> currentSegment = new AtomicReference<>();
+    private volatile int currentIndex;
+    // Next segment, mapped and faulted in by the flusher so a roll costs the writer nothing
+    private final AtomicReference<MappedByteBuffer> preparedSegment = new AtomicReference<>();
+    private volatile IOException prepareFailure;
+    private final ConcurrentLinkedQueue<MappedByteBuffer> retiredSegments = new ConcurrentLinkedQueue<>();
+    private volatile long flushedPosition;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    public EventJournal(JournalConfig config) throws IOException {
+        this.directory = config.directory();
+        this.segmentBytes = config.segmentBytes();
+        this.flushIntervalNanos = config.flushIntervalMicros() * 1_000;
+        Files.createDirectories(directory);
+        recover();
+
+        if (flushIntervalNanos > 0) {
+            this.flusher = new Thread(this::runFlusher, "journal-flusher-" + directory.getFileName());
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Sequence of the last event in the journal.
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Feed every journaled event with a sequence above {@code afterSequence} to the consumer, oldest first.
+     * Segments whose events are all at or below it are not read. Call it from the writer, before appending.
+     *
+     * @return the sequence of the last event in the journal
+     * @throws IOException if the events just after {@code afterSequence} have already been discarded
+     */
+    public long replay(long afterSequence, Consumer<OrderEvent> consumer) throws IOException {
+        Segment oldest = closedSegments.peekFirst();
+        long firstKept = oldest != null ? oldest.firstSequence() : offset > 0 ? segmentFirstSequence : afterSequence + 1;
+        if (firstKept > afterSequence + 1) {
+            throw new IOException("The journal starts at sequence " + firstKept + ", events after " + afterSequence
+                    + " were discarded");
+        }
+        for (Segment closed : closedSegments) {
+            if (closed.lastSequence() > afterSequence) {
+                try (FileChannel channel = FileChannel.open(segmentPath(closed.index()), StandardOpenOption.READ)) {
+                    replaySegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentBytes), segmentBytes,
+                            afterSequence, consumer);
+                }
+            }
+        }
+        if (offset > 0 && lastSequence > afterSequence) {
+            replaySegment(segment, offset, afterSequence, consumer);
+        }
+        return lastSequence;
+    }
+
+    // Every record up to end passed its CRC when the journal was opened, so it is not checked again
+    private static void replaySegment(ByteBuffer buffer, int end, long afterSequence, Consumer<OrderEvent> consumer) {
+        int at = 0;
+        int length;
+        while (at < end && (length = buffer.getInt(at)) != END_OF_SEGMENT) {
+            if (buffer.getLong(at + 8) > afterSequence) {
+                consumer.accept(decode(buffer, at));
+            }
+            at += length;
+        }
+    }
+
+    /**
+     * Delete the segments whose events are all at or below {@code sequence}; call it once a durable book
+     * snapshot covers that sequence. The segment being written is always kept. Safe from any thread.
+     */
+    public void discardThrough(long sequence) throws IOException {
+        Segment oldest;
+        while ((oldest = closedSegments.peekFirst()) != null && oldest.lastSequence() <= sequence) {
+            Files.deleteIfExists(segmentPath(oldest.index()));
+            closedSegments.pollFirst();
+        }
+    }
+
+    /**
+     * Write the event at the tail of the journal. Durable once the flusher's next force() has run.
+     */
+    public void append(OrderEvent event) {
+        String id = event.orderId();
+        byte[] utf8 = isAscii(id) ? null : encodeId(id);
+        int idBytes = utf8 == null ? id.length() : utf8.length;
+        if (idBytes > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Order id is longer than " + MAX_ID_BYTES + " bytes");
+        }
+        int length = align(HEADER_BYTES + idBytes);
+        if (offset + length + Integer.BYTES > segmentBytes) {
+            roll();
+        }
+
+        MappedByteBuffer buffer = segment;
+        int at = offset;
+        if (at == 0) {
+            segmentFirstSequence = event.sequence();
+        }
+        buffer.putLong(at + 8, event.sequence());
+        buffer.put(at + 48, (byte) event.type().ordinal());
+        Order order = event.order();
+        if (order != null) {
+            Instant timestamp = order.timestamp();
+            buffer.putLong(at + 16, timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano());
+            int flags = (order.getSide().ordinal() + 1) | (order.timeInForce().ordinal() << TIME_IN_FORCE_SHIFT);
+            if (order.type() == OrderType.MARKET) {
+                flags |= MARKET;
+            } else {
+                putDecimal(buffer, at + 24, at + 50, order.getPrice());
+            }
+            putDecimal(buffer, at + 32, at + 51, order.quantity());
+            putDecimal(buffer, at + 40, at + 52, order.getRemainingQuantity());
+            if (order.postOnly()) {
+                flags |= POST_ONLY;
+            }
+            if (order.displayQuantity() != null) {
+                flags |= ICEBERG;
+                putDecimal(buffer, at + 56, at + 53, order.displayQuantity());
+            }
+            buffer.put(at + 49, (byte) flags);
+        }
+        buffer.putShort(at + 54, (short) idBytes);
+        if (utf8 == null) {
+            for (int i = 0; i < idBytes; i++) {
+                buffer.put(at + HEADER_BYTES + i, (byte) id.charAt(i));
+            }
+        } else {
+            buffer.put(at + HEADER_BYTES, utf8);
+        }
+
+        crc.reset();
+        crcView.limit(at + length).position(at + 8);
+        crc.update(crcView);
+        buffer.putInt(at + 4, (int) crc.getValue());
+        // Length goes last: a record is only visible once it is complete
+        buffer.putInt(at, length);
+
+        offset = at + length;
+        lastSequence = event.sequence();
+        appendedPosition.lazySet((long) segmentIndex * segmentBytes + offset);
+    }
+
+    /**
+     * Stop the flusher and force everything appended so far. The writer must have stopped appending.
+     * An interrupt does not cut this short (the flusher is at most one interval from exiting); it is
+     * restored on return.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            // The final force must not run alongside the flusher's
+            boolean interrupted = false;
+            while (flusher.isAlive()) {
+                try {
+                    flusher.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            if (preparedSegment.get() == null && prepareFailure == null) {
+                prepareNextSegment();
+            }
+            LockSupport.parkNanos(flushIntervalNanos);
+            flush();
+        }
+    }
+
+    private void prepareNextSegment() {
+        try {
+            MappedByteBuffer next = mapSegment(currentIndex + 1);
+            // Touch every page now rather than taking the faults on the writer's first pass
+            for (int i = 0; i < segmentBytes; i += PAGE_BYTES) {
+                next.put(i, (byte) 0);
+            }
+            preparedSegment.set(next);
+        } catch (IOException e) {
+            prepareFailure = e;
+        }
+    }
+
+    private void flush() {
+        long target = appendedPosition.get();
+        if (target == flushedPosition) {
+            return;
+        }
+        // Read the current segment before draining retired ones: a roll retires the old segment first
+        MappedByteBuffer current = currentSegment.get();
+        MappedByteBuffer retired;
+        while ((retired = retiredSegments.poll()) != null) {
+            retired.force();
+        }
+        current.force();
+        flushedPosition = target;
+    }
+
+    private void roll() {
+        segment.putInt(offset, END_OF_SEGMENT);
+        retiredSegments.add(segment);
+        closedSegments.addLast(new Segment(segmentIndex, segmentFirstSequence, lastSequence));
+
+        MappedByteBuffer next;
+        if (flusher == null) {
+            try {
+                next = mapSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map journal segment " + (segmentIndex + 1), e);
+            }
+        } else {
+            // Only waits if the writer filled a whole segment faster than the flusher could map one
+            while ((next = preparedSegment.get()) == null) {
+                if (prepareFailure != null) {
+                    throw new UncheckedIOException("Could not map journal segment " + (segmentIndex + 1), prepareFailure);
+                }
+                LockSupport.unpark(flusher);
+                Thread.onSpinWait();
+            }
+        }
+        useSegment(segmentIndex + 1, next);
+        // Publish the new index before asking for the segment after it
+        preparedSegment.set(null);
+        offset = 0;
+    }
+
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private void useSegment(int index, MappedByteBuffer buffer) {
+        segment = buffer;
+        crcView = buffer.duplicate();
+        segmentIndex = index;
+        currentIndex = index;
+        currentSegment.set(buffer);
+    }
+
+    private void recover() throws IOException {
+        long end = scan();
+        int endSegment = (int) (end / segmentBytes);
+        int endOffset = (int) (end % segmentBytes);
+
+        // Segments after a torn record hold nothing that can be trusted
+        for (int index : segmentIndexes()) {
+            if (index > endSegment) {
+                Files.delete(segmentPath(index));
+            }
+        }
+
+        useSegment(endSegment, mapSegment(endSegment));
+        // Wipe whatever a crash left past the tail; this also faults in the pages the writer is about to use
+        int i = endOffset;
+        for (; i + Long.BYTES <= segmentBytes; i += Long.BYTES) {
+            segment.putLong(i, 0);
+        }
+        for (; i < segmentBytes; i++) {
+            segment.put(i, (byte) 0);
+        }
+        offset = endOffset;
+        appendedPosition.set(end);
+        flushedPosition = end;
+    }
+
+    /**
+     * Walk the journal up to the first missing or corrupt record, noting each closed segment's sequences and
+     * the current one's first. Returns the position just past the last good record.
+     */
+    private long scan() throws IOException {
+        List<Integer> indexes = segmentIndexes();
+        CRC32C check = new CRC32C();
+        // Segments before the oldest one kept were discarded behind a snapshot
+        int first = indexes.isEmpty() ? 0 : indexes.get(0);
+        long sequence = 0;
+        long end = (long) first * segmentBytes;
+        // Segments must run on from there without a gap - a gap ends the journal
+        for (int index = first; index - first < indexes.size() && indexes.get(index - first) == index; index++) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+                if (channel.size() < segmentBytes) {
+                    break;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentBytes);
+            }
+
+            int at = 0;
+            int length;
+            long firstSequence = sequence + 1;
+            while ((length = buffer.getInt(at)) != END_OF_SEGMENT && isValid(buffer, at, length, check)) {
+                sequence = buffer.getLong(at + 8);
+                if (at == 0) {
+                    firstSequence = sequence;
+                }
+                at += length;
+            }
+            if (length != END_OF_SEGMENT) {
+                end = (long) index * segmentBytes + at;
+                segmentFirstSequence = firstSequence;
+                break;
+            }
+            // Segment was closed off: the next record starts the next segment, whether or not it exists yet
+            closedSegments.addLast(new Segment(index, firstSequence, sequence));
+            end = (long) (index + 1) * segmentBytes;
+        }
+        lastSequence = sequence;
+        return end;
+    }
+
+    private boolean isValid(ByteBuffer buffer, int at, int length, CRC32C check) {
+        if (length < HEADER_BYTES || (length & 7) != 0 || at + length + Integer.BYTES > segmentBytes) {
+            return false;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.limit(at + length).position(at + 8);
+        check.reset();
+        check.update(body);
+        return (int) check.getValue() == buffer.getInt(at + 4);
+    }
+
+    private static OrderEvent decode(ByteBuffer buffer, int at) {
+        long sequence = buffer.getLong(at + 8);
+        OrderEventType type = EVENT_TYPES[buffer.get(at + 48)];
+        byte[] id = new byte[Short.toUnsignedInt(buffer.getShort(at + 54))];
+        buffer.get(at + HEADER_BYTES, id);
+        String orderId = decodeId(id);
+
+        int flags = buffer.get(at + 49);
+        if (flags == 0) {
+            return new OrderEvent(type, orderId, null, sequence);
+        }
+        long timestamp = buffer.getLong(at + 16);
+        boolean market = (flags & MARKET) != 0;
+        BigDecimal quantity = BigDecimal.valueOf(buffer.getLong(at + 32), buffer.get(at + 51));
+        Order order = new Order(orderId, SIDES[(flags & SIDE_MASK) - 1],
+                market ? null : BigDecimal.valueOf(buffer.getLong(at + 24), buffer.get(at + 50)),
+                quantity,
+                new AtomicReference<>(BigDecimal.valueOf(buffer.getLong(at + 40), buffer.get(at + 52))),
+                Instant.ofEpochSecond(Math.floorDiv(timestamp, 1_000_000_000L), Math.floorMod(timestamp, 1_000_000_000L)),
+                market ? OrderType.MARKET : OrderType.LIMIT,
+                TIMES_IN_FORCE[(flags >> TIME_IN_FORCE_SHIFT) & 0x3],
+                (flags & POST_ONLY) != 0,
+                (flags & ICEBERG) == 0 ? null : BigDecimal.valueOf(buffer.getLong(at + 56), buffer.get(at + 53)));
+        return new OrderEvent(type, orderId, order, sequence);
+    }
+
+    private static void putDecimal(ByteBuffer buffer, int valueAt, int scaleAt, BigDecimal value) {
+        int scale = value.scale();
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+            throw new ArithmeticException("Scale of " + value + " does not fit the journal encoding");
+        }
+        buffer.putLong(valueAt, value.unscaledValue().longValueExact());
+        buffer.put(scaleAt, (byte) scale);
+    }
+
+    /**
+     * An order id as the journal stores it: standard UTF-8, at most {@value #MAX_ID_BYTES} bytes so its length
+     * fits an unsigned short. Book snapshots store ids the same way, so both accept exactly the same ids.
+     */
+    static byte[] encodeId(String id) {
+        byte[] utf8 = id.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Order id is longer than " + MAX_ID_BYTES + " bytes");
+        }
+        return utf8;
+    }
+
+    static String decodeId(byte[] utf8) {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isAscii(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private record Segment(int index, long firstSequence, long lastSequence) {
+    }
+
+    private List<Integer> segmentIndexes() throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> indexes.add(Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+}
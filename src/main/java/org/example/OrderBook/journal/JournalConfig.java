@@ -0,0 +1,35 @@
+package org.example.OrderBook.journal;
+
+import java.nio.file.Path;
+
+/**
+ * Where and how a book journals its events.
+ *
+ * @param segmentBytes        size of each memory-mapped segment file; a new one is started when the current one is full
+ * @param flushIntervalMicros how often the flusher thread forces written pages to disk. Every event appended within
+ *                            one interval shares a single force() (group commit); 0 forces only on close
+ */
+public record JournalConfig(Path directory, int segmentBytes, long flushIntervalMicros) {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MICROS = 1_000;
+
+    // Room for the largest possible record (a 64 KB order id) plus the end-of-segment marker
+    static final int MIN_SEGMENT_BYTES = 1 << 17;
+
+    public JournalConfig {
+        if (directory == null) {
+            throw new IllegalArgumentException("Journal directory is required");
+        }
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Journal segments must be at least " + MIN_SEGMENT_BYTES + " bytes");
+        }
+        if (flushIntervalMicros < 0) {
+            throw new IllegalArgumentException("Flush interval must not be negative");
+        }
+    }
+
+    public static JournalConfig of(Path directory) {
+        return new JournalConfig(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_INTERVAL_MICROS);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.entities.FlowEvent;
+
+/**
+ * Adapter between a flow and one matching engine. {@link #submit} applies an event synchronously, returning
+ * once the engine has fully processed it, so the replayer can time each event end to end.
+ */
+public interface EngineTarget extends AutoCloseable {
+
+    enum Outcome {
+        ACCEPTED,
+        // The engine processed the event but refused it, e.g. cancelling an order that has already filled
+        REJECTED,
+        // The engine has no equivalent operation; the event is skipped and not timed
+        UNSUPPORTED
+    }
+
+    String name();
+
+    Outcome submit(FlowEvent event);
+
+    @Override
+    default void close() {
+    }
+}
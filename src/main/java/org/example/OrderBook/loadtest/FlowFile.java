@@ -0,0 +1,82 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.enums.FlowEventType;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded flows as CSV, one event per line: {@code timestampNanos,type,orderId,side,price,quantity}.
+ * Cancels leave the last three fields empty. Lines starting with '#' are comments.
+ */
+public final class FlowFile {
+
+    private static final String HEADER = "# timestampNanos,type,orderId,side,price,quantity";
+
+    private FlowFile() {
+    }
+
+    public static void write(Path path, List<FlowEvent> events) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (FlowEvent event : events) {
+                out.write(Long.toString(event.timestampNanos()));
+                out.write(',');
+                out.write(event.type().name());
+                out.write(',');
+                out.write(event.orderId());
+                out.write(',');
+                if (event.side() != null) {
+                    out.write(event.side().name());
+                    out.write(',');
+                    out.write(event.price().toPlainString());
+                    out.write(',');
+                    out.write(event.quantity().toPlainString());
+                } else {
+                    out.write(",,");
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    public static List<FlowEvent> read(Path path) throws IOException {
+        List<FlowEvent> events = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                events.add(parse(line, lineNumber));
+            }
+        }
+        return events;
+    }
+
+    private static FlowEvent parse(String line, int lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected 6 fields but found " + fields.length);
+        }
+        long timestamp = Long.parseLong(fields[0]);
+        FlowEventType type = FlowEventType.valueOf(fields[1]);
+        if (type == FlowEventType.CANCEL) {
+            return FlowEvent.cancel(timestamp, fields[2]);
+        }
+        return new FlowEvent(timestamp, type, fields[2], OrderSide.valueOf(fields[3]),
+                new BigDecimal(fields[4]), new BigDecimal(fields[5]));
+    }
+}
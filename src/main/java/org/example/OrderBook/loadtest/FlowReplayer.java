@@ -0,0 +1,87 @@
+package org.example.OrderBook.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.example.OrderBook.entities.FlowEvent;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a flow against an {@link EngineTarget} from a single driver thread, either at a multiple of the
+ * recorded pace (open loop) or as fast as the engine will take it.
+ * <p>
+ * When paced, each event's latency is taken from the time it was scheduled to arrive rather than the time the
+ * driver got round to sending it. If the engine stalls, the events that should have arrived during the stall
+ * are charged for the wait, instead of the driver quietly slowing down with the engine.
+ */
+public class FlowReplayer {
+
+    // Park rather than spin when the next event is further away than this
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final EngineTarget target;
+    private final double speed;
+
+    /**
+     * @param speed multiple of the recorded pace (1 = real time); 0 replays at maximum speed
+     */
+    public FlowReplayer(EngineTarget target, double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Speed must not be negative");
+        }
+        this.target = target;
+        this.speed = speed;
+    }
+
+    public static FlowReplayer maxSpeed(EngineTarget target) {
+        return new FlowReplayer(target, 0);
+    }
+
+    public LoadReport replay(List<FlowEvent> events) {
+        Histogram responseTime = new Histogram(SIGNIFICANT_DIGITS);
+        Histogram serviceTime = new Histogram(SIGNIFICANT_DIGITS);
+        long submitted = 0;
+        long rejected = 0;
+        long unsupported = 0;
+
+        long firstTimestamp = events.isEmpty() ? 0 : events.get(0).timestampNanos();
+        long start = System.nanoTime();
+        for (FlowEvent event : events) {
+            long sendAt = System.nanoTime();
+            long intended = sendAt;
+            if (speed > 0) {
+                intended = start + (long) ((event.timestampNanos() - firstTimestamp) / speed);
+                sendAt = waitUntil(intended);
+            }
+
+            EngineTarget.Outcome outcome = target.submit(event);
+            long done = System.nanoTime();
+            if (outcome == EngineTarget.Outcome.UNSUPPORTED) {
+                unsupported++;
+                continue;
+            }
+            if (outcome == EngineTarget.Outcome.REJECTED) {
+                rejected++;
+            }
+            submitted++;
+            responseTime.recordValue(done - intended);
+            serviceTime.recordValue(done - sendAt);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(target.name(), submitted, rejected, unsupported, elapsed, responseTime, serviceTime);
+    }
+
+    private static long waitUntil(long deadline) {
+        long now = System.nanoTime();
+        while (now < deadline) {
+            if (deadline - now > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(deadline - now - SPIN_THRESHOLD_NANOS / 2);
+            } else {
+                Thread.onSpinWait();
+            }
+            now = System.nanoTime();
+        }
+        return now;
+    }
+}
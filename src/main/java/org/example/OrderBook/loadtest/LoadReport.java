@@ -0,0 +1,44 @@
+package org.example.OrderBook.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+
+/**
+ * Outcome of one replay.
+ *
+ * @param responseTime latency measured from each event's scheduled arrival, so a stall also counts against every
+ *                     event that queued up behind it (coordinated-omission corrected). Same as serviceTime at max speed.
+ * @param serviceTime  latency measured from the moment the event was actually submitted
+ */
+public record LoadReport(String engine,
+                         long submitted,
+                         long rejected,
+                         long unsupported,
+                         long elapsedNanos,
+                         Histogram responseTime,
+                         Histogram serviceTime) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : submitted * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%s: %,d events in %.3f s = %,.0f events/s (%,d rejected, %,d unsupported and skipped)%n",
+                engine, submitted, elapsedNanos / 1e9, throughputPerSecond(), rejected, unsupported);
+        printLatency(out, "response", responseTime);
+        printLatency(out, "service ", serviceTime);
+    }
+
+    private static void printLatency(PrintStream out, String label, Histogram histogram) {
+        StringBuilder line = new StringBuilder("  ").append(label).append(" us:");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            line.append(String.format("  %s=%.1f", PERCENTILE_LABELS[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0));
+        }
+        line.append(String.format("  max=%.1f", histogram.getMaxValue() / 1000.0));
+        out.println(line);
+    }
+}
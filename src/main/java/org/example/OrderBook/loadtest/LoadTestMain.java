@@ -0,0 +1,138 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.ExecutionConfig;
+import org.example.OrderBook.OffHeapConfig;
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.BookSideType;
+import org.example.OrderBook.enums.ExecutorType;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderIndexType;
+import org.example.OrderBook.enums.RejectionPolicy;
+import org.example.OrderBook.metrics.MetricsConfig;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line load test. Arguments are key=value pairs, all optional:
+ * <pre>
+ *   engine=book|trading        which engine to drive (default book)
+ *   mode=SEQUENCED             matching mode for engine=book
+ *   bookSide=SKIP_LIST         book side for engine=book
+ *   orderIndex=HASH_MAP        order index for engine=book (PRIMITIVE needs a single-writer mode)
+ *   offHeap=direct|file.slots  keep resting orders off-heap, in direct memory or a mapped scratch file
+ *   metrics=5                  dump the book's stage latencies and counters every this many seconds (and over JMX)
+ *   executor=BOUNDED_POOL threads=4 queue=8192 rejection=BLOCK
+ *                              where mode=CONCURRENT runs its events (defaults as ExecutionConfig.defaults())
+ *   replay=flow.csv            replay a recorded flow instead of generating one
+ *   record=flow.csv            save the generated flow before running it
+ *   seed=1 events=100000 rate=10000 mix=60/30/5/5 depth=50 lots=10 move=0.05
+ *                              generator settings (mix is limit/cancel/market/modify)
+ *   speed=1|max                multiple of the recorded pace, or as fast as possible (default 1)
+ *   warmup=20000               events from a separate seed run first and left out of the report
+ * </pre>
+ * e.g. {@code java ... LoadTestMain engine=book mode=SEQUENCED rate=50000 events=1000000 speed=1}
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+
+        InstrumentSpec instrument = new InstrumentSpec("LOAD", new BigDecimal("0.01"), BigDecimal.ONE);
+        OrderFlowConfig flowConfig = flowConfig(instrument, options).build();
+        List<FlowEvent> events;
+        if (options.containsKey("replay")) {
+            events = FlowFile.read(Path.of(options.get("replay")));
+        } else {
+            events = new OrderFlowGenerator(flowConfig).generate();
+            if (options.containsKey("record")) {
+                FlowFile.write(Path.of(options.get("record")), events);
+            }
+        }
+
+        String speedOption = options.getOrDefault("speed", "1");
+        double speed = speedOption.equals("max") ? 0 : Double.parseDouble(speedOption);
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "20000"));
+
+        try (EngineTarget target = createTarget(instrument, options)) {
+            if (warmup > 0) {
+                OrderFlowConfig warmupConfig = flowConfig(instrument, options)
+                        .seed(flowConfig.seed() ^ 0x5DEECE66DL)
+                        .eventCount(warmup)
+                        .build();
+                List<FlowEvent> warmupEvents = new OrderFlowGenerator(warmupConfig).generate();
+                // Warm-up ids must not collide with the measured flow's
+                warmupEvents.replaceAll(event -> new FlowEvent(event.timestampNanos(), event.type(), "w" + event.orderId(),
+                        event.side(), event.price(), event.quantity()));
+                FlowReplayer.maxSpeed(target).replay(warmupEvents);
+            }
+            System.out.printf("Replaying %,d events at %s%n", events.size(), speed == 0 ? "max speed" : speed + "x");
+            new FlowReplayer(target, speed).replay(events).print(System.out);
+        }
+    }
+
+    private static OrderFlowConfig.Builder flowConfig(InstrumentSpec instrument, Map<String, String> options) {
+        String[] mix = options.getOrDefault("mix", "60/30/5/5").split("/");
+        if (mix.length != 4) {
+            throw new IllegalArgumentException("mix is limit/cancel/market/modify, e.g. 60/30/5/5");
+        }
+        return OrderFlowConfig.builder(instrument)
+                .seed(Long.parseLong(options.getOrDefault("seed", "1")))
+                .eventCount(Integer.parseInt(options.getOrDefault("events", "100000")))
+                .eventsPerSecond(Double.parseDouble(options.getOrDefault("rate", "10000")))
+                .maxDepthTicks(Integer.parseInt(options.getOrDefault("depth", "50")))
+                .maxLots(Integer.parseInt(options.getOrDefault("lots", "10")))
+                .midMoveProbability(Double.parseDouble(options.getOrDefault("move", "0.05")))
+                .mix(Double.parseDouble(mix[0]), Double.parseDouble(mix[1]), Double.parseDouble(mix[2]), Double.parseDouble(mix[3]));
+    }
+
+    private static ExecutionConfig executionConfig(Map<String, String> options) {
+        ExecutionConfig defaults = ExecutionConfig.defaults();
+        ExecutorType type = ExecutorType.valueOf(options.getOrDefault("executor", defaults.type().name()));
+        return new ExecutionConfig(type,
+                type == ExecutorType.PINNED_THREAD ? 1 : Integer.parseInt(options.getOrDefault("threads", String.valueOf(defaults.threads()))),
+                Integer.parseInt(options.getOrDefault("queue", String.valueOf(defaults.queueCapacity()))),
+                RejectionPolicy.valueOf(options.getOrDefault("rejection", defaults.rejection().name())));
+    }
+
+    private static EngineTarget createTarget(InstrumentSpec instrument, Map<String, String> options) {
+        String engine = options.getOrDefault("engine", "book");
+        return switch (engine) {
+            case "book" -> {
+                MatchingMode mode = MatchingMode.valueOf(options.getOrDefault("mode", "SEQUENCED"));
+                OrderBookConfig.Builder config = OrderBookConfig.builder(instrument)
+                        .matchingMode(mode)
+                        .bookSide(BookSideType.valueOf(options.getOrDefault("bookSide", "SKIP_LIST")))
+                        .execution(mode == MatchingMode.CONCURRENT ? executionConfig(options) : null);
+                if (OrderIndexType.valueOf(options.getOrDefault("orderIndex", "HASH_MAP")) == OrderIndexType.PRIMITIVE) {
+                    config.primitiveOrderIndex(1 << 16);
+                }
+                String metrics = options.get("metrics");
+                if (metrics != null) {
+                    config.metrics(MetricsConfig.dumpEvery(Duration.ofSeconds(Long.parseLong(metrics)), System.out));
+                }
+                String offHeap = options.get("offHeap");
+                if (offHeap != null) {
+                    config.offHeapOrders(offHeap.equals("direct") ? OffHeapConfig.direct() : OffHeapConfig.mapped(Path.of(offHeap)),
+                            1 << 16);
+                }
+                yield new OrderBookTarget(config.build(), marketData -> { });
+            }
+            case "trading" -> new TradingEngineTarget(instrument.symbol());
+            default -> throw new IllegalArgumentException("Unknown engine " + engine + " (book or trading)");
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.marketdata.MarketDataPublisher;
+
+/**
+ * Drives a {@link ThreadSafeOrderBook}. MARKET events go in as market orders, so the book cancels any
+ * remainder itself within the same event.
+ */
+public class OrderBookTarget implements EngineTarget {
+
+    private final ThreadSafeOrderBook book;
+    private final String name;
+
+    public OrderBookTarget(OrderBookConfig config, MarketDataPublisher publisher) {
+        this.book = new ThreadSafeOrderBook(config, publisher);
+        this.name = "ThreadSafeOrderBook/" + config.matchingMode() + "/" + config.bookSide();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Outcome submit(FlowEvent event) {
+        OrderResult result = switch (event.type()) {
+            case LIMIT -> book.addOrder(toOrder(event)).join();
+            case MARKET -> book.addOrder(Order.market(event.orderId(), event.side(), event.quantity())).join();
+            case CANCEL -> book.cancelOrder(event.orderId()).join();
+            case MODIFY -> book.modifyOrder(toOrder(event)).join();
+        };
+        return result.success() ? Outcome.ACCEPTED : Outcome.REJECTED;
+    }
+
+    private static Order toOrder(FlowEvent event) {
+        return new Order(event.orderId(), event.side(), event.price(), event.quantity());
+    }
+
+    @Override
+    public void close() {
+        book.close();
+    }
+}
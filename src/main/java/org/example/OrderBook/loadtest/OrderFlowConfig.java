@@ -0,0 +1,117 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.entities.InstrumentSpec;
+
+import java.math.BigDecimal;
+
+/**
+ * Shape of the flow produced by {@link OrderFlowGenerator}. The same config and seed always give the same flow.
+ *
+ * @param eventsPerSecond    mean Poisson arrival rate
+ * @param midMoveProbability chance that the mid steps one tick (up or down) before each event
+ * @param maxDepthTicks      limit orders rest up to this many ticks from the mid; market orders sweep this far
+ * @param maxLots            order quantities are uniform in [1, maxLots] lots
+ * @param limitWeight        relative weights of the four event types; they need not add up to anything
+ */
+public record OrderFlowConfig(InstrumentSpec instrument,
+                              long seed,
+                              int eventCount,
+                              double eventsPerSecond,
+                              BigDecimal initialMid,
+                              double midMoveProbability,
+                              int maxDepthTicks,
+                              int maxLots,
+                              double limitWeight,
+                              double cancelWeight,
+                              double marketWeight,
+                              double modifyWeight) {
+
+    public OrderFlowConfig {
+        if (eventCount < 0 || eventsPerSecond <= 0) {
+            throw new IllegalArgumentException("Event count must not be negative and the rate must be positive");
+        }
+        if (midMoveProbability < 0 || midMoveProbability > 1) {
+            throw new IllegalArgumentException("Mid move probability must be between 0 and 1");
+        }
+        if (maxDepthTicks <= 0 || maxLots <= 0) {
+            throw new IllegalArgumentException("Depth and order size must be positive");
+        }
+        if (limitWeight <= 0 || cancelWeight < 0 || marketWeight < 0 || modifyWeight < 0) {
+            throw new IllegalArgumentException("Limit weight must be positive and the other weights not negative");
+        }
+    }
+
+    public static Builder builder(InstrumentSpec instrument) {
+        return new Builder(instrument);
+    }
+
+    public static final class Builder {
+        private final InstrumentSpec instrument;
+        private long seed = 1;
+        private int eventCount = 100_000;
+        private double eventsPerSecond = 10_000;
+        private BigDecimal initialMid = new BigDecimal("50000");
+        private double midMoveProbability = 0.05;
+        private int maxDepthTicks = 50;
+        private int maxLots = 10;
+        private double limitWeight = 60;
+        private double cancelWeight = 30;
+        private double marketWeight = 5;
+        private double modifyWeight = 5;
+
+        private Builder(InstrumentSpec instrument) {
+            this.instrument = instrument;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder eventCount(int eventCount) {
+            this.eventCount = eventCount;
+            return this;
+        }
+
+        public Builder eventsPerSecond(double eventsPerSecond) {
+            this.eventsPerSecond = eventsPerSecond;
+            return this;
+        }
+
+        public Builder initialMid(BigDecimal initialMid) {
+            this.initialMid = initialMid;
+            return this;
+        }
+
+        public Builder midMoveProbability(double midMoveProbability) {
+            this.midMoveProbability = midMoveProbability;
+            return this;
+        }
+
+        public Builder maxDepthTicks(int maxDepthTicks) {
+            this.maxDepthTicks = maxDepthTicks;
+            return this;
+        }
+
+        public Builder maxLots(int maxLots) {
+            this.maxLots = maxLots;
+            return this;
+        }
+
+        /**
+         * Relative weights of limit / cancel / market / modify events, e.g. {@code mix(60, 30, 5, 5)}.
+         */
+        public Builder mix(double limit, double cancel, double market, double modify) {
+            this.limitWeight = limit;
+            this.cancelWeight = cancel;
+            this.marketWeight = market;
+            this.modifyWeight = modify;
+            return this;
+        }
+
+        public OrderFlowConfig build() {
+            return new OrderFlowConfig(instrument, seed, eventCount, eventsPerSecond, initialMid, midMoveProbability,
+                    maxDepthTicks, maxLots, limitWeight, cancelWeight, marketWeight, modifyWeight);
+        }
+    }
+}
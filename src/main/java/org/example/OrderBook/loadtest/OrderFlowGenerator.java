@@ -0,0 +1,130 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.FlowEventType;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic order flow: Poisson arrivals around a mid price that random-walks one tick at a time.
+ * Limit orders rest a geometric number of ticks away from the mid, so most liquidity sits near the touch.
+ * Cancels and modifies pick a random order from the ones this flow placed. The generator cannot see fills, so
+ * some of those orders are already gone by the time the cancel or modify arrives, just as with real traffic.
+ */
+public class OrderFlowGenerator {
+
+    private final OrderFlowConfig config;
+    private final InstrumentSpec instrument;
+    private final SplittableRandom random;
+    private final double meanGapNanos;
+    private final double totalWeight;
+
+    // Orders this flow believes are live: ids plus side, for swap-remove when they are cancelled
+    private final List<String> liveIds = new ArrayList<>();
+    private final List<OrderSide> liveSides = new ArrayList<>();
+
+    private long midTicks;
+    private double clockNanos;
+    private long nextOrderId;
+
+    public OrderFlowGenerator(OrderFlowConfig config) {
+        this.config = config;
+        this.instrument = config.instrument();
+        this.random = new SplittableRandom(config.seed());
+        this.meanGapNanos = 1_000_000_000.0 / config.eventsPerSecond();
+        this.totalWeight = config.limitWeight() + config.cancelWeight() + config.marketWeight() + config.modifyWeight();
+        this.midTicks = instrument.toTicks(config.initialMid());
+    }
+
+    public List<FlowEvent> generate() {
+        List<FlowEvent> events = new ArrayList<>(config.eventCount());
+        for (int i = 0; i < config.eventCount(); i++) {
+            events.add(next());
+        }
+        return events;
+    }
+
+    public FlowEvent next() {
+        // Exponential gaps give a Poisson process; 1 - u keeps the log argument away from zero
+        clockNanos += -Math.log(1.0 - random.nextDouble()) * meanGapNanos;
+        long timestamp = (long) clockNanos;
+
+        if (random.nextDouble() < config.midMoveProbability()) {
+            midTicks += random.nextBoolean() ? 1 : -1;
+        }
+
+        FlowEventType type = nextType();
+        if ((type == FlowEventType.CANCEL || type == FlowEventType.MODIFY) && liveIds.isEmpty()) {
+            type = FlowEventType.LIMIT;
+        }
+        return switch (type) {
+            case LIMIT -> limit(timestamp);
+            case MARKET -> market(timestamp);
+            case CANCEL -> FlowEvent.cancel(timestamp, removeLive(random.nextInt(liveIds.size())));
+            case MODIFY -> modify(timestamp);
+        };
+    }
+
+    private FlowEventType nextType() {
+        double roll = random.nextDouble() * totalWeight;
+        if (roll < config.limitWeight()) {
+            return FlowEventType.LIMIT;
+        }
+        roll -= config.limitWeight();
+        if (roll < config.cancelWeight()) {
+            return FlowEventType.CANCEL;
+        }
+        roll -= config.cancelWeight();
+        return roll < config.marketWeight() ? FlowEventType.MARKET : FlowEventType.MODIFY;
+    }
+
+    private FlowEvent limit(long timestamp) {
+        String id = "o" + nextOrderId++;
+        OrderSide side = random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL;
+        liveIds.add(id);
+        liveSides.add(side);
+        return new FlowEvent(timestamp, FlowEventType.LIMIT, id, side, restingPrice(side), lots());
+    }
+
+    private FlowEvent market(long timestamp) {
+        OrderSide side = random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL;
+        long sweep = side == OrderSide.BUY ? midTicks + config.maxDepthTicks() : midTicks - config.maxDepthTicks();
+        return new FlowEvent(timestamp, FlowEventType.MARKET, "o" + nextOrderId++, side,
+                instrument.priceOf(Math.max(1, sweep)), lots());
+    }
+
+    private FlowEvent modify(long timestamp) {
+        int index = random.nextInt(liveIds.size());
+        OrderSide side = liveSides.get(index);
+        return new FlowEvent(timestamp, FlowEventType.MODIFY, liveIds.get(index), side, restingPrice(side), lots());
+    }
+
+    private BigDecimal restingPrice(OrderSide side) {
+        // Geometric distance from the mid, capped at the configured depth
+        int distance = 1;
+        while (distance < config.maxDepthTicks() && random.nextInt(4) != 0) {
+            distance++;
+        }
+        long ticks = side == OrderSide.BUY ? midTicks - distance : midTicks + distance;
+        return instrument.priceOf(Math.max(1, ticks));
+    }
+
+    private BigDecimal lots() {
+        return instrument.quantityOf(1 + random.nextInt(config.maxLots()));
+    }
+
+    private String removeLive(int index) {
+        int last = liveIds.size() - 1;
+        String id = liveIds.get(index);
+        liveIds.set(index, liveIds.get(last));
+        liveSides.set(index, liveSides.get(last));
+        liveIds.remove(last);
+        liveSides.remove(last);
+        return id;
+    }
+}
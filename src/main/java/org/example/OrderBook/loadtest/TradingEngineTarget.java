@@ -0,0 +1,37 @@
+package org.example.OrderBook.loadtest;
+
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.enums.OrderSide;
+import org.example.interview_round_2.multi_threaded.Order;
+import org.example.interview_round_2.multi_threaded.TradingEngine;
+
+/**
+ * Drives the interview {@link TradingEngine}. It only knows limit orders with whole-number quantities:
+ * MARKET events go in as limits through the touch (any remainder rests), cancels and modifies are skipped.
+ */
+public class TradingEngineTarget implements EngineTarget {
+
+    private final TradingEngine engine = new TradingEngine();
+    private final String symbol;
+
+    public TradingEngineTarget(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public String name() {
+        return "multi_threaded.TradingEngine";
+    }
+
+    @Override
+    public Outcome submit(FlowEvent event) {
+        return switch (event.type()) {
+            case LIMIT, MARKET -> {
+                Order.Side side = event.side() == OrderSide.BUY ? Order.Side.BUY : Order.Side.SELL;
+                engine.processOrder(new Order(event.orderId(), symbol, side, event.quantity().intValueExact(), event.price()));
+                yield Outcome.ACCEPTED;
+            }
+            case CANCEL, MODIFY -> Outcome.UNSUPPORTED;
+        };
+    }
+}
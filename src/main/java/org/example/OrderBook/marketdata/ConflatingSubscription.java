@@ -0,0 +1,123 @@
+package org.example.OrderBook.marketdata;
+
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+import org.example.OrderBook.enums.DeliveryMode;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CONFLATE / THROTTLE: keeps only the latest snapshot and the latest delta per price level. A snapshot
+ * supersedes every delta buffered before it. THROTTLE additionally spaces deliveries to the configured rate,
+ * so anything arriving in between is conflated.
+ *
+ * Buffered deltas are delivered in sequence order, each at the sequence of the latest update it stands for.
+ * Sequences therefore rise but skip the updates conflated away: these subscribers must not treat a gap as
+ * lost data, since every level they are told about is at its latest state.
+ *
+ * The lock is only held to swap buffers, never while the subscriber runs.
+ */
+class ConflatingSubscription extends Subscription {
+    private static final Comparator<Pending> BY_SEQUENCE = Comparator.comparingLong(update -> update.delta().sequence());
+
+    private final long minIntervalNanos;
+    private long nextDeliveryNanos;
+
+    private MarketData snapshot;
+    private long snapshotNanos;
+    private Map<Level, Pending> levels = new HashMap<>();
+    private Map<Level, Pending> spareLevels = new HashMap<>();
+    // Delivery thread only: the swapped-out updates, sorted into sequence order
+    private final List<Pending> ordered = new ArrayList<>();
+    private volatile int pending;
+
+    ConflatingSubscription(String name, DeliveryPolicy policy, MarketDataPublisher subscriber) {
+        super(name, policy, subscriber);
+        this.minIntervalNanos = policy.mode() == DeliveryMode.THROTTLE ? 1_000_000_000L / policy.maxUpdatesPerSecond() : 0;
+    }
+
+    @Override
+    synchronized void offer(MarketData update, long publishNanos) {
+        received.incrementAndGet();
+        int superseded = (snapshot == null ? 0 : 1) + levels.size();
+        conflated.addAndGet(superseded);
+        levels.clear();
+        snapshot = update;
+        snapshotNanos = publishNanos;
+        pending = 1;
+    }
+
+    @Override
+    synchronized void offerDelta(MarketDataDelta delta, long publishNanos) {
+        received.incrementAndGet();
+        if (levels.put(new Level(delta.side(), delta.price()), new Pending(delta, publishNanos)) != null) {
+            conflated.incrementAndGet();
+        } else {
+            pending++;
+        }
+    }
+
+    @Override
+    boolean hasPending() {
+        return pending > 0;
+    }
+
+    @Override
+    int pending() {
+        return pending;
+    }
+
+    @Override
+    boolean deliverPending() {
+        if (pending == 0) {
+            return false;
+        }
+        if (minIntervalNanos > 0) {
+            long wait = nextDeliveryNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                return true;
+            }
+        }
+
+        MarketData latest;
+        long latestNanos;
+        Map<Level, Pending> updates;
+        synchronized (this) {
+            latest = snapshot;
+            latestNanos = snapshotNanos;
+            snapshot = null;
+            updates = levels;
+            levels = spareLevels;
+            pending = 0;
+        }
+
+        if (latest != null) {
+            deliver(latest, latestNanos);
+        }
+        ordered.addAll(updates.values());
+        ordered.sort(BY_SEQUENCE);
+        for (Pending update : ordered) {
+            deliver(update.delta(), update.publishNanos());
+        }
+        ordered.clear();
+        updates.clear();
+        spareLevels = updates;
+
+        nextDeliveryNanos = System.nanoTime() + minIntervalNanos;
+        return true;
+    }
+
+    private record Level(OrderSide side, BigDecimal price) {
+    }
+
+    private record Pending(MarketDataDelta delta, long publishNanos) {
+    }
+}
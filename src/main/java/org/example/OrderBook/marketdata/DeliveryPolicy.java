@@ -0,0 +1,33 @@
+package org.example.OrderBook.marketdata;
+
+import org.example.OrderBook.enums.DeliveryMode;
+
+/**
+ * How a {@link MarketDataDispatcher} feeds one subscriber.
+ *
+ * @param queueCapacity        DELIVER_ALL queue size (power of 2)
+ * @param maxUpdatesPerSecond  THROTTLE delivery rate
+ */
+public record DeliveryPolicy(DeliveryMode mode, int queueCapacity, int maxUpdatesPerSecond) {
+
+    public DeliveryPolicy {
+        if (mode == DeliveryMode.DELIVER_ALL && (queueCapacity <= 0 || (queueCapacity & (queueCapacity - 1)) != 0)) {
+            throw new IllegalArgumentException("Queue capacity must be power of 2");
+        }
+        if (mode == DeliveryMode.THROTTLE && maxUpdatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Throttle rate must be positive");
+        }
+    }
+
+    public static DeliveryPolicy deliverAll(int queueCapacity) {
+        return new DeliveryPolicy(DeliveryMode.DELIVER_ALL, queueCapacity, 0);
+    }
+
+    public static DeliveryPolicy conflate() {
+        return new DeliveryPolicy(DeliveryMode.CONFLATE, 0, 0);
+    }
+
+    public static DeliveryPolicy throttle(int maxUpdatesPerSecond) {
+        return new DeliveryPolicy(DeliveryMode.THROTTLE, 0, maxUpdatesPerSecond);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.OrderBook.marketdata;
+
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sits between a book and its subscribers. The book publishes into the dispatcher, which only copies each
+ * update into every subscriber's own buffer; delivery happens on one thread per subscriber according to its
+ * {@link DeliveryPolicy}. A slow or failing subscriber never back-pressures the matching thread.
+ */
+public class MarketDataDispatcher implements MarketDataPublisher, AutoCloseable {
+
+    // Copy-on-write array so the publish path iterates without allocating
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    public synchronized void subscribe(String name, MarketDataPublisher subscriber, DeliveryPolicy policy) {
+        for (Subscription existing : subscriptions) {
+            if (existing.name.equals(name)) {
+                throw new IllegalArgumentException("Subscriber already registered: " + name);
+            }
+        }
+        Subscription subscription = switch (policy.mode()) {
+            case DELIVER_ALL -> new QueuedSubscription(name, policy, subscriber);
+            case CONFLATE, THROTTLE -> new ConflatingSubscription(name, policy, subscriber);
+        };
+        Subscription[] updated = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        updated[updated.length - 1] = subscription;
+        subscription.start();
+        subscriptions = updated;
+    }
+
+    public void unsubscribe(String name) throws InterruptedException {
+        Subscription removed = null;
+        synchronized (this) {
+            List<Subscription> remaining = new ArrayList<>();
+            for (Subscription subscription : subscriptions) {
+                if (subscription.name.equals(name)) {
+                    removed = subscription;
+                } else {
+                    remaining.add(subscription);
+                }
+            }
+            subscriptions = remaining.toArray(new Subscription[0]);
+        }
+        if (removed != null) {
+            removed.close();
+        }
+    }
+
+    @Override
+    public void publish(MarketData data) {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(data, now);
+        }
+    }
+
+    @Override
+    public void publishDelta(MarketDataDelta delta) {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.offerDelta(delta, now);
+        }
+    }
+
+    public List<SubscriberStats> stats() {
+        List<SubscriberStats> stats = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            stats.add(subscription.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Stop every subscriber thread and wait for it to exit. If interrupted, stop waiting but leave the
+     * interrupt flag set; the threads still exit on their own.
+     */
+    @Override
+    public void close() {
+        Subscription[] closing;
+        synchronized (this) {
+            closing = subscriptions;
+            subscriptions = new Subscription[0];
+        }
+        for (Subscription subscription : closing) {
+            subscription.stop();
+        }
+        try {
+            for (Subscription subscription : closing) {
+                subscription.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
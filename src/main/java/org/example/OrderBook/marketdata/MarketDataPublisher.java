@@ -1,8 +1,16 @@
 package org.example.OrderBook.marketdata;
 
 import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
 
 // Market data publisher interface
 public interface MarketDataPublisher {
     void publish(MarketData data);
+
+    /**
+     * Per-level change, only emitted when the book runs with INCREMENTAL market data.
+     * Snapshots still arrive through {@link #publish} for recovery.
+     */
+    default void publishDelta(MarketDataDelta delta) {
+    }
 }
@@ -0,0 +1,70 @@
+package org.example.OrderBook.marketdata;
+
+import org.example.OrderBook.datastructures.RingBuffer;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+
+/**
+ * DELIVER_ALL: every update in order through a bounded ring. Overflowing the ring disconnects the
+ * subscriber rather than stalling the book; it would have a gap anyway and must resync from a snapshot.
+ */
+class QueuedSubscription extends Subscription {
+    private static final int DELIVERY_BATCH = 64;
+
+    private final RingBuffer<Envelope> queue;
+    private volatile boolean disconnected;
+
+    QueuedSubscription(String name, DeliveryPolicy policy, MarketDataPublisher subscriber) {
+        super(name, policy, subscriber);
+        this.queue = new RingBuffer<>(policy.queueCapacity());
+    }
+
+    @Override
+    void offer(MarketData snapshot, long publishNanos) {
+        enqueue(snapshot, publishNanos);
+    }
+
+    @Override
+    void offerDelta(MarketDataDelta delta, long publishNanos) {
+        enqueue(delta, publishNanos);
+    }
+
+    private void enqueue(Object update, long publishNanos) {
+        received.incrementAndGet();
+        if (disconnected || !queue.offer(new Envelope(update, publishNanos))) {
+            disconnected = true;
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    int pending() {
+        return queue.size();
+    }
+
+    @Override
+    boolean deliverPending() {
+        if (disconnected) {
+            // Throw away the backlog and stop
+            while (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+            running = false;
+            return true;
+        }
+        return queue.drainTo(envelope -> deliver(envelope.update(), envelope.publishNanos()), DELIVERY_BATCH) > 0;
+    }
+
+    @Override
+    boolean disconnected() {
+        return disconnected;
+    }
+
+    private record Envelope(Object update, long publishNanos) {
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.OrderBook.marketdata;
+
+/**
+ * Point-in-time counters for one dispatcher subscriber.
+ *
+ * @param received        updates handed to the subscription by the book
+ * @param delivered       updates the subscriber has been called with
+ * @param conflated       updates replaced by a newer one before delivery
+ * @param dropped         updates thrown away because the subscriber fell behind or was disconnected
+ * @param failures        deliveries where the subscriber threw
+ * @param pending         updates waiting for delivery right now
+ * @param lastLagNanos    publish-to-delivery time of the most recent delivery
+ * @param maxLagNanos     worst publish-to-delivery time seen
+ * @param disconnected    true once a DELIVER_ALL subscriber overflowed its queue
+ */
+public record SubscriberStats(String name,
+                              DeliveryPolicy policy,
+                              long received,
+                              long delivered,
+                              long conflated,
+                              long dropped,
+                              long failures,
+                              int pending,
+                              long lastLagNanos,
+                              long maxLagNanos,
+                              boolean disconnected) {
+}
@@ -0,0 +1,101 @@
+package org.example.OrderBook.marketdata;
+
+import org.example.OrderBook.datastructures.ParkingWaitStrategy;
+import org.example.OrderBook.datastructures.WaitStrategy;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One subscriber of a {@link MarketDataDispatcher}: its own buffer and its own delivery thread, so a slow
+ * subscriber only ever delays itself. The offer side is called on the matching path and never blocks.
+ */
+abstract class Subscription implements Runnable {
+    final String name;
+    final DeliveryPolicy policy;
+    private final MarketDataPublisher subscriber;
+    private final WaitStrategy waitStrategy = new ParkingWaitStrategy();
+    private final Thread thread;
+    volatile boolean running = true;
+
+    final AtomicLong received = new AtomicLong();
+    final AtomicLong conflated = new AtomicLong();
+    final AtomicLong dropped = new AtomicLong();
+    private volatile long delivered;
+    private volatile long failures;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+
+    Subscription(String name, DeliveryPolicy policy, MarketDataPublisher subscriber) {
+        this.name = name;
+        this.policy = policy;
+        this.subscriber = subscriber;
+        this.thread = new Thread(this, "md-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    abstract void offer(MarketData snapshot, long publishNanos);
+
+    abstract void offerDelta(MarketDataDelta delta, long publishNanos);
+
+    abstract boolean hasPending();
+
+    abstract int pending();
+
+    /**
+     * Deliver what is buffered right now.
+     *
+     * @return false if there was nothing to deliver
+     */
+    abstract boolean deliverPending();
+
+    boolean disconnected() {
+        return false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (!deliverPending()) {
+                waitStrategy.await(() -> !running || hasPending());
+            }
+        }
+    }
+
+    void deliver(Object update, long publishNanos) {
+        try {
+            if (update instanceof MarketData snapshot) {
+                subscriber.publish(snapshot);
+            } else {
+                subscriber.publishDelta((MarketDataDelta) update);
+            }
+        } catch (RuntimeException e) {
+            failures++;
+        }
+        delivered++;
+        long lag = System.nanoTime() - publishNanos;
+        lastLagNanos = lag;
+        if (lag > maxLagNanos) {
+            maxLagNanos = lag;
+        }
+    }
+
+    SubscriberStats stats() {
+        return new SubscriberStats(name, policy, received.get(), delivered, conflated.get(), dropped.get(),
+                failures, pending(), lastLagNanos, maxLagNanos, disconnected());
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    void close() throws InterruptedException {
+        stop();
+        thread.join();
+    }
+}
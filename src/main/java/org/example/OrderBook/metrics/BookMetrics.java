@@ -0,0 +1,287 @@
+package org.example.OrderBook.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntervalHistogramProvider;
+import org.HdrHistogram.Recorder;
+import org.HdrHistogram.SingleWriterRecorder;
+import org.HdrHistogram.ValueRecorder;
+import org.example.OrderBook.enums.BookCounter;
+import org.example.OrderBook.enums.BookStage;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Stage latencies and event counters of one book.
+ * <p>
+ * The book's writer threads only ever record: into a {@link SingleWriterRecorder} per stage when the book has a
+ * single writer, or a wait-free multi-writer {@link Recorder} for CONCURRENT books, and counters that a single
+ * writer bumps with a plain read and a release store. Readers (JMX, the interval dump, tests) swap the recorders'
+ * interval histograms out under this object's lock and fold them into running totals, so nothing they do stalls
+ * the writer. Gauges are read from the book on demand.
+ */
+public final class BookMetrics implements BookMetricsMXBean, AutoCloseable {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final BookStage[] STAGES = BookStage.values();
+    private static final BookCounter[] COUNTERS = BookCounter.values();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+
+    private final String symbol;
+    private final boolean singleWriter;
+    private final ValueRecorder[] recorders = new ValueRecorder[STAGES.length];
+    private final List<IntervalHistogramProvider<Histogram>> intervalSources = new ArrayList<>();
+    private final AtomicLongArray counts = new AtomicLongArray(COUNTERS.length);
+
+    // Reader side, guarded by this
+    private final Histogram[] interval = new Histogram[STAGES.length];
+    private final Histogram[] totals = new Histogram[STAGES.length];
+    private final Histogram[] sinceDump = new Histogram[STAGES.length];
+
+    private final LongSupplier restingOrders;
+    private final LongSupplier bidLevels;
+    private final LongSupplier askLevels;
+    private final LongSupplier queuedEvents;
+
+    private final ObjectName objectName;
+    private final ScheduledExecutorService dumper;
+    private final PrintStream dumpTo;
+
+    public BookMetrics(String symbol, boolean singleWriter, MetricsConfig config, LongSupplier restingOrders,
+                       LongSupplier bidLevels, LongSupplier askLevels, LongSupplier queuedEvents) {
+        this.symbol = symbol;
+        this.singleWriter = singleWriter;
+        for (int i = 0; i < STAGES.length; i++) {
+            if (singleWriter) {
+                SingleWriterRecorder recorder = new SingleWriterRecorder(SIGNIFICANT_DIGITS);
+                recorders[i] = recorder;
+                intervalSources.add(recorder);
+            } else {
+                Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+                recorders[i] = recorder;
+                intervalSources.add(recorder);
+            }
+            interval[i] = new Histogram(SIGNIFICANT_DIGITS);
+            totals[i] = new Histogram(SIGNIFICANT_DIGITS);
+            sinceDump[i] = new Histogram(SIGNIFICANT_DIGITS);
+        }
+        this.restingOrders = restingOrders;
+        this.bidLevels = bidLevels;
+        this.askLevels = askLevels;
+        this.queuedEvents = queuedEvents;
+
+        this.objectName = config.jmx() ? register(symbol) : null;
+        this.dumpTo = config.dumpTo();
+        if (config.dumpInterval() != null) {
+            this.dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "book-metrics-" + symbol);
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = config.dumpInterval().toNanos();
+            dumper.scheduleAtFixedRate(() -> dump(dumpTo), period, period, TimeUnit.NANOSECONDS);
+        } else {
+            this.dumper = null;
+        }
+    }
+
+    private ObjectName register(String symbol) {
+        try {
+            ObjectName name = new ObjectName("org.example.OrderBook:type=BookMetrics,symbol=" + ObjectName.quote(symbol));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the metrics of " + symbol + " with JMX", e);
+        }
+    }
+
+    /**
+     * Writer side: one sample of {@code stage}. Negative samples (a clock step) are dropped.
+     */
+    public void record(BookStage stage, long nanos) {
+        if (nanos >= 0) {
+            recorders[stage.ordinal()].recordValue(nanos);
+        }
+    }
+
+    public void increment(BookCounter counter) {
+        add(counter, 1);
+    }
+
+    public void add(BookCounter counter, long delta) {
+        int index = counter.ordinal();
+        if (singleWriter) {
+            counts.setRelease(index, counts.getPlain(index) + delta);
+        } else {
+            counts.getAndAdd(index, delta);
+        }
+    }
+
+    public long count(BookCounter counter) {
+        return counts.getAcquire(counter.ordinal());
+    }
+
+    /**
+     * A copy of every {@code stage} sample since start-up or the last reset.
+     */
+    public synchronized Histogram latency(BookStage stage) {
+        roll();
+        return totals[stage.ordinal()].copy();
+    }
+
+    /**
+     * Print the counters, the gauges, and each stage's latencies since the previous dump.
+     */
+    public synchronized void dump(PrintStream out) {
+        roll();
+        StringBuilder text = new StringBuilder();
+        text.append(symbol).append(':');
+        for (BookCounter counter : COUNTERS) {
+            text.append(' ').append(counter.name().toLowerCase()).append('=').append(count(counter));
+        }
+        text.append(String.format(" resting=%d bidLevels=%d askLevels=%d queued=%d%n",
+                restingOrders.getAsLong(), bidLevels.getAsLong(), askLevels.getAsLong(), queuedEvents.getAsLong()));
+        for (BookStage stage : STAGES) {
+            Histogram histogram = sinceDump[stage.ordinal()];
+            text.append(String.format("  %-12s ns: count=%d", stage, histogram.getTotalCount()));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                text.append(String.format(" %s=%d", PERCENTILE_LABELS[i], histogram.getValueAtPercentile(PERCENTILES[i])));
+            }
+            text.append(String.format(" max=%d%n", histogram.getMaxValue()));
+            histogram.reset();
+        }
+        out.print(text);
+        out.flush();
+    }
+
+    // Must hold this
+    private void roll() {
+        for (int i = 0; i < STAGES.length; i++) {
+            intervalSources.get(i).getIntervalHistogramInto(interval[i]);
+            totals[i].add(interval[i]);
+            sinceDump[i].add(interval[i]);
+        }
+    }
+
+    @Override
+    public long getOrders() {
+        return count(BookCounter.ORDERS);
+    }
+
+    @Override
+    public long getCancels() {
+        return count(BookCounter.CANCELS);
+    }
+
+    @Override
+    public long getModifies() {
+        return count(BookCounter.MODIFIES);
+    }
+
+    @Override
+    public long getRejects() {
+        return count(BookCounter.REJECTS);
+    }
+
+    @Override
+    public long getFills() {
+        return count(BookCounter.FILLS);
+    }
+
+    @Override
+    public long getLevelsOpened() {
+        return count(BookCounter.LEVELS_OPENED);
+    }
+
+    @Override
+    public long getLevelsClosed() {
+        return count(BookCounter.LEVELS_CLOSED);
+    }
+
+    @Override
+    public long getRestingOrders() {
+        return restingOrders.getAsLong();
+    }
+
+    @Override
+    public long getBidLevels() {
+        return bidLevels.getAsLong();
+    }
+
+    @Override
+    public long getAskLevels() {
+        return askLevels.getAsLong();
+    }
+
+    @Override
+    public long getQueuedEvents() {
+        return queuedEvents.getAsLong();
+    }
+
+    @Override
+    public synchronized Map<String, Long> getLatencyNanos() {
+        roll();
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        for (BookStage stage : STAGES) {
+            Histogram histogram = totals[stage.ordinal()];
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                latencies.put(stage + "." + PERCENTILE_LABELS[i], histogram.getValueAtPercentile(PERCENTILES[i]));
+            }
+            latencies.put(stage + ".max", histogram.getMaxValue());
+        }
+        return latencies;
+    }
+
+    @Override
+    public synchronized void resetLatencies() {
+        roll();
+        for (Histogram histogram : totals) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Forget every sample and count so far, e.g. those of a journal replay.
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            recorders[i].reset();
+            totals[i].reset();
+            sinceDump[i].reset();
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Stops the dump and unregisters from JMX.
+     */
+    @Override
+    public void close() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        if (objectName != null) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.OrderBook.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of a book's {@link BookMetrics}. Counters and latencies are totals since start-up (or the last
+ * {@link #resetLatencies}); gauges are read when asked.
+ */
+public interface BookMetricsMXBean {
+
+    long getOrders();
+
+    long getCancels();
+
+    long getModifies();
+
+    long getRejects();
+
+    long getFills();
+
+    long getLevelsOpened();
+
+    long getLevelsClosed();
+
+    long getRestingOrders();
+
+    long getBidLevels();
+
+    long getAskLevels();
+
+    /**
+     * Events accepted but not yet started: ring occupancy for SEQUENCED books, executor queue for CONCURRENT.
+     */
+    long getQueuedEvents();
+
+    /**
+     * Per stage and percentile, e.g. {@code MATCH.p99}, in nanoseconds.
+     */
+    Map<String, Long> getLatencyNanos();
+
+    void resetLatencies();
+}
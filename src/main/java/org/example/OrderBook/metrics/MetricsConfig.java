@@ -0,0 +1,38 @@
+package org.example.OrderBook.metrics;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Built-in instrumentation for a book. Without one (the default) the book records nothing and reads no clocks.
+ *
+ * @param jmx          register a {@link BookMetricsMXBean} under {@code org.example.OrderBook:type=BookMetrics,symbol=...}
+ * @param dumpInterval print counters and the latencies of the last interval this often (null = no dump)
+ * @param dumpTo       where the dump goes
+ */
+public record MetricsConfig(boolean jmx, Duration dumpInterval, PrintStream dumpTo) {
+
+    public MetricsConfig {
+        if (dumpInterval != null && (dumpInterval.isNegative() || dumpInterval.isZero())) {
+            throw new IllegalArgumentException("Dump interval must be positive");
+        }
+        if (dumpInterval != null && dumpTo == null) {
+            throw new IllegalArgumentException("A dump needs somewhere to go");
+        }
+    }
+
+    public static MetricsConfig jmxOnly() {
+        return new MetricsConfig(true, null, null);
+    }
+
+    /**
+     * Counters and histograms only, read through {@link BookMetrics} directly.
+     */
+    public static MetricsConfig inProcess() {
+        return new MetricsConfig(false, null, null);
+    }
+
+    public static MetricsConfig dumpEvery(Duration interval, PrintStream out) {
+        return new MetricsConfig(true, interval, out);
+    }
+}
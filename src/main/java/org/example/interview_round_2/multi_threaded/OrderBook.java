@@ -1,88 +1,161 @@
 package org.example.interview_round_2.multi_threaded;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Price-time priority book: each price holds a FIFO queue of resting orders.
+ *
+ * Each side has its own lock, so a buy and a sell that do not cross rest in parallel. Only a trade needs both
+ * sides, and both locks are always taken buy side first, so two trades can never deadlock.
+ *
+ * Crossing-check protocol for an order that looks passive:
+ * 1. Lock its own side and read the opposite touch. The price maps are concurrent, so the read needs no lock.
+ * 2. If it crosses, go to the matching path.
+ * 3. Otherwise queue the order, then read the opposite touch again. A buy and a sell racing at crossing
+ *    prices each queue first and check second, so at least one of them sees the other. That one takes its
+ *    order back out, which is safe because no one can trade an order while its side is locked, and matches.
+ *
+ * A touch that only looks crossing (a level being emptied) just sends an order down the slower matching path,
+ * which is always correct.
+ */
 public class OrderBook {
-    private final ConcurrentSkipListMap<BigDecimal, Order> buyOrders = new ConcurrentSkipListMap<>(Collections.reverseOrder());
-    private final ConcurrentSkipListMap<BigDecimal, Order> sellOrders = new ConcurrentSkipListMap<>();
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Lock writeLock = lock.writeLock();
+    private final Side buys = new Side(Collections.reverseOrder());
+    private final Side sells = new Side(Comparator.naturalOrder());
 
     public List<Trade> processOrder(Order newOrder) {
-        writeLock.lock();
-        try {
-            List<Trade> trades = (newOrder.side() == Order.Side.BUY)
-                    ? matchBuyOrder(newOrder)
-                    : matchSellOrder(newOrder);
+        boolean buy = newOrder.side() == Order.Side.BUY;
+        Side own = buy ? buys : sells;
+        Side opposite = buy ? sells : buys;
 
-            // If the new order is not fully filled, add it to the order book.
-            if (newOrder.quantity() > 0) {
-                addOrder(newOrder);
+        own.lock.lock();
+        try {
+            if (!crosses(newOrder, opposite.best())) {
+                own.enqueue(newOrder);
+                if (!crosses(newOrder, opposite.best())) {
+                    return Collections.emptyList();
+                }
+                // An opposite order rested at a crossing price between the two checks
+                own.dequeue(newOrder);
             }
-
-            return trades;
         } finally {
-            writeLock.unlock();
+            own.lock.unlock();
         }
+        return matchUnderBothLocks(newOrder, own, opposite);
     }
 
-    // This is a private helper method and must be called from within a write lock.
-    private void addOrder(Order order) {
-        if (order.side() == Order.Side.BUY) {
-            buyOrders.put(order.price(), order);
-        } else {
-            sellOrders.put(order.price(), order);
-        }
+    public BigDecimal bestBid() {
+        return buys.best();
     }
 
-    // This is a private helper method and must be called from within a write lock.
-    private List<Trade> matchBuyOrder(Order buyOrder) {
-        List<Trade> trades = new ArrayList<>();
-        while (buyOrder.quantity() > 0 && !sellOrders.isEmpty()) {
-            Order bestAsk = sellOrders.firstEntry().getValue();
-            if (buyOrder.price().compareTo(bestAsk.price()) < 0) {
-                break; // No more matches possible
+    public BigDecimal bestAsk() {
+        return sells.best();
+    }
+
+    // Sum of resting quantity on one side; for tests and diagnostics
+    int restingQuantity(Order.Side side) {
+        Side book = side == Order.Side.BUY ? buys : sells;
+        book.lock.lock();
+        try {
+            int quantity = 0;
+            for (ArrayDeque<Order> queue : book.levels.values()) {
+                for (Order order : queue) {
+                    quantity += order.quantity();
+                }
             }
+            return quantity;
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    private List<Trade> matchUnderBothLocks(Order newOrder, Side own, Side opposite) {
+        buys.lock.lock();
+        sells.lock.lock();
+        try {
+            List<Trade> trades = new ArrayList<>();
+            boolean buy = newOrder.side() == Order.Side.BUY;
+            while (newOrder.quantity() > 0) {
+                Map.Entry<BigDecimal, ArrayDeque<Order>> bestLevel = opposite.levels.firstEntry();
+                if (bestLevel == null || !crosses(newOrder, bestLevel.getKey())) {
+                    break; // No more matches possible
+                }
 
-            int tradeQuantity = Math.min(buyOrder.quantity(), bestAsk.quantity());
-            trades.add(new Trade(buyOrder.id(), bestAsk.id(), tradeQuantity, bestAsk.price()));
+                ArrayDeque<Order> queue = bestLevel.getValue();
+                Order resting = queue.peekFirst();
+                int tradeQuantity = Math.min(newOrder.quantity(), resting.quantity());
+                trades.add(buy
+                        ? new Trade(newOrder.id(), resting.id(), tradeQuantity, resting.price())
+                        : new Trade(resting.id(), newOrder.id(), tradeQuantity, resting.price()));
 
-            buyOrder.decreaseQuantity(tradeQuantity);
-            bestAsk.decreaseQuantity(tradeQuantity);
+                newOrder.decreaseQuantity(tradeQuantity);
+                resting.decreaseQuantity(tradeQuantity);
 
-            if (bestAsk.quantity() == 0) {
-                sellOrders.remove(bestAsk.price());
+                if (resting.quantity() == 0) {
+                    opposite.dequeue(resting);
+                }
             }
+
+            // If the new order is not fully filled, add it to the order book.
+            if (newOrder.quantity() > 0) {
+                own.enqueue(newOrder);
+            }
+            return trades;
+        } finally {
+            sells.lock.unlock();
+            buys.lock.unlock();
         }
-        return trades;
     }
 
-    // This is a private helper method and must be called from within a write lock.
-    private List<Trade> matchSellOrder(Order sellOrder) {
-        List<Trade> trades = new ArrayList<>();
-        while (sellOrder.quantity() > 0 && !buyOrders.isEmpty()) {
-            Order bestBid = buyOrders.firstEntry().getValue();
-            if (sellOrder.price().compareTo(bestBid.price()) > 0) {
-                break; // No more matches possible
-            }
+    private static boolean crosses(Order order, BigDecimal oppositeBest) {
+        if (oppositeBest == null) {
+            return false;
+        }
+        return order.side() == Order.Side.BUY
+                ? order.price().compareTo(oppositeBest) >= 0
+                : order.price().compareTo(oppositeBest) <= 0;
+    }
+
+    /**
+     * One side of the book. The price map is concurrent so the other side can read its touch without the lock;
+     * the queues inside are only touched under the lock.
+     */
+    private static final class Side {
+        final ConcurrentSkipListMap<BigDecimal, ArrayDeque<Order>> levels;
+        final ReentrantLock lock = new ReentrantLock();
 
-            int tradeQuantity = Math.min(sellOrder.quantity(), bestBid.quantity());
-            trades.add(new Trade(bestBid.id(), sellOrder.id(), tradeQuantity, bestBid.price()));
+        Side(Comparator<BigDecimal> priority) {
+            this.levels = new ConcurrentSkipListMap<>(priority);
+        }
 
-            sellOrder.decreaseQuantity(tradeQuantity);
-            bestBid.decreaseQuantity(tradeQuantity);
+        BigDecimal best() {
+            Map.Entry<BigDecimal, ArrayDeque<Order>> best = levels.firstEntry();
+            return best == null ? null : best.getKey();
+        }
 
-            if (bestBid.quantity() == 0) {
-                buyOrders.remove(bestBid.price());
+        // Must hold the lock
+        void enqueue(Order order) {
+            levels.computeIfAbsent(order.price(), price -> new ArrayDeque<>()).addLast(order);
+        }
+
+        // Must hold the lock. The order is the head after a fill, or the tail when taken back out
+        void dequeue(Order order) {
+            ArrayDeque<Order> queue = levels.get(order.price());
+            if (queue.peekFirst() == order) {
+                queue.pollFirst();
+            } else {
+                queue.removeLastOccurrence(order);
+            }
+            if (queue.isEmpty()) {
+                levels.remove(order.price());
             }
         }
-        return trades;
     }
 }
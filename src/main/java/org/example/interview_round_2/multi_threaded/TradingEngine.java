@@ -1,18 +1,20 @@
 package org.example.interview_round_2.multi_threaded;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TradingEngine {
-    private final OrderBook orderBook = new OrderBook();
+    // One book per symbol, so orders for different instruments never match each other
+    private final ConcurrentHashMap<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
 
     /**
-     * Processes an order by attempting to match it against the order book.
+     * Processes an order by attempting to match it against the order book for its symbol.
      * This operation is thread-safe.
      * @param newOrder The order to be processed.
      * @return A list of trades that occurred as a result of the order.
      */
     public List<Trade> processOrder(Order newOrder) {
-        return orderBook.processOrder(newOrder);
+        return orderBooks.computeIfAbsent(newOrder.symbol(), symbol -> new OrderBook()).processOrder(newOrder);
     }
 }
 
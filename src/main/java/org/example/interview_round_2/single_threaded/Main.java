@@ -1,19 +1,20 @@
 package org.example.interview_round_2.single_threaded;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 
 public class Main {
     public static void main(String[] args) {
         TradingEngine engine = new TradingEngine();
+        TradeBuffer trades = new TradeBuffer();
 
-        Order buyOrder = new Order("B1", "AAPL", Order.Side.BUY, 100, BigDecimal.valueOf(150.0));
-        Order sellOrder = new Order("S1", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(149.0));
+        engine.processOrder(new Order("S1", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(149.0)), trades);
+        engine.processOrder(new Order("S2", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(149.5)), trades);
 
-        Optional<Trade> trade1 = engine.processOrder(buyOrder);
-        System.out.println("First order result: " + trade1); // No matching order, no trade.
-
-        Optional<Trade> trade2 = engine.processOrder(sellOrder);
-        System.out.println("Second order result: " + trade2); // Matching order, trade performed.
+        int count = engine.processOrder(new Order("B1", "AAPL", Order.Side.BUY, 80, BigDecimal.valueOf(150.0)), trades);
+        System.out.println("Buy order traded " + count + " times"); // Sweeps S1, then takes 30 of S2.
+        for (int i = 0; i < count; i++) {
+            System.out.println(">>> TRADE EXECUTED: " + trades.toTrade(i));
+        }
+        System.out.println("Best ask now: " + engine.orderBook().getBestAsk()); // 20 of S2 left at 149.5.
     }
 }
@@ -1,46 +1,233 @@
 package org.example.interview_round_2.single_threaded;
 
 import java.math.BigDecimal;
-import java.util.Collections;
-import java.util.TreeMap;
+import java.util.Arrays;
 
+/**
+ * Single-threaded price-time priority book kept in primitive arrays.
+ *
+ * Prices are whole ticks. Each side is a sorted array of levels with the best price at the end, and each
+ * level is a FIFO chain of order slots. The slots live in parallel arrays with a free list, so once the
+ * arrays have grown to the book's size, resting and matching allocate nothing.
+ */
 public class OrderBook {
-    // TreeMap for automatic sorting
-    private final TreeMap<BigDecimal, Order> buyOrders = new TreeMap<>(Collections.reverseOrder());
-    private final TreeMap<BigDecimal, Order> sellOrders = new TreeMap<>();
+    private static final int NONE = -1;
 
-    public void addOrder(Order order) {
-        if (order.side() == Order.Side.BUY) {
-            buyOrders.put(order.price(), order);
+    private final BigDecimal tickSize;
+    private final Side bids = new Side(true);
+    private final Side asks = new Side(false);
+
+    // Order slots: the caller's order (for its id), what it has left, and the next slot in its level's queue
+    private Order[] slotOrder = new Order[64];
+    private int[] slotQuantity = new int[64];
+    private int[] slotNext = new int[64];
+    private int freeSlot = NONE;
+    private int usedSlots;
+
+    public OrderBook(BigDecimal tickSize) {
+        if (tickSize.signum() <= 0) {
+            throw new IllegalArgumentException("Tick size must be positive");
+        }
+        this.tickSize = tickSize;
+    }
+
+    public long toTicks(BigDecimal price) {
+        try {
+            return price.divide(tickSize).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price + " is not a multiple of the tick size " + tickSize);
+        }
+    }
+
+    public BigDecimal toPrice(long ticks) {
+        return tickSize.multiply(BigDecimal.valueOf(ticks));
+    }
+
+    /**
+     * Trade {@code quantity} of {@code order} against the opposite side, best price first and oldest order
+     * first within a price, for as long as it crosses {@code limitTicks}.
+     *
+     * @param trades each fill is appended here
+     * @return the quantity left unfilled
+     */
+    public int match(Order order, long limitTicks, int quantity, TradeBuffer trades) {
+        boolean buy = order.side() == Order.Side.BUY;
+        Side opposite = buy ? asks : bids;
+        int remaining = quantity;
+        while (remaining > 0 && opposite.count > 0) {
+            int best = opposite.count - 1;
+            long levelTicks = opposite.ticks[best];
+            if (buy ? limitTicks < levelTicks : limitTicks > levelTicks) {
+                break; // No more matches possible
+            }
+
+            int slot = opposite.head[best];
+            while (remaining > 0 && slot != NONE) {
+                int fill = Math.min(remaining, slotQuantity[slot]);
+                if (buy) {
+                    trades.add(order.id(), slotOrder[slot].id(), fill, levelTicks, tickSize);
+                } else {
+                    trades.add(slotOrder[slot].id(), order.id(), fill, levelTicks, tickSize);
+                }
+                remaining -= fill;
+                slotQuantity[slot] -= fill;
+                if (slotQuantity[slot] == 0) {
+                    int next = slotNext[slot];
+                    free(slot);
+                    slot = next;
+                }
+            }
+
+            opposite.head[best] = slot;
+            if (slot == NONE) {
+                opposite.count--;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Rest {@code quantity} of {@code order} at the back of its price's queue.
+     */
+    public void addOrder(Order order, long priceTicks, int quantity) {
+        int slot = allocate(order, quantity);
+        Side side = order.side() == Order.Side.BUY ? bids : asks;
+        int level = side.levelAt(priceTicks);
+        if (side.head[level] == NONE) {
+            side.head[level] = slot;
         } else {
-            sellOrders.put(order.price(), order);
+            slotNext[side.tail[level]] = slot;
         }
+        side.tail[level] = slot;
+    }
+
+    public BigDecimal getBestBid() {
+        return bids.count == 0 ? null : toPrice(bids.ticks[bids.count - 1]);
     }
 
-    public Order getBestBid() {
-        return buyOrders.isEmpty() ? null : buyOrders.firstEntry().getValue();
+    public BigDecimal getBestAsk() {
+        return asks.count == 0 ? null : toPrice(asks.ticks[asks.count - 1]);
     }
 
-    public Order getBestAsk() {
-        return sellOrders.isEmpty() ? null : sellOrders.firstEntry().getValue();
+    /**
+     * Total quantity resting at {@code price} on one side, 0 if there is no such level.
+     */
+    public int quantityAt(Order.Side side, BigDecimal price) {
+        Side levels = side == Order.Side.BUY ? bids : asks;
+        int level = levels.find(toTicks(price));
+        if (level < 0) {
+            return 0;
+        }
+        int quantity = 0;
+        for (int slot = levels.head[level]; slot != NONE; slot = slotNext[slot]) {
+            quantity += slotQuantity[slot];
+        }
+        return quantity;
+    }
+
+    private int allocate(Order order, int quantity) {
+        int slot = freeSlot;
+        if (slot != NONE) {
+            freeSlot = slotNext[slot];
+        } else {
+            if (usedSlots == slotOrder.length) {
+                slotOrder = Arrays.copyOf(slotOrder, usedSlots * 2);
+                slotQuantity = Arrays.copyOf(slotQuantity, usedSlots * 2);
+                slotNext = Arrays.copyOf(slotNext, usedSlots * 2);
+            }
+            slot = usedSlots++;
+        }
+        slotOrder[slot] = order;
+        slotQuantity[slot] = quantity;
+        slotNext[slot] = NONE;
+        return slot;
+    }
+
+    private void free(int slot) {
+        slotOrder[slot] = null;
+        slotNext[slot] = freeSlot;
+        freeSlot = slot;
+    }
+
+    /**
+     * Levels of one side, worst first, so the touch is the last entry and an emptied touch is dropped by
+     * shrinking the count. New levels are usually near the touch, so the shift that makes room is short.
+     */
+    private static final class Side {
+        final boolean bids;
+        long[] ticks = new long[16];
+        int[] head = new int[16];
+        int[] tail = new int[16];
+        int count;
+
+        Side(boolean bids) {
+            this.bids = bids;
+        }
+
+        // Bids ascend towards the touch and asks descend, so both compare through a key that ascends
+        private long key(long priceTicks) {
+            return bids ? priceTicks : -priceTicks;
+        }
+
+        // Index of the level, or -(insertion point) - 1 if there is none
+        int find(long priceTicks) {
+            long key = key(priceTicks);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midKey = key(ticks[mid]);
+                if (midKey < key) {
+                    low = mid + 1;
+                } else if (midKey > key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // Index of the level, created empty if there was none
+        int levelAt(long priceTicks) {
+            int at = find(priceTicks);
+            if (at >= 0) {
+                return at;
+            }
+            at = -at - 1;
+            if (count == ticks.length) {
+                ticks = Arrays.copyOf(ticks, count * 2);
+                head = Arrays.copyOf(head, count * 2);
+                tail = Arrays.copyOf(tail, count * 2);
+            }
+            System.arraycopy(ticks, at, ticks, at + 1, count - at);
+            System.arraycopy(head, at, head, at + 1, count - at);
+            System.arraycopy(tail, at, tail, at + 1, count - at);
+            ticks[at] = priceTicks;
+            head[at] = NONE;
+            tail[at] = NONE;
+            count++;
+            return at;
+        }
     }
 }
 
 /* -----------------------------------------
     NOTES
 --------------------------------------------
-No need to manually override hashCode and equals for the Order record used in the TreeMaps:
+Why not TreeMap<BigDecimal, Order>:
 
-1. record Does It for us:
-One of the biggest advantages of using a record is that the Java compiler automatically generates
-equals(), hashCode(), and toString() methods for you based on all the fields in the record.
+1. One order per price:
+A map from price to a single order silently replaces the first order at a price with the second.
+A price needs a queue of orders, kept in arrival order for time priority.
 
-2. Correct implementation:
-The Order records will be considered equal if and only if all their corresponding fields have the
-same value. The hashCode is also generated consistently based on the values of all fields.
+2. Allocation and pointer chasing:
+Each TreeMap entry is an object, each BigDecimal key is another, and comparing two BigDecimals is
+far slower than comparing two longs. A sorted long[] of ticks is searched in one cache-friendly
+block, and orders are int slots in parallel arrays, so a sweep through many levels allocates nothing.
 
-3. Context in TreeMap:
-In the OrderBook the Order object is the value in the TreeMap, not the key. The TreeMap uses the
-equals() and hashCode() methods of its keys (the BigDecimal prices) to manage its structure, but
-it does not use these methods on its values.
+3. Best price at the end:
+Matching only ever removes the touch, and that is just count-- when the best level is the last
+element. Inserting a new level shifts only the levels better than it, which are few for the usual
+order that lands near the touch.
  --------------------------------------------*/
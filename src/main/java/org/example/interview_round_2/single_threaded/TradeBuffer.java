@@ -0,0 +1,81 @@
+package org.example.interview_round_2.single_threaded;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Reusable holder for the trades of one order, kept in parallel arrays. The engine clears it at the start of
+ * each order, so once it has grown to the largest sweep seen, filling it allocates nothing. Read it before
+ * passing it to the engine again.
+ */
+public final class TradeBuffer {
+    private String[] buyOrderIds = new String[16];
+    private String[] sellOrderIds = new String[16];
+    private int[] quantities = new int[16];
+    private long[] priceTicks = new long[16];
+    private BigDecimal tickSize = BigDecimal.ONE;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public String buyOrderId(int index) {
+        checkIndex(index);
+        return buyOrderIds[index];
+    }
+
+    public String sellOrderId(int index) {
+        checkIndex(index);
+        return sellOrderIds[index];
+    }
+
+    public int quantity(int index) {
+        checkIndex(index);
+        return quantities[index];
+    }
+
+    public long priceTicks(int index) {
+        checkIndex(index);
+        return priceTicks[index];
+    }
+
+    public BigDecimal price(int index) {
+        checkIndex(index);
+        return tickSize.multiply(BigDecimal.valueOf(priceTicks[index]));
+    }
+
+    /**
+     * A standalone copy of one trade.
+     */
+    public Trade toTrade(int index) {
+        return new Trade(buyOrderId(index), sellOrderId(index), quantity(index), price(index));
+    }
+
+    void clear() {
+        Arrays.fill(buyOrderIds, 0, size, null);
+        Arrays.fill(sellOrderIds, 0, size, null);
+        size = 0;
+    }
+
+    void add(String buyOrderId, String sellOrderId, int quantity, long ticks, BigDecimal tickSize) {
+        if (size == quantities.length) {
+            buyOrderIds = Arrays.copyOf(buyOrderIds, size * 2);
+            sellOrderIds = Arrays.copyOf(sellOrderIds, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+            priceTicks = Arrays.copyOf(priceTicks, size * 2);
+        }
+        buyOrderIds[size] = buyOrderId;
+        sellOrderIds[size] = sellOrderId;
+        quantities[size] = quantity;
+        priceTicks[size] = ticks;
+        this.tickSize = tickSize;
+        size++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Trade " + index + " of " + size);
+        }
+    }
+}
@@ -1,38 +1,60 @@
 package org.example.interview_round_2.single_threaded;
 
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Single-threaded reference engine: an incoming order sweeps every crossing level, partially filling the last
+ * order it reaches, and whatever is left rests in the book.
+ */
 public class TradingEngine {
-    private final OrderBook orderBook = new OrderBook();
+    private static final BigDecimal DEFAULT_TICK_SIZE = new BigDecimal("0.01");
 
-    public Optional<Trade> processOrder(Order newOrder) {
-        Optional<Trade> trade = (newOrder.side() == Order.Side.BUY)
-                ? tryMatchBuyOrder(newOrder)
-                : tryMatchSellOrder(newOrder);
+    private final OrderBook orderBook;
+    // Backs the List-returning convenience overload only
+    private final TradeBuffer scratch = new TradeBuffer();
 
-        // If no trade occurred, add the order to the book.
-        if (trade.isEmpty()) {
-            orderBook.addOrder(newOrder);
-        }
+    public TradingEngine() {
+        this(DEFAULT_TICK_SIZE);
+    }
 
-        return trade;
+    public TradingEngine(BigDecimal tickSize) {
+        this.orderBook = new OrderBook(tickSize);
     }
 
-    private Optional<Trade> tryMatchBuyOrder(Order buyOrder) {
-        return Optional.ofNullable(orderBook.getBestAsk())
-                .filter(bestAsk -> buyOrder.price().compareTo(bestAsk.price()) >= 0)
-                .map(bestAsk -> new Trade(buyOrder.id(),
-                        bestAsk.id(),
-                        Math.min(buyOrder.quantity(), bestAsk.quantity()),
-                        bestAsk.price()));
+    /**
+     * Match the order and rest any remainder, reporting fills through a buffer the caller reuses.
+     *
+     * @param trades cleared, then filled with this order's trades in execution order
+     * @return the number of trades
+     */
+    public int processOrder(Order newOrder, TradeBuffer trades) {
+        trades.clear();
+        long priceTicks = orderBook.toTicks(newOrder.price());
+        int remaining = orderBook.match(newOrder, priceTicks, newOrder.quantity(), trades);
+
+        // If the order is not fully filled, rest the remainder in the book.
+        if (remaining > 0) {
+            orderBook.addOrder(newOrder, priceTicks, remaining);
+        }
+        return trades.size();
+    }
+
+    /**
+     * As {@link #processOrder(Order, TradeBuffer)}, copying the trades out into a new list.
+     */
+    public List<Trade> processOrder(Order newOrder) {
+        int count = processOrder(newOrder, scratch);
+        List<Trade> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trades.add(scratch.toTrade(i));
+        }
+        return trades;
     }
 
-    private Optional<Trade> tryMatchSellOrder(Order sellOrder) {
-        return Optional.ofNullable(orderBook.getBestBid())
-                .filter(bestBid -> sellOrder.price().compareTo(bestBid.price()) <= 0)
-                .map(bestBid -> new Trade(bestBid.id(), sellOrder.id(),
-                        Math.min(sellOrder.quantity(), bestBid.quantity()),
-                        bestBid.price()));
+    public OrderBook orderBook() {
+        return orderBook;
     }
 }
 
@@ -0,0 +1,157 @@
+package org.example.OrderBook;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DepthIndexTest extends TestCase {
+
+    private final InstrumentSpec instrument = new InstrumentSpec("TEST", BigDecimal.ONE, BigDecimal.ONE);
+
+    public void testDepthPriceAndVwapOfAKnownSide() {
+        BookSide asks = new SkipListBookSide(OrderSide.SELL, instrument);
+        DepthIndex index = new DepthIndex(asks, OrderSide.SELL, 64);
+        add(asks, index, 100, 2);
+        add(asks, index, 101, 3);
+        add(asks, index, 105, 5);
+
+        assertEquals(0, index.depthUpTo(99));
+        assertEquals(5, index.depthUpTo(101));
+        assertEquals(10, index.depthUpTo(Long.MAX_VALUE));
+        assertEquals(101, index.priceForLots(5));
+        assertEquals(105, index.priceForLots(6));
+        assertEquals(DepthIndex.NONE, index.priceForLots(11));
+        assertEquals((200 + 303 + 105) / 6.0, index.vwapToFill(6), 1e-9);
+        assertTrue(Double.isNaN(index.vwapToFill(11)));
+    }
+
+    /**
+     * On the default 1e-8 grid, 10 @ 100 is 1e9 lots at 1e10 ticks: its notional is past what a long holds.
+     */
+    public void testVwapOnTheDefaultGridDoesNotOverflow() {
+        InstrumentSpec fine = InstrumentSpec.defaultFor("TEST");
+        for (OrderSide orderSide : OrderSide.values()) {
+            BookSide side = new SkipListBookSide(orderSide, fine);
+            DepthIndex index = new DepthIndex(side, orderSide, 64);
+            long near = fine.toTicks(new BigDecimal("100"));
+            long far = orderSide == OrderSide.SELL ? near + 1000 : near - 1000;
+            long lots = fine.toLots(BigDecimal.TEN);
+            for (long ticks : new long[] {near, far}) {
+                PriceLevel level = side.getOrCreate(ticks);
+                level.addOrder(new RestingOrder(new Order("O", orderSide, fine.priceOf(ticks), BigDecimal.TEN), ticks, lots));
+                index.add(ticks, lots);
+            }
+
+            assertEquals(near, index.vwapToFill(lots), 1e-6 * near);
+            // Half of the second level sits in the overflow list for this narrow window
+            double expected = (near + far * 0.5) / 1.5;
+            assertEquals(expected, index.vwapToFill(lots + lots / 2), 1e-9 * near);
+            assertTrue(Double.isNaN(index.vwapToFill(3 * lots)));
+        }
+    }
+
+    /**
+     * A narrow window, so the flow keeps spilling into the overflow and re-anchoring; every answer is checked
+     * against a walk over the levels.
+     */
+    public void testMatchesALevelWalkUnderRandomFlow() {
+        for (OrderSide orderSide : OrderSide.values()) {
+            Random random = new Random(7);
+            BookSide side = new SkipListBookSide(orderSide, instrument);
+            DepthIndex index = new DepthIndex(side, orderSide, 32);
+            long mid = 10_000;
+            for (int step = 0; step < 20_000; step++) {
+                mid += random.nextInt(7) - 3;
+                int action = random.nextInt(4);
+                if (action == 0 && !side.isEmpty()) {
+                    List<PriceLevel> levels = levels(side);
+                    trade(side, index, levels.get(random.nextInt(levels.size())), 1 + random.nextInt(4));
+                } else if (action == 1 && !side.isEmpty()) {
+                    trade(side, index, side.best(), Long.MAX_VALUE);
+                } else {
+                    add(side, index, Math.max(1, mid + (long) (random.nextGaussian() * 40)), 1 + random.nextInt(5));
+                }
+
+                long limit = mid + random.nextInt(121) - 60;
+                assertEquals(walkDepth(side, limit), index.depthUpTo(limit));
+                long wanted = 1 + random.nextInt(60);
+                assertEquals(walkPrice(side, wanted), index.priceForLots(wanted));
+                double vwap = walkVwap(side, wanted);
+                if (Double.isNaN(vwap)) {
+                    assertTrue(Double.isNaN(index.vwapToFill(wanted)));
+                } else {
+                    assertEquals(vwap, index.vwapToFill(wanted), 1e-9);
+                }
+            }
+        }
+    }
+
+    private void add(BookSide side, DepthIndex index, long priceTicks, long lots) {
+        PriceLevel level = side.getOrCreate(priceTicks);
+        level.addOrder(new RestingOrder(new Order("O", level.side, instrument.priceOf(priceTicks),
+                BigDecimal.valueOf(lots)), priceTicks, lots));
+        index.add(priceTicks, lots);
+    }
+
+    private void trade(BookSide side, DepthIndex index, PriceLevel level, long lots) {
+        RestingOrder taker = new RestingOrder(new Order("T", level.side == OrderSide.BUY ? OrderSide.SELL : OrderSide.BUY,
+                level.price, BigDecimal.ONE), level.priceTicks, lots);
+        long traded = 0;
+        while (taker.remainingLots > 0 && !level.isEmpty()) {
+            traded += level.executeAgainst(taker, (filledLevel, maker, filled) -> { });
+        }
+        side.removeIfEmpty(level);
+        index.add(level.priceTicks, -traded);
+    }
+
+    private static List<PriceLevel> levels(BookSide side) {
+        List<PriceLevel> levels = new ArrayList<>();
+        side.forEach(Integer.MAX_VALUE, levels::add);
+        return levels;
+    }
+
+    private static boolean within(PriceLevel level, long limitTicks) {
+        return level.side == OrderSide.BUY ? level.priceTicks >= limitTicks : level.priceTicks <= limitTicks;
+    }
+
+    private static long walkDepth(BookSide side, long limitTicks) {
+        long lots = 0;
+        for (PriceLevel level : levels(side)) {
+            if (within(level, limitTicks)) {
+                lots += level.totalLots();
+            }
+        }
+        return lots;
+    }
+
+    private static long walkPrice(BookSide side, long wanted) {
+        long lots = 0;
+        for (PriceLevel level : levels(side)) {
+            lots += level.totalLots();
+            if (lots >= wanted) {
+                return level.priceTicks;
+            }
+        }
+        return DepthIndex.NONE;
+    }
+
+    private static double walkVwap(BookSide side, long wanted) {
+        long lots = 0;
+        long notional = 0;
+        for (PriceLevel level : levels(side)) {
+            long take = Math.min(level.totalLots(), wanted - lots);
+            lots += take;
+            notional += take * level.priceTicks;
+            if (lots == wanted) {
+                return (double) notional / wanted;
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.OrderBook;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LockedPriceLevelTest extends TestCase {
+
+    /**
+     * Threads race adds, fills and reads on one level; once they are done its aggregates must balance exactly.
+     */
+    public void testRacingAddsAndFillsKeepTheLevelConsistent() throws Exception {
+        PriceLevel level = new LockedPriceLevel(100, BigDecimal.valueOf(100), OrderSide.SELL);
+        AtomicLong filled = new AtomicLong();
+        AtomicLong badReads = new AtomicLong();
+        int threads = 4;
+        int rounds = 20_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                RestingOrder taker = new RestingOrder("T", OrderSide.BUY, 100, 0, 1, 0);
+                for (int i = 0; i < rounds; i++) {
+                    level.addOrder(new RestingOrder("M", OrderSide.SELL, 100, 2, 2, 0));
+                    if (level.totalLots() < 0 || level.orderCount() < 0) {
+                        badReads.incrementAndGet();
+                    }
+                    taker.remainingLots = 1;
+                    filled.addAndGet(level.executeAgainst(taker, (filledLevel, maker, lots) -> { }));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(0, badReads.get());
+        assertEquals((long) threads * rounds, filled.get());
+        assertEquals(2L * threads * rounds - filled.get(), level.totalLots());
+        long[] queued = new long[2];
+        level.forEachOrder(order -> {
+            queued[0]++;
+            queued[1] += order.remainingLots;
+        });
+        assertEquals(level.orderCount(), queued[0]);
+        assertEquals(level.totalLots(), queued[1]);
+    }
+}
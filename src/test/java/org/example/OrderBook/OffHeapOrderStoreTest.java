@@ -0,0 +1,73 @@
+package org.example.OrderBook;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class OffHeapOrderStoreTest extends TestCase {
+
+    private static RestingOrder order(String id, long lots) {
+        return new RestingOrder(id, OrderSide.SELL, 10_000, lots, lots, 1_000_000_000_123L);
+    }
+
+    public void testSlotsAreReusedAndIdsFoundAcrossChunksAndRehashes() throws Exception {
+        try (OffHeapOrderStore store = new OffHeapOrderStore(null, 16)) {
+            int count = OffHeapOrderStore.CHUNK_SLOTS + 1_000;
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, store.allocate(order("id-" + i, i + 1)));
+            }
+            assertEquals(count, store.size());
+            for (int i = 0; i < count; i += 2) {
+                store.free(store.find("id-" + i));
+            }
+            assertEquals(count / 2, store.size());
+            for (int i = 0; i < count; i++) {
+                int slot = store.find("id-" + i);
+                if (i % 2 == 0) {
+                    assertEquals(OffHeapOrderStore.NONE, slot);
+                } else {
+                    RestingOrder view = store.view(slot);
+                    assertEquals("id-" + i, view.id);
+                    assertEquals(i + 1, view.remainingLots);
+                    assertEquals(OrderSide.SELL, view.side);
+                    assertEquals(1_000_000_000_123L, view.timestampNanos);
+                }
+            }
+            long reserved = store.reservedBytes();
+            // Freed slots are handed out again before the store grows
+            for (int i = 0; i < count / 2; i++) {
+                assertTrue(store.allocate(order("again-" + i, 1)) < count);
+            }
+            assertEquals(reserved, store.reservedBytes());
+        }
+    }
+
+    public void testNewestOrderWithAnIdShadowsTheOlderOne() throws Exception {
+        try (OffHeapOrderStore store = new OffHeapOrderStore(null, 16)) {
+            int older = store.allocate(order("dup", 1));
+            int newer = store.allocate(order("dup", 2));
+            for (int i = 0; i < 100; i++) {
+                store.allocate(order("other-" + i, 1)); // Forces rehashes
+            }
+            assertEquals(newer, store.find("dup"));
+            store.free(newer);
+            assertEquals(older, store.find("dup"));
+        }
+    }
+
+    public void testMappedFileIsRemovedOnClose() throws Exception {
+        Path directory = Files.createTempDirectory("off-heap");
+        Path file = directory.resolve("orders.slots");
+        try (OffHeapOrderStore store = new OffHeapOrderStore(file, 16)) {
+            store.allocate(order("ünïcode", 5));
+            assertEquals("ünïcode", store.view(store.find("ünïcode")).id);
+            assertTrue(Files.size(file) > 0);
+        }
+        assertFalse(Files.exists(file));
+        Files.delete(directory);
+        assertFalse(OffHeapOrderStore.storable("x".repeat(OffHeapOrderStore.MAX_ID_LENGTH + 1)));
+        assertFalse(OffHeapOrderStore.storable("日本"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.OrderBook;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PriceLadderBookSideTest extends TestCase {
+
+    private final InstrumentSpec instrument = new InstrumentSpec("TEST", BigDecimal.ONE, BigDecimal.ONE);
+
+    public void testBestPriceFollowsAddsAndRemovals() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(OrderSide.SELL, instrument, 64, 100);
+        PriceLevel at101 = add(asks, 101);
+        PriceLevel at103 = add(asks, 103);
+        assertSame(at101, asks.best());
+
+        empty(asks, at101);
+        assertSame(at103, asks.best());
+        empty(asks, at103);
+        assertNull(asks.best());
+        assertTrue(asks.isEmpty());
+    }
+
+    public void testFarPricesOverflowAndComeBackOnRecentre() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(OrderSide.BUY, instrument, 64, 1000);
+        PriceLevel touch = add(bids, 1000);
+        PriceLevel far = add(bids, 500);
+        assertEquals(2, bids.levelCount());
+        assertSame(far, bids.get(500));
+
+        empty(bids, touch);
+        assertSame(far, bids.best());
+
+        PriceLevel better = add(bids, 2000);
+        assertSame(better, bids.best());
+        assertSame(far, bids.get(500));
+    }
+
+    /**
+     * Drive both implementations with the same random flow and compare the visible depth after every step.
+     */
+    public void testMatchesSkipListUnderRandomFlow() {
+        for (OrderSide side : OrderSide.values()) {
+            Random random = new Random(42);
+            BookSide expected = new SkipListBookSide(side, instrument);
+            BookSide ladder = new PriceLadderBookSide(side, instrument, 128, 0);
+            long mid = 10_000;
+            for (int step = 0; step < 20_000; step++) {
+                mid += random.nextInt(7) - 3;
+                long price = mid + (long) (random.nextGaussian() * 40);
+                if (random.nextInt(3) == 0) {
+                    PriceLevel level = expected.best();
+                    if (level != null) {
+                        empty(expected, level);
+                        empty(ladder, ladder.best());
+                    }
+                } else {
+                    add(expected, price);
+                    add(ladder, price);
+                }
+                assertEquals(depth(expected), depth(ladder));
+            }
+        }
+    }
+
+    private PriceLevel add(BookSide side, long priceTicks) {
+        PriceLevel level = side.getOrCreate(priceTicks);
+        OrderSide orderSide = level.side;
+        level.addOrder(new RestingOrder(new Order("O", orderSide, instrument.priceOf(priceTicks), BigDecimal.ONE), priceTicks, 1));
+        return level;
+    }
+
+    private void empty(BookSide side, PriceLevel level) {
+        RestingOrder taker = new RestingOrder(
+                new Order("T", level.side == OrderSide.BUY ? OrderSide.SELL : OrderSide.BUY, level.price, BigDecimal.ONE),
+                level.priceTicks, Long.MAX_VALUE);
+        while (!level.isEmpty()) {
+            level.executeAgainst(taker, (filledLevel, maker, lots) -> { });
+        }
+        side.removeIfEmpty(level);
+    }
+
+    private List<String> depth(BookSide side) {
+        List<String> levels = new ArrayList<>();
+        side.forEach(Integer.MAX_VALUE, level -> levels.add(level.priceTicks + "x" + level.totalLots()));
+        return levels;
+    }
+}
@@ -0,0 +1,863 @@
+package org.example.OrderBook;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.entities.Trade;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.enums.RejectionPolicy;
+import org.example.OrderBook.enums.TimeInForce;
+import org.example.OrderBook.journal.BookSnapshotConfig;
+import org.example.OrderBook.journal.JournalConfig;
+import org.example.OrderBook.marketdata.MarketDataPublisher;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+public class ThreadSafeOrderBookTest extends TestCase {
+
+    private static final BigDecimal PRICE = new BigDecimal("100");
+
+    public void testSequencedModeMatchesInPriceTimePriority() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("1"))).join();
+            book.addOrder(new Order("S2", OrderSide.SELL, PRICE, new BigDecimal("1"))).join();
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("1.5"))).join();
+
+            assertEquals(2, result.trades().size());
+            assertEquals(0, BigDecimal.ONE.compareTo(result.trades().get(0).quantity()));
+            assertEquals(0, new BigDecimal("0.5").compareTo(result.trades().get(1).quantity()));
+
+            MarketData snapshot = book.createSnapshot();
+            assertTrue(snapshot.bids().isEmpty());
+            assertEquals(0, new BigDecimal("0.5").compareTo(snapshot.asks().get(0).quantity()));
+        }
+    }
+
+    public void testSequencedModeCancel() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("1")));
+
+            assertTrue(book.cancelOrder("B1").join().success());
+            assertFalse(book.cancelOrder("B1").join().success());
+            assertTrue(book.createSnapshot().bids().isEmpty());
+        }
+    }
+
+    public void testCancelInsideQueueKeepsFifoOfTheRest() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            for (String id : new String[]{"S1", "S2", "S3"}) {
+                book.addOrder(new Order(id, OrderSide.SELL, PRICE, BigDecimal.ONE));
+            }
+            assertTrue(book.cancelOrder("S2").join().success());
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("2"))).join();
+
+            assertEquals("S1", result.trades().get(0).sellOrderId());
+            assertEquals("S3", result.trades().get(1).sellOrderId());
+            assertFalse(book.cancelOrder("S3").join().success());
+        }
+    }
+
+    public void testSequencedModeKeepsEveryOrderFromConcurrentProducers() throws Exception {
+        int producers = 8;
+        int ordersPerProducer = 2_000;
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < ordersPerProducer; i++) {
+                        book.addOrder(new Order(producer + "-" + i, OrderSide.BUY, PRICE, BigDecimal.ONE));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // The cancel is sequenced after every add, so it sees a fully built book
+            book.cancelOrder("missing").join();
+            BigDecimal resting = book.createSnapshot().bids().get(0).quantity();
+            assertEquals(0, BigDecimal.valueOf((long) producers * ordersPerProducer).compareTo(resting));
+        }
+    }
+
+    public void testOrdersOffTheInstrumentGridAreRejected() throws Exception {
+        InstrumentSpec spec = new InstrumentSpec("TEST", new BigDecimal("0.5"), new BigDecimal("0.1"));
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(spec, data -> { }, MatchingMode.SEQUENCED)) {
+            assertFalse(book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("100.25"), BigDecimal.ONE)).join().success());
+            assertFalse(book.addOrder(new Order("B2", OrderSide.BUY, PRICE, new BigDecimal("0.05"))).join().success());
+
+            Order sell = new Order("S1", OrderSide.SELL, new BigDecimal("99.5"), new BigDecimal("0.3"));
+            book.addOrder(sell).join();
+            OrderResult buy = book.addOrder(new Order("B3", OrderSide.BUY, PRICE, new BigDecimal("0.1"))).join();
+
+            assertEquals("B3", buy.trades().get(0).buyOrderId());
+            assertEquals("S1", buy.trades().get(0).sellOrderId());
+            assertEquals(0, new BigDecimal("99.5").compareTo(buy.trades().get(0).price()));
+            assertEquals(0, new BigDecimal("0.2").compareTo(sell.getRemainingQuantity()));
+        }
+    }
+
+    public void testPriceLadderSweepsAcrossLevels() throws Exception {
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .priceLadder(1024, PRICE)
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+            book.addOrder(new Order("S1", OrderSide.SELL, new BigDecimal("100.01"), BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("100.02"), BigDecimal.ONE));
+            book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("250"), BigDecimal.ONE));
+
+            OrderResult sweep = book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("300"), new BigDecimal("4"))).join();
+
+            assertEquals(3, sweep.trades().size());
+            assertEquals(0, new BigDecimal("250").compareTo(sweep.trades().get(2).price()));
+            assertEquals(0, new BigDecimal("300").compareTo(book.createSnapshot().bids().get(0).price()));
+            assertTrue(book.createSnapshot().asks().isEmpty());
+        }
+    }
+
+    public void testIncrementalModePublishesOneDeltaPerTouchedLevel() throws Exception {
+        List<MarketDataDelta> deltas = new CopyOnWriteArrayList<>();
+        List<MarketData> snapshots = new CopyOnWriteArrayList<>();
+        MarketDataPublisher publisher = new MarketDataPublisher() {
+            @Override
+            public void publish(MarketData data) {
+                snapshots.add(data);
+            }
+
+            @Override
+            public void publishDelta(MarketDataDelta delta) {
+                deltas.add(delta);
+            }
+        };
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .incrementalMarketData(0)
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, publisher)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, PRICE, BigDecimal.ONE));
+            book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+            book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("2.5"))).join();
+
+            assertTrue(snapshots.isEmpty());
+            assertEquals(5, deltas.size());
+            MarketDataDelta sweptLevel = deltas.get(3);
+            assertEquals(OrderSide.SELL, sweptLevel.side());
+            assertEquals(0, BigDecimal.ZERO.compareTo(sweptLevel.quantity()));
+            assertEquals(0, new BigDecimal("0.5").compareTo(deltas.get(4).quantity()));
+            for (int i = 0; i < deltas.size(); i++) {
+                assertEquals(i + 1, deltas.get(i).sequence());
+            }
+
+            book.requestSnapshot();
+            book.cancelOrder("missing").join();
+            while (snapshots.isEmpty()) {
+                Thread.onSpinWait();
+            }
+            assertEquals(5, snapshots.get(0).sequence());
+        }
+    }
+
+    public void testJournaledBookIsRebuiltAfterRestart() throws Exception {
+        Path directory = Files.createTempDirectory("book-journal");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .journal(JournalConfig.of(directory))
+                .build();
+        try {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2")));
+                book.addOrder(new Order("S2", OrderSide.SELL, PRICE, BigDecimal.ONE));
+                book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("0.5")));
+                book.cancelOrder("S2").join();
+            }
+
+            List<MarketData> published = new CopyOnWriteArrayList<>();
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, published::add)) {
+                assertEquals(4, book.recoveredSequence());
+                assertEquals(1, published.size());
+                assertEquals(0, new BigDecimal("1.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+                OrderResult result = book.addOrder(new Order("B2", OrderSide.BUY, PRICE, BigDecimal.TEN)).join();
+                assertEquals("S1", result.trades().get(0).sellOrderId());
+                assertEquals(0, new BigDecimal("1.5").compareTo(result.trades().get(0).quantity()));
+                assertFalse(book.cancelOrder("S2").join().success());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    public void testBookIsRestoredFromSnapshotPlusJournalTail() throws Exception {
+        Path directory = Files.createTempDirectory("book-snapshots");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .journal(JournalConfig.of(directory.resolve("journal")))
+                .bookSnapshots(BookSnapshotConfig.of(directory.resolve("snapshots"), 3))
+                .build();
+        try {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2")));
+                book.addOrder(new Order("S2", OrderSide.SELL, PRICE, BigDecimal.ONE));
+                book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("0.5"))).join();
+                Path written = book.lastBookSnapshot().join();
+                assertTrue(written.getFileName().toString().contains("00000000000000000003"));
+
+                // Tail after the snapshot, replayed from the journal
+                book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+                book.cancelOrder("S2").join();
+            }
+
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertEquals(5, book.recoveredSequence());
+                assertEquals(2, book.createSnapshot().asks().size());
+                assertEquals(0, new BigDecimal("1.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+                // S1 kept its place and its partially filled quantity
+                OrderResult result = book.addOrder(new Order("B2", OrderSide.BUY, new BigDecimal("101"), BigDecimal.TEN)).join();
+                assertEquals(2, result.trades().size());
+                assertEquals("S1", result.trades().get(0).sellOrderId());
+                assertEquals(0, new BigDecimal("1.5").compareTo(result.trades().get(0).quantity()));
+                assertEquals("S3", result.trades().get(1).sellOrderId());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Levels untouched between two book snapshots are shared by both; the ones that traded must be copied
+     * again. The journal is dropped before the restart, so the second snapshot alone has to hold the book.
+     */
+    public void testLevelsChangedSinceTheLastSnapshotAreCapturedAgain() throws Exception {
+        Path directory = Files.createTempDirectory("book-snapshots");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .journal(JournalConfig.of(directory.resolve("journal")))
+                .bookSnapshots(BookSnapshotConfig.of(directory.resolve("snapshots"), 2))
+                .build();
+        try {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2")));
+                book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE)).join();
+                book.lastBookSnapshot().join();
+
+                book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("0.5")));
+                book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("102"), BigDecimal.ONE)).join();
+                assertTrue(book.lastBookSnapshot().join().getFileName().toString().contains("00000000000000000004"));
+            }
+            try (Stream<Path> files = Files.walk(directory.resolve("journal"))) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertEquals(3, book.createSnapshot().asks().size());
+                assertEquals(0, new BigDecimal("1.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+                assertEquals(0, BigDecimal.ONE.compareTo(book.createSnapshot().asks().get(1).quantity()));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    public void testDepthViewAndBestPricesFollowTheBook() throws Exception {
+        InstrumentSpec instrument = new InstrumentSpec("TEST", BigDecimal.ONE, BigDecimal.ONE);
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(instrument, data -> { }, MatchingMode.EXTERNAL)) {
+            assertNull(book.bestBid());
+            assertNull(book.bestAsk());
+
+            book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("99"), new BigDecimal("3")));
+            book.addOrder(new Order("B2", OrderSide.BUY, new BigDecimal("98"), new BigDecimal("4")));
+            book.addOrder(new Order("B3", OrderSide.BUY, new BigDecimal("97"), new BigDecimal("5")));
+            book.addOrder(new Order("S1", OrderSide.SELL, new BigDecimal("101"), new BigDecimal("6")));
+            assertEquals(0, new BigDecimal("99").compareTo(book.bestBid()));
+            assertEquals(0, new BigDecimal("101").compareTo(book.bestAsk()));
+
+            BookDepth depth = new BookDepth(2);
+            book.readDepth(depth);
+            assertEquals(2, depth.bidLevels());
+            assertEquals(98, depth.bidTicks(1));
+            assertEquals(4, depth.bidLots(1));
+            assertEquals(1, depth.askLevels());
+            assertEquals(6, depth.askLots(0));
+
+            book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("99"), new BigDecimal("3")));
+            book.readDepth(depth);
+            assertEquals(98, depth.bidTicks(0));
+            assertEquals(97, depth.bidTicks(1));
+            assertEquals(0, new BigDecimal("98").compareTo(book.bestBid()));
+        }
+    }
+
+    public void testConcurrentDepthReadersNeverSeeATornBook() throws Exception {
+        InstrumentSpec instrument = new InstrumentSpec("TEST", BigDecimal.ONE, BigDecimal.ONE);
+        int window = 5;
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(instrument, data -> { }, MatchingMode.EXTERNAL)) {
+            for (int i = 1; i <= window; i++) {
+                book.addOrder(new Order("B" + i, OrderSide.BUY, BigDecimal.valueOf(i), BigDecimal.ONE));
+            }
+
+            // Every published state is window or window + 1 consecutive one-lot bid levels
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<String> failure = new AtomicReference<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                Thread reader = new Thread(() -> {
+                    BookDepth depth = new BookDepth(ThreadSafeOrderBook.DEPTH_LEVELS);
+                    while (!done.get() && failure.get() == null) {
+                        book.readDepth(depth);
+                        if (depth.bidLevels() != window && depth.bidLevels() != window + 1) {
+                            failure.set("Saw " + depth.bidLevels() + " levels");
+                        }
+                        for (int i = 0; i < depth.bidLevels(); i++) {
+                            if (depth.bidLots(i) != 1 || (i > 0 && depth.bidTicks(i) != depth.bidTicks(i - 1) - 1)) {
+                                failure.set("Torn level " + i + " at " + depth.bidTicks(i));
+                            }
+                        }
+                    }
+                });
+                reader.start();
+                readers.add(reader);
+            }
+
+            // Slide the window up one tick at a time: add above, then cancel the bottom
+            for (int top = window + 1; top < 50_000 && failure.get() == null; top++) {
+                book.addOrder(new Order("B" + top, OrderSide.BUY, BigDecimal.valueOf(top), BigDecimal.ONE));
+                book.cancelOrder("B" + (top - window));
+            }
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertNull(failure.get());
+        }
+    }
+
+    private static List<OrderEvent> requote() {
+        return List.of(
+                new OrderEvent(OrderEventType.ADD, new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE), 0),
+                new OrderEvent(OrderEventType.ADD, new Order("S2", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE), 0),
+                new OrderEvent(OrderEventType.ADD, new Order("B1", OrderSide.BUY, new BigDecimal("99"), BigDecimal.ONE), 0),
+                OrderEvent.cancel("missing", 0),
+                new OrderEvent(OrderEventType.MODIFY, new Order("S2", OrderSide.SELL, PRICE, BigDecimal.TEN), 0),
+                new OrderEvent(OrderEventType.ADD, new Order("B2", OrderSide.BUY, PRICE, new BigDecimal("2")), 0));
+    }
+
+    private static void assertRequoteResults(List<OrderResult> results) {
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(3).success());
+        assertEquals("missing", results.get(3).orderId());
+        List<Trade> trades = results.get(5).trades();
+        assertEquals(2, trades.size());
+        assertEquals("S1", trades.get(0).sellOrderId());
+        assertEquals("S2", trades.get(1).sellOrderId());
+    }
+
+    public void testBatchIsAppliedInOrderAndPublishedOnce() throws Exception {
+        List<MarketData> published = new CopyOnWriteArrayList<>();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", published::add, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("B0", OrderSide.BUY, new BigDecimal("98"), BigDecimal.ONE)).join();
+            published.clear();
+
+            assertRequoteResults(book.submitBatch(requote()).join());
+
+            assertEquals(1, published.size());
+            MarketData data = published.get(0);
+            assertEquals(2, data.bids().size());
+            assertEquals(0, new BigDecimal("9").compareTo(data.asks().get(0).quantity()));
+            assertTrue(book.cancelOrder("B0").join().success());
+        }
+    }
+
+    public void testIncrementalBatchSendsOneDeltaPerLevelItTouched() throws Exception {
+        List<MarketDataDelta> deltas = new CopyOnWriteArrayList<>();
+        MarketDataPublisher publisher = new MarketDataPublisher() {
+            @Override
+            public void publish(MarketData data) {
+            }
+
+            @Override
+            public void publishDelta(MarketDataDelta delta) {
+                deltas.add(delta);
+            }
+        };
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.EXTERNAL)
+                .incrementalMarketData(0)
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, publisher)) {
+            assertRequoteResults(book.submitBatch(requote()).join());
+
+            // Asks at 100 and 101 and the bid at 99, however many times each changed
+            assertEquals(3, deltas.size());
+            assertEquals(3, deltas.get(2).sequence());
+        }
+    }
+
+    public void testConcurrentModeBatch() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.CONCURRENT)) {
+            assertRequoteResults(book.submitBatch(requote()).join());
+            assertEquals(1, book.createSnapshot().bids().size());
+        }
+    }
+
+    public void testModifyDownKeepsPriorityAndOtherChangesLoseIt() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("3")));
+            book.addOrder(new Order("S2", OrderSide.SELL, PRICE, new BigDecimal("3")));
+            book.addOrder(new Order("S3", OrderSide.SELL, PRICE, new BigDecimal("3")));
+
+            Order smaller = new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE);
+            assertEquals("Order modified in place", book.modifyOrder(smaller).join().message());
+            // Growing S2 sends it behind S3
+            assertTrue(book.modifyOrder(new Order("S2", OrderSide.SELL, PRICE, new BigDecimal("4"))).join().success());
+            assertEquals(0, new BigDecimal("8").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("5"))).join();
+            assertEquals("S1", result.trades().get(0).sellOrderId());
+            assertEquals(0, BigDecimal.ONE.compareTo(result.trades().get(0).quantity()));
+            assertEquals("S3", result.trades().get(1).sellOrderId());
+            assertEquals("S2", result.trades().get(2).sellOrderId());
+            assertEquals(0, BigDecimal.ZERO.compareTo(smaller.getRemainingQuantity()));
+            assertEquals(0, new BigDecimal("3").compareTo(book.createSnapshot().asks().get(0).quantity()));
+        }
+    }
+
+    public void testModifyToCrossingPriceMatchesAndBadModifyLeavesOrderAlone() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+            book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("2")));
+
+            assertFalse(book.modifyOrder(new Order("B1", OrderSide.SELL, PRICE, BigDecimal.ONE)).join().success());
+            assertFalse(book.modifyOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ZERO)).join().success());
+            assertEquals(0, new BigDecimal("2").compareTo(book.createSnapshot().bids().get(0).quantity()));
+
+            OrderResult moved = book.modifyOrder(new Order("B1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("2"))).join();
+            assertEquals(1, moved.trades().size());
+            assertEquals("S1", moved.trades().get(0).sellOrderId());
+            MarketData data = book.createSnapshot();
+            assertTrue(data.asks().isEmpty());
+            assertEquals(0, new BigDecimal("101").compareTo(data.bids().get(0).price()));
+            assertEquals(1, data.bids().size());
+        }
+    }
+
+    public void testRejectedIcebergModifyLeavesTheOrderResting() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.TEN));
+
+            // A display larger than the order is refused before the cancel half of the cancel/replace
+            assertFalse(book.modifyOrder(Order.iceberg("S1", OrderSide.SELL, new BigDecimal("101"), BigDecimal.TEN,
+                    new BigDecimal("11"))).join().success());
+            MarketData data = book.createSnapshot();
+            assertEquals(0, PRICE.compareTo(data.asks().get(0).price()));
+            assertEquals(0, BigDecimal.TEN.compareTo(data.asks().get(0).quantity()));
+            assertTrue(book.cancelOrder("S1").join().success());
+            assertTrue(book.createSnapshot().asks().isEmpty());
+        }
+    }
+
+    public void testMarketIocAndFillOrKillNeverRest() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+
+            // Two lots are there within 101 but not three, so nothing trades
+            OrderResult killed = book.addOrder(Order.limit("F1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("3"),
+                    TimeInForce.FOK)).join();
+            assertFalse(killed.success());
+            assertEquals(2, book.createSnapshot().asks().size());
+
+            OrderResult ioc = book.addOrder(Order.limit("I1", OrderSide.BUY, PRICE, new BigDecimal("1.5"),
+                    TimeInForce.IOC)).join();
+            assertEquals("Order processed, remainder cancelled", ioc.message());
+            assertEquals(1, ioc.trades().size());
+            assertTrue(book.createSnapshot().bids().isEmpty());
+            assertFalse(book.cancelOrder("I1").join().success());
+
+            OrderResult filled = book.addOrder(Order.limit("F2", OrderSide.BUY, new BigDecimal("101"), BigDecimal.ONE,
+                    TimeInForce.FOK)).join();
+            assertEquals("S2", filled.trades().get(0).sellOrderId());
+
+            Order market = Order.market("M1", OrderSide.SELL, BigDecimal.ONE);
+            OrderResult unfilled = book.addOrder(market).join();
+            assertTrue(unfilled.success());
+            assertTrue(unfilled.trades().isEmpty());
+            assertTrue(book.createSnapshot().asks().isEmpty());
+            assertEquals(0, BigDecimal.ONE.compareTo(market.getRemainingQuantity()));
+        }
+    }
+
+    public void testPostOnlyRejectsAndIcebergsRefillAtTheBack() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook("TEST", data -> { }, MatchingMode.SEQUENCED)) {
+            book.addOrder(Order.iceberg("ICE", OrderSide.SELL, PRICE, new BigDecimal("5"), BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, PRICE, BigDecimal.ONE));
+
+            assertFalse(book.addOrder(Order.postOnly("P1", OrderSide.BUY, PRICE, BigDecimal.ONE)).join().success());
+            assertTrue(book.addOrder(Order.postOnly("P2", OrderSide.BUY, new BigDecimal("99"), BigDecimal.ONE)).join().success());
+            assertFalse(book.modifyOrder(Order.postOnly("P2", OrderSide.BUY, PRICE, BigDecimal.ONE)).join().success());
+            assertEquals(0, new BigDecimal("99").compareTo(book.bestBid()));
+            // Only the slice shows
+            assertEquals(0, new BigDecimal("2").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("2.5"))).join();
+            assertEquals(3, result.trades().size());
+            assertEquals("ICE", result.trades().get(0).sellOrderId());
+            assertEquals("S2", result.trades().get(1).sellOrderId());
+            assertEquals("ICE", result.trades().get(2).sellOrderId());
+            assertEquals(0, new BigDecimal("0.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+            // The hidden reserve counts towards a fill-or-kill
+            OrderResult sweep = book.addOrder(Order.limit("F1", OrderSide.BUY, PRICE, new BigDecimal("3.5"),
+                    TimeInForce.FOK)).join();
+            assertTrue(sweep.success());
+            assertEquals(4, sweep.trades().size());
+            assertTrue(book.createSnapshot().asks().isEmpty());
+        }
+    }
+
+    public void testOrderTypesSurviveSnapshotAndJournalReplay() throws Exception {
+        Path directory = Files.createTempDirectory("book-order-types");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.SEQUENCED)
+                .journal(JournalConfig.of(directory.resolve("journal")))
+                .bookSnapshots(BookSnapshotConfig.of(directory.resolve("snapshots"), 2))
+                .build();
+        try {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                book.addOrder(Order.iceberg("ICE", OrderSide.SELL, PRICE, new BigDecimal("4"), BigDecimal.ONE));
+                book.addOrder(Order.postOnly("P1", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE)).join();
+                book.lastBookSnapshot().join();
+
+                // Tail after the snapshot, replayed from the journal
+                book.addOrder(Order.market("M1", OrderSide.BUY, new BigDecimal("1.5")));
+                book.addOrder(Order.limit("I1", OrderSide.BUY, new BigDecimal("99"), BigDecimal.ONE, TimeInForce.IOC)).join();
+            }
+
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertEquals(4, book.recoveredSequence());
+                assertTrue(book.createSnapshot().bids().isEmpty());
+                assertEquals(0, new BigDecimal("0.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+
+                OrderResult result = book.addOrder(Order.limit("F1", OrderSide.BUY, new BigDecimal("101"),
+                        new BigDecimal("3.5"), TimeInForce.FOK)).join();
+                assertEquals(4, result.trades().size());
+                assertEquals("P1", result.trades().get(3).sellOrderId());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    public void testDepthIndexFollowsFillsCancelsAndIcebergs() throws Exception {
+        InstrumentSpec instrument = new InstrumentSpec("TEST", BigDecimal.ONE, BigDecimal.ONE);
+        OrderBookConfig config = OrderBookConfig.builder(instrument)
+                .matchingMode(MatchingMode.EXTERNAL)
+                .depthIndex(1024)
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2")));
+            book.addOrder(Order.iceberg("S2", OrderSide.SELL, new BigDecimal("101"), new BigDecimal("6"), BigDecimal.ONE));
+            book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("103"), new BigDecimal("4")));
+            book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("99"), new BigDecimal("5")));
+
+            assertEquals(8, book.depthUpTo(OrderSide.SELL, 101));
+            assertEquals(101, book.priceForQuantity(OrderSide.SELL, 3));
+            assertEquals((200 + 101) / 3.0, book.vwapToFill(OrderSide.SELL, 3), 1e-9);
+            assertEquals(5, book.depthUpTo(OrderSide.BUY, 1));
+            assertEquals(-1, book.priceForQuantity(OrderSide.BUY, 6));
+
+            assertFalse(book.addOrder(Order.limit("F1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("9"),
+                    TimeInForce.FOK)).join().success());
+            book.addOrder(new Order("T1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("3")));
+            assertEquals(5, book.depthUpTo(OrderSide.SELL, 101));
+            book.cancelOrder("S3");
+            assertEquals(5, book.depthUpTo(OrderSide.SELL, Long.MAX_VALUE));
+            assertEquals(5, book.addOrder(Order.market("M1", OrderSide.BUY, BigDecimal.TEN)).join().trades().size());
+            assertEquals(0, book.depthUpTo(OrderSide.SELL, Long.MAX_VALUE));
+            assertTrue(Double.isNaN(book.vwapToFill(OrderSide.SELL, 1)));
+        }
+    }
+
+    private static OrderBookConfig concurrent(ExecutionConfig execution) {
+        return OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.CONCURRENT)
+                .execution(execution)
+                .build();
+    }
+
+    /**
+     * A modify racing a cancel of the same order: whichever runs first, a cancel that reports success must
+     * leave nothing resting.
+     */
+    public void testConcurrentCancelIsNeverUndoneByARacingModify() throws Exception {
+        ExecutionConfig execution = ExecutionConfig.boundedPool(4, 64, RejectionPolicy.BLOCK);
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(concurrent(execution), data -> { })) {
+            for (int i = 0; i < 2_000; i++) {
+                String id = "B" + i;
+                book.addOrder(new Order(id, OrderSide.BUY, PRICE, BigDecimal.ONE)).join();
+                CompletableFuture<OrderResult> modify =
+                        book.modifyOrder(new Order(id, OrderSide.BUY, new BigDecimal("99"), new BigDecimal("2")));
+                OrderResult cancel = book.cancelOrder(id).join();
+                modify.join();
+
+                if (cancel.success()) {
+                    assertTrue("Cancelled order " + id + " still rests", book.createSnapshot().bids().isEmpty());
+                } else {
+                    // The cancel ran while the modify was between its remove and re-add; clear the book
+                    assertTrue(book.cancelOrder(id).join().success());
+                }
+            }
+        }
+    }
+
+    public void testCallerRunsExecutorCompletesInline() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(concurrent(ExecutionConfig.callerRuns()), data -> { })) {
+            CompletableFuture<OrderResult> result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE));
+            assertTrue(result.isDone());
+            assertTrue(result.join().success());
+        }
+    }
+
+    public void testSlowSubscriberDoesNotHoldUpConcurrentEvents() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<MarketData> published = new CopyOnWriteArrayList<>();
+        MarketDataPublisher stalling = data -> {
+            stalled.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            published.add(data);
+        };
+        ExecutionConfig execution = ExecutionConfig.boundedPool(2, 16, RejectionPolicy.BLOCK);
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(concurrent(execution), stalling)) {
+            CompletableFuture<OrderResult> first = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE));
+            stalled.await();
+            // Publication happens outside the batch lock, so neither a shared nor an exclusive event waits for it
+            assertTrue(book.addOrder(new Order("B2", OrderSide.BUY, PRICE, BigDecimal.ONE)).get(5, TimeUnit.SECONDS).success());
+            Order fok = Order.limit("S1", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE, TimeInForce.FOK);
+            assertFalse(book.addOrder(fok).get(5, TimeUnit.SECONDS).success());
+            assertEquals(0, new BigDecimal("2").compareTo(book.createSnapshot().bids().get(0).quantity()));
+
+            release.countDown();
+            assertTrue(first.join().success());
+            // The stalled publisher picked up the refreshes made meanwhile: its last snapshot has both orders
+            assertEquals(0, new BigDecimal("2").compareTo(published.get(published.size() - 1).bids().get(0).quantity()));
+        }
+    }
+
+    public void testPinnedThreadRejectsOnceItsQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> matcherThreads = new CopyOnWriteArrayList<>();
+        MarketDataPublisher stalling = data -> {
+            matcherThreads.add(Thread.currentThread().getName());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutionConfig execution = ExecutionConfig.pinnedThread(1, RejectionPolicy.REJECT);
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(concurrent(execution), stalling)) {
+            CompletableFuture<OrderResult> running = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE));
+            while (matcherThreads.isEmpty()) {
+                Thread.onSpinWait();
+            }
+            CompletableFuture<OrderResult> queued = book.addOrder(new Order("B2", OrderSide.BUY, PRICE, BigDecimal.ONE));
+            OrderResult rejected = book.addOrder(new Order("B3", OrderSide.BUY, PRICE, BigDecimal.ONE)).join();
+            assertFalse(rejected.success());
+            assertEquals("Order book is overloaded", rejected.message());
+
+            release.countDown();
+            assertTrue(running.join().success());
+            assertTrue(queued.join().success());
+            assertEquals("matcher-TEST", matcherThreads.get(0));
+        }
+    }
+
+    public void testClosedConcurrentBookRejectsEvents() throws Exception {
+        ExecutionConfig execution = ExecutionConfig.boundedPool(2, 16, RejectionPolicy.BLOCK);
+        ThreadSafeOrderBook book = new ThreadSafeOrderBook(concurrent(execution), data -> { });
+        book.close();
+        OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE)).join();
+        assertEquals("Order book is closed", result.message());
+    }
+
+    public void testClosedPoolRejectsEventsUnderEveryPolicy() throws Exception {
+        for (RejectionPolicy policy : RejectionPolicy.values()) {
+            EventExecutor executor = new EventExecutor(ExecutionConfig.boundedPool(2, 16, policy), "TEST");
+            executor.close();
+            try {
+                executor.submit(() -> "ran");
+                fail("Expected " + policy + " to reject after close");
+            } catch (RejectedExecutionException expected) {
+            }
+        }
+    }
+
+    public void testVirtualThreadsNeedAJvmThatHasThem() throws Exception {
+        OrderBookConfig config = concurrent(ExecutionConfig.virtualThreads(16, RejectionPolicy.BLOCK));
+        if (Runtime.version().feature() >= 21) {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertTrue(book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE)).join().success());
+            }
+        } else {
+            try {
+                new ThreadSafeOrderBook(config, data -> { });
+                fail("Expected virtual threads to be unavailable");
+            } catch (UnsupportedOperationException expected) {
+            }
+        }
+    }
+
+    public void testFillsGoToTheExecutionSinkWithSequenceDerivedIds() throws Exception {
+        List<Trade> reported = new ArrayList<>();
+        List<Long> makerRemaining = new ArrayList<>();
+        InstrumentSpec instrument = InstrumentSpec.defaultFor("TEST");
+        OrderBookConfig config = OrderBookConfig.builder(instrument)
+                .matchingMode(MatchingMode.EXTERNAL)
+                .executionSink(report -> {
+                    reported.add(report.toTrade(instrument));
+                    makerRemaining.add(report.makerRemainingLots());
+                })
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+            book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("102"), new BigDecimal("2")));
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("102"), new BigDecimal("3"))).join();
+            assertTrue(result.trades().isEmpty());
+            assertEquals(3, reported.size());
+            assertEquals("TEST-" + (4L << 20), reported.get(0).id());
+            assertEquals("TEST-" + ((4L << 20) | 2), reported.get(2).id());
+            assertEquals("B1", reported.get(2).buyOrderId());
+            assertEquals("S3", reported.get(2).sellOrderId());
+            assertEquals(0, new BigDecimal("102").compareTo(reported.get(2).price()));
+            assertEquals(reported.get(0).timestamp(), reported.get(2).timestamp());
+            assertEquals(Long.valueOf(0), makerRemaining.get(0));
+            assertEquals(Long.valueOf(instrument.toLots(BigDecimal.ONE)), makerRemaining.get(2));
+        }
+    }
+
+    public void testPrimitiveOrderIndexCancelsModifiesAndForgetsFilledOrders() throws Exception {
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.EXTERNAL)
+                .primitiveOrderIndex(2) // Undersized on purpose, to grow
+                .build();
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+            Order s1 = new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2"));
+            book.addOrder(s1);
+            for (int i = 2; i <= 6; i++) {
+                book.addOrder(new Order("S" + i, OrderSide.SELL, PRICE, BigDecimal.ONE));
+            }
+            assertTrue(book.cancelOrder("S3").join().success());
+            assertFalse(book.cancelOrder("S3").join().success());
+            assertEquals("Order modified in place",
+                    book.modifyOrder(new Order("S4", OrderSide.SELL, PRICE, new BigDecimal("0.5"))).join().message());
+
+            OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, PRICE, new BigDecimal("3.5"))).join();
+            assertEquals(3, result.trades().size());
+            assertEquals("S1", result.trades().get(0).sellOrderId());
+            assertEquals("S2", result.trades().get(1).sellOrderId());
+            assertEquals("S4", result.trades().get(2).sellOrderId());
+            // The book let go of S1's Order when it rested, so the passive fill is not written back
+            assertEquals(0, new BigDecimal("2").compareTo(s1.getRemainingQuantity()));
+
+            assertFalse(book.cancelOrder("S1").join().success());
+            assertFalse(book.cancelOrder("S4").join().success());
+            assertTrue(book.cancelOrder("S5").join().success());
+            assertEquals(0, BigDecimal.ONE.compareTo(book.createSnapshot().asks().get(0).quantity()));
+        }
+    }
+
+    public void testPrimitiveOrderIndexNeedsASingleWriter() {
+        try {
+            OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST")).primitiveOrderIndex(16).build();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testOffHeapOrdersMatchCancelModifyAndRestore() throws Exception {
+        Path directory = Files.createTempDirectory("off-heap-book");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("TEST"))
+                .matchingMode(MatchingMode.EXTERNAL)
+                .offHeapOrders(OffHeapConfig.mapped(directory.resolve("orders.slots")), 16)
+                .journal(JournalConfig.of(directory.resolve("journal")))
+                .bookSnapshots(BookSnapshotConfig.of(directory.resolve("snapshots"), 6))
+                .build();
+        try {
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                book.addOrder(new Order("S1", OrderSide.SELL, PRICE, new BigDecimal("2")));
+                book.addOrder(new Order("S2", OrderSide.SELL, PRICE, BigDecimal.ONE));
+                book.addOrder(new Order("S3", OrderSide.SELL, new BigDecimal("101"), new BigDecimal("3")));
+                assertTrue(book.cancelOrder("S2").join().success());
+                assertFalse(book.modifyOrder(Order.iceberg("S2", OrderSide.SELL, PRICE, BigDecimal.ONE, BigDecimal.ONE))
+                        .join().success());
+                assertFalse(book.modifyOrder(Order.iceberg("S3", OrderSide.SELL, PRICE, new BigDecimal("3"), BigDecimal.ONE))
+                        .join().success());
+                assertEquals("Order modified in place",
+                        book.modifyOrder(new Order("S3", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE)).join().message());
+
+                OrderResult result = book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("2.5"))).join();
+                assertEquals(2, result.trades().size());
+                assertEquals("S1", result.trades().get(0).sellOrderId());
+                assertEquals("S3", result.trades().get(1).sellOrderId());
+                assertFalse(book.cancelOrder("S1").join().success());
+                assertEquals(0, new BigDecimal("0.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+                book.lastBookSnapshot().join();
+
+                assertFalse(book.addOrder(new Order("x".repeat(OffHeapOrderStore.MAX_ID_LENGTH + 1), OrderSide.BUY,
+                        PRICE, BigDecimal.ONE)).join().success());
+            }
+
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertEquals(0, new BigDecimal("0.5").compareTo(book.createSnapshot().asks().get(0).quantity()));
+                assertTrue(book.cancelOrder("S3").join().success());
+                assertTrue(book.createSnapshot().asks().isEmpty());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
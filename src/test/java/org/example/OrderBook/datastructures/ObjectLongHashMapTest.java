@@ -0,0 +1,48 @@
+package org.example.OrderBook.datastructures;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ObjectLongHashMapTest extends TestCase {
+
+    public void testChurnMatchesHashMap() {
+        ObjectLongHashMap<String> map = new ObjectLongHashMap<>(4, -1);
+        Map<String, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            String key = "order-" + random.nextInt(5_000);
+            long expected = reference.getOrDefault(key, -1L);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    long value = random.nextInt(1_000_000);
+                    reference.put(key, value);
+                    assertEquals(expected, map.put(key, value));
+                }
+                case 1 -> {
+                    reference.remove(key);
+                    assertEquals(expected, map.remove(key));
+                }
+                default -> assertEquals(expected, map.get(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+    }
+
+    public void testRemoveKeepsCollidingKeysReachable() {
+        // Eight keys in a 16-cell table: runs form, and removal has to shift them back
+        ObjectLongHashMap<Integer> map = new ObjectLongHashMap<>(8, -1);
+        for (int key = 0; key < 8; key++) {
+            map.put(key * 16, key * 10L);
+        }
+        for (int key = 0; key < 8; key += 2) {
+            assertEquals(key * 10L, map.remove(key * 16));
+        }
+        assertEquals(4, map.size());
+        for (int key = 0; key < 8; key++) {
+            assertEquals(key % 2 == 1 ? key * 10L : -1, map.get(key * 16));
+        }
+    }
+}
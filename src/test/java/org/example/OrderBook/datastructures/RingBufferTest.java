@@ -0,0 +1,97 @@
+package org.example.OrderBook.datastructures;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class RingBufferTest extends TestCase {
+
+    public void testRejectsNonPowerOfTwoCapacity() {
+        try {
+            new RingBuffer<Integer>(12);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testOfferFailsWhenFullAndPollIsFifo() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    public void testBatchClaimAndDrain() {
+        RingBuffer<Integer> ring = new RingBuffer<>(8);
+        long first = ring.tryClaim(5);
+        assertEquals(0, first);
+        assertEquals(-1, ring.tryClaim(4));
+
+        // Publishing out of order only exposes the contiguous prefix
+        ring.publish(first + 1, 1);
+        assertTrue(ring.isEmpty());
+        for (int i = 0; i < 5; i++) {
+            if (i != 1) {
+                ring.publish(first + i, i);
+            }
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(5, ring.drainTo(drained::add, 16));
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(5, ring.tryClaim(8));
+    }
+
+    public void testMultipleProducersAndConsumersLoseNothing() throws Exception {
+        int producers = 4;
+        int consumers = 2;
+        int perProducer = 50_000;
+        RingBuffer<Integer> ring = new RingBuffer<>(1024, new YieldingWaitStrategy());
+        BitSet seen = new BitSet(producers * perProducer);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.put(base + i);
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                while (true) {
+                    Integer item = ring.take();
+                    if (item < 0) {
+                        return;
+                    }
+                    synchronized (seen) {
+                        assertFalse("Duplicate " + item, seen.get(item));
+                        seen.set(item);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (int p = 0; p < producers; p++) {
+            threads.get(p).join();
+        }
+        for (int c = 0; c < consumers; c++) {
+            ring.put(-1);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, seen.cardinality());
+    }
+}
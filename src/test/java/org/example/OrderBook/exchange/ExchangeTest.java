@@ -0,0 +1,98 @@
+package org.example.OrderBook.exchange;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderResult;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+import org.example.OrderBook.journal.JournalConfig;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class ExchangeTest extends TestCase {
+
+    private static OrderBookConfig external(String symbol) {
+        return OrderBookConfig.builder(InstrumentSpec.defaultFor(symbol)).matchingMode(MatchingMode.EXTERNAL).build();
+    }
+
+    public void testRoutesBySymbolAndSpreadsSymbolsOverShards() {
+        try (Exchange exchange = new Exchange(2)) {
+            exchange.addInstrument(external("AAPL"), data -> { });
+            exchange.addInstrument(external("MSFT"), data -> { });
+            assertTrue(exchange.shardOf("AAPL") != exchange.shardOf("MSFT"));
+
+            exchange.addOrder("AAPL", new Order("A1", OrderSide.SELL, BigDecimal.TEN, BigDecimal.ONE));
+            OrderResult crossSymbol = exchange.addOrder("MSFT", new Order("M1", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ONE)).join();
+            OrderResult sameSymbol = exchange.addOrder("AAPL", new Order("A2", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ONE)).join();
+
+            assertTrue(crossSymbol.trades().isEmpty());
+            assertEquals(1, sameSymbol.trades().size());
+            assertFalse(exchange.addOrder("IBM", new Order("I1", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ONE)).join().success());
+        }
+    }
+
+    public void testMovingASymbolKeepsEachProducersOrder() throws InterruptedException {
+        try (Exchange exchange = new Exchange(2)) {
+            exchange.addInstrument(external("AAPL"), data -> { }, 0);
+            AtomicInteger failedCancels = new AtomicInteger();
+            int pairs = 20_000;
+
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < pairs; i++) {
+                    String id = "O" + i;
+                    exchange.addOrder("AAPL", new Order(id, OrderSide.BUY, BigDecimal.ONE, BigDecimal.ONE));
+                    exchange.cancelOrder("AAPL", id).thenAccept(result -> {
+                        if (!result.success()) {
+                            failedCancels.incrementAndGet();
+                        }
+                    });
+                }
+            });
+            producer.start();
+            for (int move = 1; move <= 10; move++) {
+                exchange.moveSymbol("AAPL", move % 2).join();
+            }
+            producer.join();
+            exchange.cancelOrder("AAPL", "flush").join();
+
+            assertEquals(0, failedCancels.get());
+            assertTrue(exchange.snapshot("AAPL").bids().isEmpty());
+            assertEquals(1, exchange.shardStats().stream().mapToInt(ShardStats::symbols).sum());
+        }
+    }
+
+    public void testClosingTheExchangeClosesItsBooks() throws Exception {
+        Path directory = Files.createTempDirectory("exchange-journal");
+        OrderBookConfig config = OrderBookConfig.builder(InstrumentSpec.defaultFor("AAPL"))
+                .matchingMode(MatchingMode.EXTERNAL)
+                .journal(JournalConfig.of(directory))
+                .build();
+        try {
+            try (Exchange exchange = new Exchange(2)) {
+                exchange.addInstrument(config, data -> { });
+                exchange.addOrder("AAPL", new Order("S1", OrderSide.SELL, BigDecimal.TEN, new BigDecimal("2")));
+                exchange.addOrder("AAPL", new Order("B1", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ONE)).join();
+            }
+            // The book's journal was closed with the exchange, so its flusher is gone
+            String flusher = "journal-flusher-" + directory.getFileName();
+            assertTrue(Thread.getAllStackTraces().keySet().stream().noneMatch(thread -> thread.getName().equals(flusher)));
+
+            try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config, data -> { })) {
+                assertEquals(2, book.recoveredSequence());
+                assertEquals(0, BigDecimal.ONE.compareTo(book.createSnapshot().asks().get(0).quantity()));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
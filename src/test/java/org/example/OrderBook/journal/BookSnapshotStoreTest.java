@@ -0,0 +1,112 @@
+package org.example.OrderBook.journal;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class BookSnapshotStoreTest extends TestCase {
+
+    private static final InstrumentSpec INSTRUMENT = InstrumentSpec.defaultFor("TEST");
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("book-snapshot");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static BookSnapshot snapshot(long sequence) {
+        BookSnapshot.Level bids = new BookSnapshot.Level(OrderSide.BUY, 10_000, 2);
+        bids.addOrder("B1", 50, 50, 1_000_000_000_001L, 0, 0);
+        bids.addOrder("B2", 7, 10, 1_000_000_000_002L, 0, 0);
+        BookSnapshot.Level asks = new BookSnapshot.Level(OrderSide.SELL, 10_100, 1);
+        asks.addOrder("S1", 100, 125, 1_000_000_000_003L, 100, 300);
+
+        BookSnapshot snapshot = new BookSnapshot(sequence, 1); // Undersized on purpose, to grow
+        snapshot.addLevel(bids);
+        snapshot.addLevel(asks);
+        return snapshot;
+    }
+
+    public void testRoundTripKeepsLevelsAndQueueOrder() throws Exception {
+        BookSnapshotStore store = new BookSnapshotStore(BookSnapshotConfig.of(directory, 10), INSTRUMENT);
+        store.write(snapshot(42));
+
+        BookSnapshot loaded = store.loadLatest();
+        assertEquals(42, loaded.sequence());
+        assertEquals(2, loaded.levelCount());
+        BookSnapshot.Level bids = loaded.level(0);
+        assertEquals(OrderSide.BUY, bids.side());
+        assertEquals(10_000, bids.priceTicks());
+        assertEquals(2, bids.orderCount());
+        BookSnapshot.Level asks = loaded.level(1);
+        assertEquals(OrderSide.SELL, asks.side());
+        assertEquals(1, asks.orderCount());
+
+        assertEquals(3, loaded.orderCount());
+        assertEquals("B1", bids.orderId(0));
+        assertEquals("B2", bids.orderId(1));
+        assertEquals(7, bids.remainingLots(1));
+        assertEquals(125, asks.originalLots(0));
+        assertEquals(1_000_000_000_003L, asks.timestampNanos(0));
+        assertEquals(100, asks.displayLots(0));
+        assertEquals(300, asks.hiddenLots(0));
+    }
+
+    /**
+     * Characters outside the BMP take 4 bytes of UTF-8 but 6 of the modified UTF-8 that writeUTF uses.
+     */
+    public void testAnyIdTheJournalAcceptsRoundTrips() throws Exception {
+        String longId = "\uD83D\uDE80".repeat(16_000);
+        BookSnapshot.Level level = new BookSnapshot.Level(OrderSide.BUY, 10_000, 2);
+        level.addOrder(longId, 1, 1, 0, 0, 0);
+        level.addOrder("nul\u0000-id", 2, 2, 0, 0, 0);
+        BookSnapshot snapshot = new BookSnapshot(7, 1);
+        snapshot.addLevel(level);
+
+        BookSnapshotStore store = new BookSnapshotStore(BookSnapshotConfig.of(directory, 10), INSTRUMENT);
+        store.write(snapshot);
+        BookSnapshot loaded = store.loadLatest();
+        assertEquals(longId, loaded.level(0).orderId(0));
+        assertEquals("nul\u0000-id", loaded.level(0).orderId(1));
+    }
+
+    public void testCorruptNewestFallsBackAndOldOnesArePruned() throws Exception {
+        BookSnapshotStore store = new BookSnapshotStore(new BookSnapshotConfig(directory, 10, 2), INSTRUMENT);
+        store.write(snapshot(1));
+        store.write(snapshot(2));
+        Path newest = store.write(snapshot(3));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+
+        byte[] bytes = Files.readAllBytes(newest);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(newest, bytes);
+        assertEquals(2, store.loadLatest().sequence());
+    }
+
+    public void testDifferentInstrumentGridIsRefused() throws Exception {
+        new BookSnapshotStore(BookSnapshotConfig.of(directory, 10), INSTRUMENT).write(snapshot(1));
+        InstrumentSpec coarser = new InstrumentSpec("TEST", new BigDecimal("1"), INSTRUMENT.lotSize());
+        try {
+            new BookSnapshotStore(BookSnapshotConfig.of(directory, 10), coarser).loadLatest();
+            fail("Expected the tick size mismatch to be refused");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.OrderBook.journal;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.entities.OrderEvent;
+import org.example.OrderBook.enums.OrderEventType;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class EventJournalTest extends TestCase {
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static OrderEvent add(String id, long sequence) {
+        return new OrderEvent(OrderEventType.ADD,
+                new Order(id, OrderSide.BUY, new BigDecimal("50000.25"), new BigDecimal("0.125")), sequence);
+    }
+
+    private List<OrderEvent> readBack(JournalConfig config, long afterSequence) throws Exception {
+        List<OrderEvent> events = new ArrayList<>();
+        try (EventJournal journal = new EventJournal(config)) {
+            journal.replay(afterSequence, events::add);
+        }
+        return events;
+    }
+
+    public void testEventsSurviveReopenAndSegmentRolls() throws Exception {
+        JournalConfig config = new JournalConfig(directory, JournalConfig.MIN_SEGMENT_BYTES, 100);
+        int count = 5_000; // ~80 bytes each, so several segments
+        try (EventJournal journal = new EventJournal(config)) {
+            for (int i = 1; i <= count; i++) {
+                journal.append(i % 3 == 0 ? OrderEvent.cancel("id-" + (i - 1), i) : add("id-" + i, i));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 2);
+        }
+
+        List<OrderEvent> events = readBack(config, 0);
+        assertEquals(count, events.size());
+        OrderEvent first = events.get(0);
+        assertEquals("id-1", first.orderId());
+        assertEquals(new BigDecimal("50000.25"), first.order().getPrice());
+        assertEquals(new BigDecimal("0.125"), first.order().getRemainingQuantity());
+        assertNull(events.get(2).order());
+        assertEquals(OrderEventType.CANCEL, events.get(2).type());
+
+        // Reopening appends after the existing tail
+        try (EventJournal journal = new EventJournal(config)) {
+            assertEquals(count, journal.lastSequence());
+            journal.append(add("ünïcode-id", count + 1));
+        }
+        List<OrderEvent> tail = readBack(config, count - 1);
+        assertEquals(2, tail.size());
+        assertEquals("ünïcode-id", tail.get(1).orderId());
+        assertEquals(count + 1, tail.get(1).sequence());
+    }
+
+    public void testSegmentsBehindASnapshotAreDiscarded() throws Exception {
+        JournalConfig config = new JournalConfig(directory, JournalConfig.MIN_SEGMENT_BYTES, 0);
+        int count = 5_000;
+        long segments;
+        try (EventJournal journal = new EventJournal(config)) {
+            for (int i = 1; i <= count; i++) {
+                journal.append(add("id-" + i, i));
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                segments = files.count();
+            }
+            journal.discardThrough(4_000);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            long left = files.count();
+            assertTrue(left < segments);
+        }
+
+        // Reopens from the oldest segment left and replays the tail after the snapshot
+        List<OrderEvent> tail = readBack(config, 4_000);
+        assertEquals(count - 4_000, tail.size());
+        assertEquals(4_001, tail.get(0).sequence());
+        try {
+            readBack(config, 0);
+            fail("Expected the discarded events to be reported missing");
+        } catch (IOException expected) {
+        }
+    }
+
+    public void testTornTailIsDroppedAndOverwritten() throws Exception {
+        JournalConfig config = new JournalConfig(directory, JournalConfig.MIN_SEGMENT_BYTES, 0);
+        try (EventJournal journal = new EventJournal(config)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(add("id-" + i, i));
+            }
+        }
+
+        // Corrupt the last record's body, as if the crash hit before its page reached the disk
+        Path segment = directory.resolve("segment-00000000.journal");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            int recordBytes = length.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 2L * recordBytes + 20);
+        }
+
+        try (EventJournal journal = new EventJournal(config)) {
+            assertEquals(2, journal.lastSequence());
+            journal.append(add("id-3b", 3));
+        }
+        List<OrderEvent> events = readBack(config, 0);
+        assertEquals(3, events.size());
+        assertEquals("id-3b", events.get(2).orderId());
+    }
+}
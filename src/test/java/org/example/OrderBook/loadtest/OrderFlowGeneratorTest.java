@@ -0,0 +1,68 @@
+package org.example.OrderBook.loadtest;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.entities.FlowEvent;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.enums.FlowEventType;
+import org.example.OrderBook.enums.MatchingMode;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class OrderFlowGeneratorTest extends TestCase {
+
+    private static final InstrumentSpec INSTRUMENT = new InstrumentSpec("LOAD", new BigDecimal("0.01"), BigDecimal.ONE);
+
+    private static OrderFlowConfig config(long seed) {
+        return OrderFlowConfig.builder(INSTRUMENT).seed(seed).eventCount(20_000).eventsPerSecond(100_000).build();
+    }
+
+    public void testSameSeedGivesSameFlowAndMixFollowsWeights() {
+        List<FlowEvent> first = new OrderFlowGenerator(config(7)).generate();
+        assertEquals(first, new OrderFlowGenerator(config(7)).generate());
+        assertFalse(first.equals(new OrderFlowGenerator(config(8)).generate()));
+
+        long limits = first.stream().filter(event -> event.type() == FlowEventType.LIMIT).count();
+        long cancels = first.stream().filter(event -> event.type() == FlowEventType.CANCEL).count();
+        assertTrue("limits " + limits, Math.abs(limits - 12_000) < 600);
+        assertTrue("cancels " + cancels, Math.abs(cancels - 6_000) < 600);
+
+        // Poisson arrivals at 100k/s: 20k events should span about 0.2 s
+        long span = first.get(first.size() - 1).timestampNanos();
+        assertTrue("span " + span, span > 180_000_000L && span < 220_000_000L);
+        for (int i = 1; i < first.size(); i++) {
+            assertTrue(first.get(i).timestampNanos() >= first.get(i - 1).timestampNanos());
+        }
+    }
+
+    public void testRecordedFlowReplaysAgainstBothEngines() throws Exception {
+        List<FlowEvent> flow = new OrderFlowGenerator(config(3)).generate();
+        Path file = Files.createTempFile("flow", ".csv");
+        try {
+            FlowFile.write(file, flow);
+            assertEquals(flow, FlowFile.read(file));
+        } finally {
+            Files.delete(file);
+        }
+
+        OrderBookConfig bookConfig = OrderBookConfig.builder(INSTRUMENT).matchingMode(MatchingMode.SEQUENCED).build();
+        try (EngineTarget book = new OrderBookTarget(bookConfig, data -> { })) {
+            LoadReport report = FlowReplayer.maxSpeed(book).replay(flow);
+            assertEquals(flow.size(), report.submitted());
+            assertEquals(flow.size(), report.responseTime().getTotalCount());
+            assertTrue(report.rejected() > 0); // cancels of orders that had already filled
+        }
+
+        try (EngineTarget engine = new TradingEngineTarget(INSTRUMENT.symbol())) {
+            LoadReport report = FlowReplayer.maxSpeed(engine).replay(flow);
+            long skipped = flow.stream()
+                    .filter(event -> event.type() == FlowEventType.CANCEL || event.type() == FlowEventType.MODIFY)
+                    .count();
+            assertEquals(skipped, report.unsupported());
+            assertEquals(flow.size() - skipped, report.submitted());
+        }
+    }
+}
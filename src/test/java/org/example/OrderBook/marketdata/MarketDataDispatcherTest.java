@@ -0,0 +1,144 @@
+package org.example.OrderBook.marketdata;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.entities.MarketData;
+import org.example.OrderBook.entities.MarketDataDelta;
+import org.example.OrderBook.entities.PriceQuantity;
+import org.example.OrderBook.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+public class MarketDataDispatcherTest extends TestCase {
+
+    public void testSlowDeliverAllSubscriberIsDisconnectedWithoutBlockingPublisher() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<MarketDataDelta> fast = new CopyOnWriteArrayList<>();
+        try (MarketDataDispatcher dispatcher = new MarketDataDispatcher()) {
+            dispatcher.subscribe("slow", blockingSubscriber(release), DeliveryPolicy.deliverAll(8));
+            dispatcher.subscribe("fast", deltaCollector(fast), DeliveryPolicy.deliverAll(1024));
+
+            for (int i = 1; i <= 100; i++) {
+                dispatcher.publishDelta(delta(i));
+            }
+            release.countDown();
+            awaitDelivered(dispatcher, "fast", 100);
+
+            SubscriberStats slow = stats(dispatcher, "slow");
+            assertTrue(slow.disconnected());
+            assertTrue(slow.dropped() > 0);
+            assertEquals(100, fast.size());
+            assertEquals(100, fast.get(99).sequence());
+        }
+    }
+
+    public void testConflatingSubscriberKeepsLatestPerLevel() {
+        List<MarketDataDelta> received = new CopyOnWriteArrayList<>();
+        try (MarketDataDispatcher dispatcher = new MarketDataDispatcher()) {
+            dispatcher.subscribe("conflated", deltaCollector(received), DeliveryPolicy.conflate());
+            dispatcher.publish(new MarketData(List.of(new PriceQuantity(BigDecimal.TEN, BigDecimal.ONE)), List.of(), Instant.now(), 0));
+            awaitDelivered(dispatcher, "conflated", 1);
+
+            // Same price level over and over while the subscriber is between deliveries
+            for (int i = 1; i <= 1_000; i++) {
+                dispatcher.publishDelta(delta(i));
+            }
+            SubscriberStats stats = stats(dispatcher, "conflated");
+            while (stats.delivered() + stats.conflated() < 1_001) {
+                Thread.onSpinWait();
+                stats = stats(dispatcher, "conflated");
+            }
+
+            assertEquals(1_001, stats.received());
+            assertEquals(0, stats.pending());
+            assertEquals(1_000, received.get(received.size() - 1).sequence());
+        }
+    }
+
+    public void testConflatedDeltasArriveInSequenceOrder() {
+        List<MarketDataDelta> received = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try (MarketDataDispatcher dispatcher = new MarketDataDispatcher()) {
+            dispatcher.subscribe("conflated", new MarketDataPublisher() {
+                @Override
+                public void publish(MarketData data) {
+                    await(release);
+                }
+
+                @Override
+                public void publishDelta(MarketDataDelta delta) {
+                    received.add(delta);
+                }
+            }, DeliveryPolicy.conflate());
+            // The subscriber sits on the snapshot while bids and asks interleave behind it
+            dispatcher.publish(new MarketData(List.of(), List.of(), Instant.now(), 0));
+            for (int i = 1; i <= 40; i++) {
+                OrderSide side = i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL;
+                BigDecimal price = BigDecimal.valueOf(100 + i % 4);
+                dispatcher.publishDelta(new MarketDataDelta(side, price, BigDecimal.valueOf(i), i));
+            }
+            release.countDown();
+            SubscriberStats stats = stats(dispatcher, "conflated");
+            while (stats.delivered() + stats.conflated() < 41) {
+                Thread.onSpinWait();
+                stats = stats(dispatcher, "conflated");
+            }
+
+            for (int i = 1; i < received.size(); i++) {
+                assertTrue(received.get(i - 1).sequence() < received.get(i).sequence());
+            }
+        }
+    }
+
+    private static MarketDataDelta delta(long sequence) {
+        return new MarketDataDelta(OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(sequence), sequence);
+    }
+
+    private static MarketDataPublisher deltaCollector(List<MarketDataDelta> sink) {
+        return new MarketDataPublisher() {
+            @Override
+            public void publish(MarketData data) {
+            }
+
+            @Override
+            public void publishDelta(MarketDataDelta delta) {
+                sink.add(delta);
+            }
+        };
+    }
+
+    private static MarketDataPublisher blockingSubscriber(CountDownLatch release) {
+        return new MarketDataPublisher() {
+            @Override
+            public void publish(MarketData data) {
+                await(release);
+            }
+
+            @Override
+            public void publishDelta(MarketDataDelta delta) {
+                await(release);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitDelivered(MarketDataDispatcher dispatcher, String name, long count) {
+        while (stats(dispatcher, name).delivered() < count) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static SubscriberStats stats(MarketDataDispatcher dispatcher, String name) {
+        return dispatcher.stats().stream().filter(s -> s.name().equals(name)).findFirst().orElseThrow();
+    }
+}
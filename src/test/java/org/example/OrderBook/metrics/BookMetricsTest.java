@@ -0,0 +1,89 @@
+package org.example.OrderBook.metrics;
+
+import junit.framework.TestCase;
+import org.example.OrderBook.OrderBookConfig;
+import org.example.OrderBook.ThreadSafeOrderBook;
+import org.example.OrderBook.entities.InstrumentSpec;
+import org.example.OrderBook.entities.Order;
+import org.example.OrderBook.enums.BookCounter;
+import org.example.OrderBook.enums.BookStage;
+import org.example.OrderBook.enums.MatchingMode;
+import org.example.OrderBook.enums.OrderSide;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class BookMetricsTest extends TestCase {
+
+    private static final BigDecimal PRICE = new BigDecimal("100");
+
+    private static OrderBookConfig config(MatchingMode mode, MetricsConfig metrics) {
+        return OrderBookConfig.builder(InstrumentSpec.defaultFor("METRICS")).matchingMode(mode).metrics(metrics).build();
+    }
+
+    public void testBookWithoutMetricsHasNone() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config(MatchingMode.EXTERNAL, null), data -> { })) {
+            assertNull(book.metrics());
+        }
+    }
+
+    public void testStagesAndCountersFollowTheEvents() throws Exception {
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config(MatchingMode.SEQUENCED, MetricsConfig.inProcess()), data -> { })) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE));
+            book.addOrder(new Order("S2", OrderSide.SELL, new BigDecimal("101"), BigDecimal.ONE));
+            book.addOrder(new Order("B1", OrderSide.BUY, new BigDecimal("99"), BigDecimal.ONE));
+            book.addOrder(new Order("B2", OrderSide.BUY, new BigDecimal("101"), new BigDecimal("3")));
+            book.cancelOrder("B1");
+            book.cancelOrder("nope").join();
+
+            BookMetrics metrics = book.metrics();
+            assertEquals(4, metrics.count(BookCounter.ORDERS));
+            assertEquals(2, metrics.count(BookCounter.CANCELS));
+            assertEquals(1, metrics.count(BookCounter.REJECTS));
+            assertEquals(2, metrics.count(BookCounter.FILLS));
+            // S1, S2, B1, then B2's remainder at 101
+            assertEquals(4, metrics.count(BookCounter.LEVELS_OPENED));
+            assertEquals(3, metrics.count(BookCounter.LEVELS_CLOSED));
+            assertEquals(1, metrics.getRestingOrders());
+            assertEquals(1, metrics.getBidLevels());
+            assertEquals(0, metrics.getAskLevels());
+
+            assertEquals(6, metrics.latency(BookStage.EVENT).getTotalCount());
+            assertEquals(6, metrics.latency(BookStage.QUEUE).getTotalCount());
+            assertEquals(4, metrics.latency(BookStage.MATCH).getTotalCount());
+            assertEquals(4, metrics.latency(BookStage.ADD_TO_LEVEL).getTotalCount());
+            assertEquals(5, metrics.latency(BookStage.PUBLISH).getTotalCount());
+
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            metrics.dump(new PrintStream(text, true));
+            assertTrue(text.toString().contains("fills=2"));
+            assertTrue(text.toString().contains("MATCH        ns: count=4"));
+            // A dump covers only what happened since the previous one
+            text.reset();
+            metrics.dump(new PrintStream(text, true));
+            assertTrue(text.toString().contains("MATCH        ns: count=0"));
+        }
+    }
+
+    public void testMetricsAreReadableOverJmxUntilTheBookCloses() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.example.OrderBook:type=BookMetrics,symbol=\"METRICS\"");
+        try (ThreadSafeOrderBook book = new ThreadSafeOrderBook(config(MatchingMode.CONCURRENT, MetricsConfig.jmxOnly()), data -> { })) {
+            book.addOrder(new Order("S1", OrderSide.SELL, PRICE, BigDecimal.ONE)).join();
+            book.addOrder(new Order("B1", OrderSide.BUY, PRICE, BigDecimal.ONE)).join();
+
+            assertEquals(2L, server.getAttribute(name, "Orders"));
+            assertEquals(1L, server.getAttribute(name, "Fills"));
+            assertEquals(0L, server.getAttribute(name, "RestingOrders"));
+            assertNotNull(server.getAttribute(name, "LatencyNanos"));
+            Map<String, Long> latencies = book.metrics().getLatencyNanos();
+            assertTrue(latencies.get("EVENT.max") > 0);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
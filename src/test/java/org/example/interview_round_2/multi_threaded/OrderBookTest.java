@@ -0,0 +1,69 @@
+package org.example.interview_round_2.multi_threaded;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OrderBookTest extends TestCase {
+
+    public void testOrdersAtOnePriceQueueInTimePriority() {
+        OrderBook book = new OrderBook();
+        book.processOrder(new Order("S1", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(150)));
+        book.processOrder(new Order("S2", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(150)));
+        book.processOrder(new Order("S3", "AAPL", Order.Side.SELL, 50, BigDecimal.valueOf(151)));
+
+        List<Trade> trades = book.processOrder(new Order("B1", "AAPL", Order.Side.BUY, 120, BigDecimal.valueOf(151)));
+
+        assertEquals(3, trades.size());
+        assertEquals("S1", trades.get(0).sellOrderId());
+        assertEquals("S2", trades.get(1).sellOrderId());
+        assertEquals("S3", trades.get(2).sellOrderId());
+        assertEquals(20, trades.get(2).quantity());
+        assertEquals(30, book.restingQuantity(Order.Side.SELL));
+        assertEquals(0, book.restingQuantity(Order.Side.BUY));
+        assertEquals(0, BigDecimal.valueOf(151).compareTo(book.bestAsk()));
+    }
+
+    /**
+     * Buys and sells race around one mid; afterwards nothing is lost or made up, and the book is not crossed.
+     */
+    public void testRacingOrdersNeverLeaveTheBookCrossed() throws Exception {
+        OrderBook book = new OrderBook();
+        AtomicInteger submittedBuys = new AtomicInteger();
+        AtomicInteger submittedSells = new AtomicInteger();
+        AtomicInteger traded = new AtomicInteger();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            Thread worker = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    boolean buy = random.nextBoolean();
+                    int quantity = 1 + random.nextInt(10);
+                    BigDecimal price = BigDecimal.valueOf(1_000 + random.nextInt(11) - 5);
+                    (buy ? submittedBuys : submittedSells).addAndGet(quantity);
+                    for (Trade trade : book.processOrder(new Order(seed + "-" + i, "AAPL",
+                            buy ? Order.Side.BUY : Order.Side.SELL, quantity, price))) {
+                        traded.addAndGet(trade.quantity());
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(submittedBuys.get(), traded.get() + book.restingQuantity(Order.Side.BUY));
+        assertEquals(submittedSells.get(), traded.get() + book.restingQuantity(Order.Side.SELL));
+        if (book.bestBid() != null && book.bestAsk() != null) {
+            assertTrue(book.bestBid().compareTo(book.bestAsk()) < 0);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.interview_round_2.single_threaded;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TradingEngineTest extends TestCase {
+
+    public void testAggressorSweepsLevelsAndRestsTheRemainder() {
+        TradingEngine engine = new TradingEngine();
+        TradeBuffer trades = new TradeBuffer();
+        engine.processOrder(sell("S1", 30, "100.00"), trades);
+        engine.processOrder(sell("S2", 20, "100.00"), trades);
+        engine.processOrder(sell("S3", 40, "100.01"), trades);
+        engine.processOrder(sell("S4", 10, "100.05"), trades);
+
+        assertEquals(3, engine.processOrder(buy("B1", 80, "100.02"), trades));
+        assertEquals("S1", trades.sellOrderId(0));
+        assertEquals(30, trades.quantity(0));
+        assertEquals("S2", trades.sellOrderId(1));
+        assertEquals(20, trades.quantity(1));
+        assertEquals("S3", trades.sellOrderId(2));
+        assertEquals(30, trades.quantity(2));
+        assertEquals(0, new BigDecimal("100.01").compareTo(trades.price(2)));
+
+        // S3 keeps its 10 lots; the buy has nothing left to rest
+        assertEquals(10, engine.orderBook().quantityAt(Order.Side.SELL, new BigDecimal("100.01")));
+        assertNull(engine.orderBook().getBestBid());
+
+        // A buy that outgrows the side rests its leftover at its own limit
+        assertEquals(2, engine.processOrder(buy("B2", 50, "100.05"), trades));
+        assertEquals(30, engine.orderBook().quantityAt(Order.Side.BUY, new BigDecimal("100.05")));
+        assertNull(engine.orderBook().getBestAsk());
+        assertEquals(0, new BigDecimal("100.05").compareTo(engine.orderBook().getBestBid()));
+    }
+
+    public void testRestingOrdersKeepTimePriorityAndTheBufferIsReused() {
+        TradingEngine engine = new TradingEngine();
+        TradeBuffer trades = new TradeBuffer();
+        for (int i = 0; i < 100; i++) {
+            engine.processOrder(buy("B" + i, 1, "99.00"), trades);
+        }
+
+        assertEquals(100, engine.processOrder(sell("S1", 150, "99.00"), trades));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("B" + i, trades.buyOrderId(i));
+        }
+        assertEquals(50, engine.orderBook().quantityAt(Order.Side.SELL, new BigDecimal("99.00")));
+
+        List<Trade> next = engine.processOrder(buy("B100", 10, "99.00"));
+        assertEquals(1, next.size());
+        assertEquals("S1", next.get(0).sellOrderId());
+        assertEquals(0, engine.processOrder(buy("B101", 1, "98.00"), trades));
+        assertEquals(0, trades.size());
+    }
+
+    public void testPricesOffTheTickAreRejected() {
+        TradingEngine engine = new TradingEngine();
+        try {
+            engine.processOrder(buy("B1", 1, "100.005"), new TradeBuffer());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static Order buy(String id, int quantity, String price) {
+        return new Order(id, "AAPL", Order.Side.BUY, quantity, new BigDecimal(price));
+    }
+
+    private static Order sell(String id, int quantity, String price) {
+        return new Order(id, "AAPL", Order.Side.SELL, quantity, new BigDecimal(price));
+    }
+}